@@ -18,57 +18,175 @@
 
 package de.thm.arsnova.cache;
 
-import org.springframework.cache.annotation.CacheEvict;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import de.thm.arsnova.event.AfterCreationEvent;
 import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
+import de.thm.arsnova.event.BatchEvent;
 import de.thm.arsnova.event.ChangeScoreEvent;
-import de.thm.arsnova.model.Answer;
+import de.thm.arsnova.event.CrudEvent;
 import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.Content;
+import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.model.Entity;
 import de.thm.arsnova.model.Room;
 
 /**
  * This class is used to evict caches based on events. The events carry all necessary information to clear the
  * caches, e.g, for a specific session.
+ *
+ * <p>
+ * Cache keys which are derived from entities are registered as dependencies of the entity type. Only the keys
+ * affected by a change, e.g. the content list of a single room, are evicted instead of whole caches. For updates,
+ * keys derived from the old state of the entity are evicted as well. Evictions are counted per cache and reason.
+ * </p>
  */
 @Component
 public class CacheBusterImpl implements CacheBuster {
+	private static final String METRIC_NAME = "arsnova.cache.evictions";
 
-	@CacheEvict(value = "statistics", allEntries = true)
-	@EventListener
-	public void handleAfterCommentCreation(final AfterCreationEvent<Comment> event) {
-		/* Implementation provided by caching aspect. */
+	private final CacheManager cacheManager;
+	private final Map<Class<?>, List<Dependency<?>>> dependencies = new HashMap<>();
+	private MeterRegistry meterRegistry;
+
+	public CacheBusterImpl(final CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+
+		/* The statistics are cached as a single entry by a loader method without parameters. */
+		addDependency(Comment.class, "statistics", comment -> SimpleKey.EMPTY,
+				AfterCreationEvent.class, AfterDeletionEvent.class);
+		addDependency(Room.class, "statistics", room -> SimpleKey.EMPTY,
+				AfterCreationEvent.class, AfterDeletionEvent.class);
+		addDependency(Content.class, "contentlists", Content::getRoomId,
+				AfterCreationEvent.class, AfterUpdateEvent.class, AfterDeletionEvent.class);
+		addDependency(ContentGroup.class, "contentlists", ContentGroup::getRoomId,
+				AfterCreationEvent.class, AfterUpdateEvent.class, AfterDeletionEvent.class);
 	}
 
-	@CacheEvict(value = "statistics", allEntries = true)
-	@EventListener
-	public void handleAfterCommentDeletion(final AfterDeletionEvent<Comment> event) {
-		/* Implementation provided by caching aspect. */
+	@Autowired(required = false)
+	public void setMeterRegistry(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@EventListener(condition = "#event.batch == null")
+	public void handleAfterCreation(final AfterCreationEvent<?> event) {
+		evict(Collections.singletonList(event));
+	}
+
+	@EventListener(condition = "#event.batch == null")
+	public void handleAfterUpdate(final AfterUpdateEvent<?> event) {
+		evict(Collections.singletonList(event));
+	}
+
+	@EventListener(condition = "#event.batch == null")
+	public void handleAfterDeletion(final AfterDeletionEvent<?> event) {
+		evict(Collections.singletonList(event));
 	}
 
-	@CacheEvict(value = "answerlists", key = "#event.content.id")
+	/**
+	 * Evicts the keys affected by a bulk operation. Each key is only evicted once, even if it is derived from
+	 * multiple entities.
+	 */
 	@EventListener
-	public void handleAfterAnswerCreation(final AfterCreationEvent<Answer> event) {
-		/* Implementation provided by caching aspect. */
+	public void handleBatch(final BatchEvent<? extends CrudEvent<?>> event) {
+		evict(event.getEvents());
 	}
 
-	@CacheEvict(value = "statistics", allEntries = true)
 	@EventListener
 	public void handleChangeScore(final ChangeScoreEvent event) {
-		/* Implementation provided by caching aspect. */
+		evict("statistics", SimpleKey.EMPTY, "ChangeScore");
 	}
 
-	@CacheEvict(value = "statistics", allEntries = true)
-	@EventListener
-	public void handleAfterRoomCreation(final AfterCreationEvent<Room> event) {
-		/* Implementation provided by caching aspect. */
+	private <E extends Entity> void addDependency(final Class<E> entityType, final String cacheName,
+			final Function<E, Object> keyMapper, final Class<?>... eventTypes) {
+		dependencies.computeIfAbsent(entityType, k -> new ArrayList<>())
+				.add(new Dependency<>(cacheName, keyMapper, Arrays.asList(eventTypes)));
 	}
 
-	@CacheEvict(value = "statistics", allEntries = true)
-	@EventListener
-	public void handleAfterRoomDeletion(final AfterDeletionEvent<Room> event) {
-		/* Implementation provided by caching aspect. */
+	private void evict(final List<? extends CrudEvent<?>> events) {
+		final Map<String, Set<Object>> keysByCacheName = new LinkedHashMap<>();
+		for (final CrudEvent<?> event : events) {
+			collectKeys(event, event.getEntity(), keysByCacheName);
+			if (event instanceof AfterUpdateEvent) {
+				collectKeys(event, ((AfterUpdateEvent<?>) event).getOldEntity(), keysByCacheName);
+			}
+		}
+		if (keysByCacheName.isEmpty()) {
+			return;
+		}
+		final String eventType = events.get(0).getClass().getSimpleName();
+		final String reason = eventType.substring(0, eventType.length() - 5);
+		keysByCacheName.forEach((cacheName, keys) -> keys.forEach(key -> evict(cacheName, key, reason)));
+	}
+
+	private void collectKeys(final CrudEvent<?> event, final Entity entity,
+			final Map<String, Set<Object>> keysByCacheName) {
+		if (entity == null) {
+			return;
+		}
+		for (Class<?> type = entity.getClass(); type != Object.class; type = type.getSuperclass()) {
+			for (final Dependency<?> dependency : dependencies.getOrDefault(type, Collections.emptyList())) {
+				final Object key = dependency.getKey(event, entity);
+				if (key != null) {
+					keysByCacheName.computeIfAbsent(dependency.cacheName, k -> new LinkedHashSet<>()).add(key);
+				}
+			}
+		}
+	}
+
+	private void evict(final String cacheName, final Object key, final String reason) {
+		final Cache cache = cacheManager.getCache(cacheName);
+		if (cache == null) {
+			return;
+		}
+		cache.evict(key);
+		if (meterRegistry != null) {
+			meterRegistry.counter(METRIC_NAME, "cache", cacheName, "reason", reason).increment();
+		}
+	}
+
+	/**
+	 * A cache key which is derived from an entity and has to be evicted for the given event types.
+	 *
+	 * @param <E> The entity type
+	 */
+	private static class Dependency<E extends Entity> {
+		private final String cacheName;
+		private final Function<E, Object> keyMapper;
+		private final List<Class<?>> eventTypes;
+
+		private Dependency(final String cacheName, final Function<E, Object> keyMapper,
+				final List<Class<?>> eventTypes) {
+			this.cacheName = cacheName;
+			this.keyMapper = keyMapper;
+			this.eventTypes = eventTypes;
+		}
+
+		private Object getKey(final CrudEvent<?> event, final Entity entity) {
+			for (final Class<?> eventType : eventTypes) {
+				if (eventType.isInstance(event)) {
+					return keyMapper.apply((E) entity);
+				}
+			}
+
+			return null;
+		}
 	}
 }
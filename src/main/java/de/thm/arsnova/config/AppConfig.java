@@ -74,6 +74,9 @@ import de.thm.arsnova.model.migration.FromV2Migrator;
 import de.thm.arsnova.model.migration.ToV2Migrator;
 import de.thm.arsnova.model.serialization.CouchDbDocumentModule;
 import de.thm.arsnova.model.serialization.View;
+import de.thm.arsnova.service.AnswerService;
+import de.thm.arsnova.service.ContentService;
+import de.thm.arsnova.service.RoomService;
 import de.thm.arsnova.util.ImageUtils;
 import de.thm.arsnova.web.CacheControlInterceptorHandler;
 import de.thm.arsnova.web.CorsFilter;
@@ -82,6 +85,7 @@ import de.thm.arsnova.web.PathBasedContentNegotiationStrategy;
 import de.thm.arsnova.web.ResponseInterceptorHandler;
 import de.thm.arsnova.websocket.ArsnovaSocketioServer;
 import de.thm.arsnova.websocket.ArsnovaSocketioServerImpl;
+import de.thm.arsnova.websocket.RoomJoinSnapshotCache;
 
 /**
  * Loads property file and configures non-security related beans and components.
@@ -321,6 +325,15 @@ public class AppConfig implements WebMvcConfigurer {
 		return socketioServer;
 	}
 
+	@Profile("!test")
+	@Bean
+	public RoomJoinSnapshotCache roomJoinSnapshotCache(
+			final RoomService roomService,
+			final AnswerService answerService,
+			final ContentService contentService) {
+		return new RoomJoinSnapshotCache(roomService, answerService, contentService);
+	}
+
 	@Bean
 	public CacheManager cacheManager() {
 		return new ConcurrentMapCacheManager();
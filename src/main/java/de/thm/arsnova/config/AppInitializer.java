@@ -30,6 +30,7 @@ public class AppInitializer extends AbstractAnnotationConfigDispatcherServletIni
 		return new Class[] {
 				AppConfig.class,
 				PersistenceConfig.class,
+				InMemoryPersistenceConfig.class,
 				SecurityConfig.class,
 				RabbitConfig.class,
 				TaskExecutorConfig.class,
@@ -0,0 +1,101 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import de.thm.arsnova.model.serialization.CouchDbObjectMapperFactory;
+import de.thm.arsnova.persistence.LogEntryRepository;
+import de.thm.arsnova.persistence.SessionStatisticsRepository;
+import de.thm.arsnova.persistence.StatisticsRepository;
+import de.thm.arsnova.persistence.memory.InMemoryAnswerRepository;
+import de.thm.arsnova.persistence.memory.InMemoryCommentRepository;
+import de.thm.arsnova.persistence.memory.InMemoryContentGroupRepository;
+import de.thm.arsnova.persistence.memory.InMemoryContentRepository;
+import de.thm.arsnova.persistence.memory.InMemoryLogEntryRepository;
+import de.thm.arsnova.persistence.memory.InMemoryMotdRepository;
+import de.thm.arsnova.persistence.memory.InMemoryRoomRepository;
+import de.thm.arsnova.persistence.memory.InMemorySessionStatisticsRepository;
+import de.thm.arsnova.persistence.memory.InMemoryStatisticsRepository;
+import de.thm.arsnova.persistence.memory.InMemoryUserRepository;
+
+/**
+ * Replaces the CouchDB repositories with implementations backed by in-memory maps if the <code>memory</code> profile
+ * is active. Data is not persisted across restarts, so this configuration is only intended for measuring the
+ * throughput of the service layer in isolation.
+ */
+@Configuration
+@Profile("memory")
+public class InMemoryPersistenceConfig {
+	private final ObjectMapper objectMapper = new CouchDbObjectMapperFactory().createDetachedObjectMapper();
+
+	@Bean
+	public LogEntryRepository logEntryRepository() {
+		return new InMemoryLogEntryRepository();
+	}
+
+	@Bean
+	public InMemoryUserRepository userRepository() {
+		return new InMemoryUserRepository(objectMapper);
+	}
+
+	@Bean
+	public InMemoryRoomRepository sessionRepository() {
+		return new InMemoryRoomRepository(objectMapper, contentRepository(), answerRepository(), commentRepository());
+	}
+
+	@Bean
+	public InMemoryCommentRepository commentRepository() {
+		return new InMemoryCommentRepository(objectMapper);
+	}
+
+	@Bean
+	public InMemoryContentRepository contentRepository() {
+		return new InMemoryContentRepository(objectMapper, answerRepository());
+	}
+
+	@Bean
+	public InMemoryContentGroupRepository contentGroupRepository() {
+		return new InMemoryContentGroupRepository(objectMapper);
+	}
+
+	@Bean
+	public InMemoryAnswerRepository answerRepository() {
+		return new InMemoryAnswerRepository(objectMapper);
+	}
+
+	@Bean
+	public InMemoryMotdRepository motdRepository() {
+		return new InMemoryMotdRepository(objectMapper);
+	}
+
+	@Bean
+	public StatisticsRepository statisticsRepository() {
+		return new InMemoryStatisticsRepository(
+				sessionRepository(), contentGroupRepository(), answerRepository(), commentRepository());
+	}
+
+	@Bean
+	public SessionStatisticsRepository sessionStatisticsRepository() {
+		return new InMemorySessionStatisticsRepository();
+	}
+}
@@ -57,7 +57,7 @@ import de.thm.arsnova.persistence.couchdb.support.MangoCouchDbConnector;
 })
 @Configuration
 @EnableConfigurationProperties(CouchDbProperties.class)
-@Profile("!test")
+@Profile("!test & !memory")
 public class PersistenceConfig {
 	private static final int MIGRATION_SOCKET_TIMEOUT = 30000;
 
@@ -131,7 +131,9 @@ public class PersistenceConfig {
 
 	@Bean
 	public LogEntryRepository logEntryRepository() throws Exception {
-		return new CouchDbLogEntryRepository(couchDbConnector(), false);
+		final CouchDbProperties.LogWriter logWriter = properties.getLogWriter();
+		return new CouchDbLogEntryRepository(couchDbConnector(), false,
+				logWriter.getQueueCapacity(), logWriter.getBatchSize(), logWriter.getOverflowPolicy());
 	}
 
 	@Bean
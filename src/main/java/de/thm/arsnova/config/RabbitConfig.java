@@ -163,10 +163,12 @@ public class RabbitConfig {
 			havingValue = "true")
 	public SimpleRabbitListenerContainerFactory myRabbitListenerContainerFactory(
 			@TaskExecutorConfig.RabbitConnectionExecutor final TaskExecutor executor,
+			@TaskExecutorConfig.RabbitListenerExecutor final TaskExecutor listenerExecutor,
 			final MessageBrokerProperties messageBrokerProperties
 	) {
 		final SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
 		factory.setConnectionFactory(connectionFactory(executor, messageBrokerProperties));
+		factory.setTaskExecutor(listenerExecutor);
 		factory.setMessageConverter(jsonMessageConverter());
 		factory.setMaxConcurrentConsumers(5);
 		return factory;
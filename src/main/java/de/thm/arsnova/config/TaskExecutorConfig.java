@@ -5,17 +5,44 @@ import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.PARAMETER;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import de.thm.arsnova.config.properties.TaskExecutorProperties;
+import de.thm.arsnova.event.DeferredEventListener;
+import de.thm.arsnova.event.DeferredEventListenerFactory;
+
+/**
+ * Provides the executors for asynchronous tasks. Executors for work which is triggered by clients are bounded and
+ * their saturation policies are configured via {@link TaskExecutorProperties}. All executors are monitored by
+ * Micrometer if a {@link MeterRegistry} is available. Tasks which are rejected because an executor is saturated are
+ * counted by the <code>executor.rejected</code> meter regardless of the saturation policy.
+ */
 @Configuration
+@EnableConfigurationProperties(TaskExecutorProperties.class)
 public class TaskExecutorConfig {
+	/** Bean name of the executor for asynchronous WebSocket event handlers, used as <code>@Async</code> value. */
+	public static final String WEBSOCKET_EXECUTOR = "websocketExecutor";
+
+	/** Bean name of the executor for {@link DeferredEventListener}s. */
+	public static final String EVENT_EXECUTOR = "eventExecutor";
+
+	private static final String REJECTED_METRIC_NAME = "executor.rejected";
+
 	@Target({FIELD, PARAMETER, METHOD})
 	@Retention(RUNTIME)
 	@Qualifier
@@ -26,6 +53,31 @@ public class TaskExecutorConfig {
 	@Qualifier
 	public @interface RabbitListenerExecutor {}
 
+	@Target({FIELD, PARAMETER, METHOD})
+	@Retention(RUNTIME)
+	@Qualifier
+	public @interface ImportExecutor {}
+
+	@Target({FIELD, PARAMETER, METHOD})
+	@Retention(RUNTIME)
+	@Qualifier
+	public @interface StatisticsExecutor {}
+
+	@Target({FIELD, PARAMETER, METHOD})
+	@Retention(RUNTIME)
+	@Qualifier
+	public @interface MailExecutor {}
+
+	private final TaskExecutorProperties taskExecutorProperties;
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public TaskExecutorConfig(
+			final TaskExecutorProperties taskExecutorProperties,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		this.taskExecutorProperties = taskExecutorProperties;
+		this.meterRegistry = meterRegistry;
+	}
+
 	/**
 	 * "The executor’s thread pool should be unbounded, or set appropriately for
 	 * the expected utilization (usually, at least one thread per connection).
@@ -44,12 +96,15 @@ public class TaskExecutorConfig {
 		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 		executor.setThreadNamePrefix("RabbitConnection");
 		executor.afterPropertiesSet();
+		monitor(executor, "rabbitConnection");
 		return executor;
 	}
 
 	/**
 	 * Listeners would use a SimpleAsyncTaskExecutor by default (creates a new
-	 * thread for each task).
+	 * thread for each task). Each consumer occupies a thread as long as it is
+	 * running, so the pool size limits the consumers and tasks are not queued
+	 * by default.
 	 *
 	 * <p>Reference:
 	 * http://docs.spring.io/spring-amqp/reference/htmlsingle/#_threading_and_asynchronous_consumers
@@ -59,9 +114,124 @@ public class TaskExecutorConfig {
 	@Autowired
 	@RabbitListenerExecutor
 	public TaskExecutor rabbitListenerExecutor() {
+		return createBoundedExecutor("RabbitListener", "rabbitListener", taskExecutorProperties.getRabbitListener());
+	}
+
+	/**
+	 * Imports are long running and write heavily to the database. They are
+	 * executed by a small pool with a bounded queue so that concurrent imports
+	 * cannot exhaust the database's capacity. Further imports are rejected by
+	 * default while the queue is full.
+	 */
+	@Bean
+	@ImportExecutor
+	public TaskExecutor importExecutor() {
+		return createBoundedExecutor("Import", "import", taskExecutorProperties.getImports());
+	}
+
+	/**
+	 * Processes events for {@link DeferredEventListener}s. If the queue is full, listeners are invoked on the
+	 * publishing thread by default, so events are not lost. Discarding policies are not supported since the ordering
+	 * of events for the same entity relies on each submitted task either being run or rejected.
+	 */
+	@Bean(EVENT_EXECUTOR)
+	public TaskExecutor eventExecutor() {
+		final TaskExecutorProperties.Pool pool = taskExecutorProperties.getEvent();
+		if (pool.getSaturationPolicy() != TaskExecutorProperties.SaturationPolicy.ABORT
+				&& pool.getSaturationPolicy() != TaskExecutorProperties.SaturationPolicy.CALLER_RUNS) {
+			throw new IllegalStateException("Saturation policy " + pool.getSaturationPolicy()
+					+ " is not supported for the event executor. Use ABORT or CALLER_RUNS.");
+		}
+
+		return createBoundedExecutor("Event", "event", pool);
+	}
+
+	/**
+	 * The factory is created before regular beans, so it is declared static and looks up the executor lazily.
+	 */
+	@Bean
+	public static DeferredEventListenerFactory deferredEventListenerFactory() {
+		return new DeferredEventListenerFactory(EVENT_EXECUTOR, TaskExecutorProperties::getEvent);
+	}
+
+	/**
+	 * WebSocket event handlers broadcast to all clients of a room, so events pile up during votes. Handlers are
+	 * executed on the publishing thread if the queue is full by default, which slows down the clients causing the
+	 * events instead of dropping broadcasts.
+	 */
+	@Bean(WEBSOCKET_EXECUTOR)
+	public TaskExecutor websocketExecutor() {
+		return createBoundedExecutor("Websocket", "websocket", taskExecutorProperties.getWebsocket());
+	}
+
+	/**
+	 * Statistics are recomputed periodically from database views. A recomputation which is requested while another one
+	 * is still pending is redundant and dropped by default.
+	 */
+	@Bean
+	@StatisticsExecutor
+	public TaskExecutor statisticsExecutor() {
+		return createBoundedExecutor("Statistics", "statistics", taskExecutorProperties.getStatistics());
+	}
+
+	/**
+	 * Mails are sent in the background so requests do not wait for the mail server.
+	 */
+	@Bean
+	@MailExecutor
+	public TaskExecutor mailExecutor() {
+		return createBoundedExecutor("Mail", "mail", taskExecutorProperties.getMail());
+	}
+
+	private ThreadPoolTaskExecutor createBoundedExecutor(
+			final String threadNamePrefix, final String name, final TaskExecutorProperties.Pool pool) {
 		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-		executor.setThreadNamePrefix("RabbitListener");
+		executor.setThreadNamePrefix(threadNamePrefix);
+		executor.setCorePoolSize(pool.getCorePoolSize());
+		executor.setMaxPoolSize(pool.getMaxPoolSize());
+		executor.setQueueCapacity(pool.getQueueCapacity());
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setRejectedExecutionHandler(createRejectedExecutionHandler(name, pool.getSaturationPolicy()));
 		executor.afterPropertiesSet();
+		monitor(executor, name);
+
 		return executor;
 	}
+
+	private RejectedExecutionHandler createRejectedExecutionHandler(
+			final String name, final TaskExecutorProperties.SaturationPolicy saturationPolicy) {
+		final RejectedExecutionHandler handler;
+		switch (saturationPolicy) {
+			case CALLER_RUNS:
+				handler = new ThreadPoolExecutor.CallerRunsPolicy();
+				break;
+			case DISCARD_NEW:
+				handler = new ThreadPoolExecutor.DiscardPolicy();
+				break;
+			case DISCARD_OLDEST:
+				handler = new ThreadPoolExecutor.DiscardOldestPolicy();
+				break;
+			default:
+				handler = new ThreadPoolExecutor.AbortPolicy();
+				break;
+		}
+		final MeterRegistry registry = meterRegistry.getIfAvailable();
+		if (registry == null) {
+			return handler;
+		}
+		final Counter rejectedCounter = Counter.builder(REJECTED_METRIC_NAME)
+				.description("Tasks which were not queued because the executor was saturated")
+				.tag("name", name)
+				.register(registry);
+
+		return (task, executor) -> {
+			rejectedCounter.increment();
+			handler.rejectedExecution(task, executor);
+		};
+	}
+
+	private void monitor(final ThreadPoolTaskExecutor executor, final String name) {
+		meterRegistry.ifAvailable(registry ->
+				new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(registry));
+	}
 }
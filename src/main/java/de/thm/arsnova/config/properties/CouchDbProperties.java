@@ -23,6 +23,49 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(CouchDbProperties.PREFIX)
 public class CouchDbProperties {
 	public static final String PREFIX = SystemProperties.PREFIX + ".couchdb";
+
+	public static class LogWriter {
+		/**
+		 * Determines what happens to a log entry if the queue of the log writer is full.
+		 */
+		public enum OverflowPolicy {
+			/** Drops the entry which should be queued. */
+			DISCARD_NEW,
+			/** Drops the oldest queued entry to make room for the new one. */
+			DISCARD_OLDEST,
+			/** Writes the entry synchronously on the calling thread. */
+			CALLER_WRITES
+		}
+
+		private int queueCapacity = 1000;
+		private int batchSize = 100;
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DISCARD_NEW;
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(final int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(final int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public OverflowPolicy getOverflowPolicy() {
+			return overflowPolicy;
+		}
+
+		public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+		}
+	}
+
 	private String host;
 	private int port;
 	private String dbName;
@@ -30,6 +73,7 @@ public class CouchDbProperties {
 	private String username;
 	private String password;
 	private String migrateFrom;
+	private LogWriter logWriter = new LogWriter();
 
 	public String getHost() {
 		return host;
@@ -86,4 +130,12 @@ public class CouchDbProperties {
 	public void setMigrateFrom(final String migrateFrom) {
 		this.migrateFrom = migrateFrom;
 	}
+
+	public LogWriter getLogWriter() {
+		return logWriter;
+	}
+
+	public void setLogWriter(final LogWriter logWriter) {
+		this.logWriter = logWriter;
+	}
 }
@@ -0,0 +1,150 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(TaskExecutorProperties.PREFIX)
+public class TaskExecutorProperties {
+	public static final String PREFIX = SystemProperties.PREFIX + ".executors";
+
+	public enum SaturationPolicy {
+		/** Rejects the task with an exception. */
+		ABORT,
+		/** Executes the task on the submitting thread. */
+		CALLER_RUNS,
+		/** Drops the task which should be queued. */
+		DISCARD_NEW,
+		/** Drops the oldest queued task to make room for the new one. */
+		DISCARD_OLDEST
+	}
+
+	/**
+	 * Sizes and saturation policy of a thread pool. Like {@link java.util.concurrent.ThreadPoolExecutor}, the pool
+	 * only starts threads beyond the core pool size once the queue is full. For pools with a large queue, the core
+	 * pool size is therefore the effective number of threads and the maximum is only reached under overload. The
+	 * defaults use the same value for both sizes unless the queue is small. Idle core threads are stopped, so the
+	 * threads of an unused pool are released.
+	 */
+	public static class Pool {
+		private int corePoolSize;
+		private int maxPoolSize;
+		private int queueCapacity;
+		private SaturationPolicy saturationPolicy;
+
+		public Pool() {
+			this(1, 1, 100, SaturationPolicy.ABORT);
+		}
+
+		public Pool(final int corePoolSize, final int maxPoolSize, final int queueCapacity,
+				final SaturationPolicy saturationPolicy) {
+			this.corePoolSize = corePoolSize;
+			this.maxPoolSize = maxPoolSize;
+			this.queueCapacity = queueCapacity;
+			this.saturationPolicy = saturationPolicy;
+		}
+
+		public int getCorePoolSize() {
+			return corePoolSize;
+		}
+
+		public void setCorePoolSize(final int corePoolSize) {
+			this.corePoolSize = corePoolSize;
+		}
+
+		public int getMaxPoolSize() {
+			return maxPoolSize;
+		}
+
+		public void setMaxPoolSize(final int maxPoolSize) {
+			this.maxPoolSize = maxPoolSize;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(final int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public SaturationPolicy getSaturationPolicy() {
+			return saturationPolicy;
+		}
+
+		public void setSaturationPolicy(final SaturationPolicy saturationPolicy) {
+			this.saturationPolicy = saturationPolicy;
+		}
+	}
+
+	private Pool event = new Pool(8, 8, 10000, SaturationPolicy.CALLER_RUNS);
+	private Pool websocket = new Pool(8, 8, 1000, SaturationPolicy.CALLER_RUNS);
+	private Pool statistics = new Pool(1, 1, 1, SaturationPolicy.DISCARD_NEW);
+	private Pool mail = new Pool(2, 2, 100, SaturationPolicy.CALLER_RUNS);
+	private Pool rabbitListener = new Pool(1, 10, 0, SaturationPolicy.ABORT);
+	private Pool imports = new Pool(2, 2, 10, SaturationPolicy.ABORT);
+
+	public Pool getEvent() {
+		return event;
+	}
+
+	public void setEvent(final Pool event) {
+		this.event = event;
+	}
+
+	public Pool getWebsocket() {
+		return websocket;
+	}
+
+	public void setWebsocket(final Pool websocket) {
+		this.websocket = websocket;
+	}
+
+	public Pool getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(final Pool statistics) {
+		this.statistics = statistics;
+	}
+
+	public Pool getMail() {
+		return mail;
+	}
+
+	public void setMail(final Pool mail) {
+		this.mail = mail;
+	}
+
+	public Pool getRabbitListener() {
+		return rabbitListener;
+	}
+
+	public void setRabbitListener(final Pool rabbitListener) {
+		this.rabbitListener = rabbitListener;
+	}
+
+	public Pool getImports() {
+		return imports;
+	}
+
+	public void setImports(final Pool imports) {
+		this.imports = imports;
+	}
+}
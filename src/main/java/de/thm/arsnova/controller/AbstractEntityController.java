@@ -43,6 +43,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.web.util.UriUtils;
@@ -52,6 +53,7 @@ import de.thm.arsnova.model.FindQuery;
 import de.thm.arsnova.model.serialization.View;
 import de.thm.arsnova.service.EntityService;
 import de.thm.arsnova.service.FindQueryService;
+import de.thm.arsnova.web.ETagHelper;
 import de.thm.arsnova.web.exceptions.NotFoundException;
 
 /**
@@ -87,13 +89,23 @@ public abstract class AbstractEntityController<E extends Entity> {
 	protected abstract String getMapping();
 
 	@GetMapping(GET_MAPPING)
-	public E get(@PathVariable final String id) {
-		return entityService.get(id);
+	public E get(@PathVariable final String id, final WebRequest webRequest) {
+		final E entity = entityService.get(id);
+		if (entity != null && webRequest.checkNotModified(ETagHelper.forEntity(entity))) {
+			return null;
+		}
+
+		return entity;
 	}
 
 	@GetMapping(GET_MULTIPLE_MAPPING)
-	public Iterable<E> getMultiple(@RequestParam final Collection<String> ids) {
-		return entityService.get(ids);
+	public Iterable<E> getMultiple(@RequestParam final Collection<String> ids, final WebRequest webRequest) {
+		final Iterable<E> entities = entityService.get(ids);
+		if (webRequest.checkNotModified(ETagHelper.forEntities(entities))) {
+			return null;
+		}
+
+		return entities;
 	}
 
 	@PutMapping(value = PUT_MAPPING, produces = MEDIATYPE_EMPTY)
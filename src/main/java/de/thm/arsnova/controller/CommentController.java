@@ -18,6 +18,9 @@
 
 package de.thm.arsnova.controller;
 
+import java.util.List;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,6 +31,7 @@ import de.thm.arsnova.service.CommentService;
 @RequestMapping(CommentController.REQUEST_MAPPING)
 public class CommentController extends AbstractEntityController<Comment> {
 	protected static final String REQUEST_MAPPING = "/comment";
+	private static final String MARK_READ_MAPPING = "/read";
 
 	private CommentService commentService;
 
@@ -36,6 +40,11 @@ public class CommentController extends AbstractEntityController<Comment> {
 		this.commentService = commentService;
 	}
 
+	@PostMapping(MARK_READ_MAPPING)
+	public List<Comment> markRead(@RequestBody final List<String> ids) {
+		return commentService.markRead(ids);
+	}
+
 	@Override
 	protected String getMapping() {
 		return REQUEST_MAPPING;
@@ -47,6 +47,7 @@ import de.thm.arsnova.web.exceptions.NotFoundException;
 import de.thm.arsnova.web.exceptions.NotImplementedException;
 import de.thm.arsnova.web.exceptions.PayloadTooLargeException;
 import de.thm.arsnova.web.exceptions.PreconditionFailedException;
+import de.thm.arsnova.web.exceptions.ServiceUnavailableException;
 import de.thm.arsnova.web.exceptions.UnauthorizedException;
 
 /**
@@ -150,6 +151,13 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
 		return helper.handleException(e, Level.DEBUG);
 	}
 
+	@ExceptionHandler(ServiceUnavailableException.class)
+	@ResponseBody
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public Map<String, Object> handleServiceUnavailableException(final Exception e, final HttpServletRequest request) {
+		return helper.handleException(e, Level.DEBUG);
+	}
+
 	/* FIXME: Wrap persistance Exceptions - do not handle persistance Exceptions at the controller layer */
 	@ExceptionHandler(DocumentNotFoundException.class)
 	@ResponseBody
@@ -4,13 +4,20 @@ import static de.thm.arsnova.controller.AbstractEntityController.ENTITY_ID_HEADE
 import static de.thm.arsnova.controller.AbstractEntityController.ENTITY_REVISION_HEADER;
 
 import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.transport.ImportExportContainer;
+import de.thm.arsnova.model.transport.ImportJob;
 import de.thm.arsnova.service.ImportService;
 
 @RestController
@@ -18,6 +25,8 @@ import de.thm.arsnova.service.ImportService;
 public class ImportController {
 	protected static final String REQUEST_MAPPING = "/import";
 	private static final String IMPORT_V2_ROOM_MAPPING = "/v2/room";
+	private static final String IMPORT_V2_ROOM_JOB_MAPPING = "/v2/room/job";
+	private static final String JOB_MAPPING = "/job/{id}";
 
 	private ImportService importService;
 
@@ -36,4 +45,23 @@ public class ImportController {
 
 		return room;
 	}
+
+	@PostMapping(IMPORT_V2_ROOM_JOB_MAPPING)
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public ImportJob importRoomAsync(
+			@RequestBody final ImportExportContainer container,
+			final HttpServletResponse httpServletResponse
+	) {
+		final ImportJob job = importService.importFromV2Async(container);
+		final String uri = UriComponentsBuilder.fromPath(REQUEST_MAPPING).path(JOB_MAPPING)
+				.buildAndExpand(job.getId()).toUriString();
+		httpServletResponse.setHeader(HttpHeaders.LOCATION, uri);
+
+		return job;
+	}
+
+	@GetMapping(JOB_MAPPING)
+	public ImportJob getImportJob(@PathVariable final String id) {
+		return importService.getImportJob(id);
+	}
 }
@@ -45,11 +45,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import de.thm.arsnova.controller.PaginationController;
 import de.thm.arsnova.model.ChoiceAnswer;
 import de.thm.arsnova.model.ChoiceQuestionContent;
-import de.thm.arsnova.model.ContentGroup;
 import de.thm.arsnova.model.GridImageContent;
 import de.thm.arsnova.model.TextAnswer;
 import de.thm.arsnova.model.migration.FromV2Migrator;
@@ -63,6 +63,7 @@ import de.thm.arsnova.service.RoomService;
 import de.thm.arsnova.service.TimerService;
 import de.thm.arsnova.util.PaginationListDecorator;
 import de.thm.arsnova.web.DeprecatedApi;
+import de.thm.arsnova.web.ETagHelper;
 import de.thm.arsnova.web.Pagination;
 import de.thm.arsnova.web.exceptions.BadRequestException;
 import de.thm.arsnova.web.exceptions.ForbiddenException;
@@ -104,13 +105,16 @@ public class ContentController extends PaginationController {
 			@ApiResponse(code = 404, message = HTML_STATUS_404)
 	})
 	@GetMapping("/{contentId}")
-	public Content getContent(@PathVariable final String contentId) {
+	public Content getContent(@PathVariable final String contentId, final WebRequest webRequest) {
 		final de.thm.arsnova.model.Content content = contentService.get(contentId);
 		if (content != null) {
-			final Optional<ContentGroup> contentGroup = contentGroupService.getByRoomId(content.getRoomId()).stream()
-					.filter(cg -> cg.getContentIds().contains(contentId)).findFirst();
+			final Optional<String> groupName = contentGroupService
+					.getNamesByRoomIdAndContentId(content.getRoomId(), contentId).stream().sorted().findFirst();
+			if (webRequest.checkNotModified(ETagHelper.forEntity(content, groupName.orElse("")))) {
+				return null;
+			}
 			final Content contentV2 = toV2Migrator.migrate(content);
-			contentGroup.ifPresent(cg -> contentV2.setQuestionVariant(cg.getName()));
+			groupName.ifPresent(contentV2::setQuestionVariant);
 
 			return contentV2;
 		}
@@ -332,7 +336,8 @@ public class ContentController extends PaginationController {
 			@RequestParam(value = "flashcardsonly", defaultValue = "false") final boolean flashcardsOnly,
 			@RequestParam(value = "preparationquestionsonly", defaultValue = "false") final boolean preparationContentsOnly,
 			@RequestParam(value = "requestImageData", defaultValue = "false") final boolean requestImageData,
-			final HttpServletResponse response) {
+			final HttpServletResponse response,
+			final WebRequest webRequest) {
 		final String roomId = roomService.getIdByShortId(roomShortId);
 		final Iterable<de.thm.arsnova.model.Content> contents;
 		if (lectureContentsOnly) {
@@ -348,6 +353,9 @@ public class ContentController extends PaginationController {
 			response.setStatus(HttpStatus.NO_CONTENT.value());
 			return null;
 		}
+		if (webRequest.checkNotModified(ETagHelper.forEntities(contents, offset, limit))) {
+			return null;
+		}
 
 		return new PaginationListDecorator<>(StreamSupport.stream(contents.spliterator(), false)
 				.map(toV2Migrator::migrate).collect(Collectors.toList()), offset, limit);
@@ -28,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import de.thm.arsnova.controller.AbstractController;
 import de.thm.arsnova.model.Feedback;
@@ -36,6 +37,7 @@ import de.thm.arsnova.service.FeedbackService;
 import de.thm.arsnova.service.RoomService;
 import de.thm.arsnova.service.UserService;
 import de.thm.arsnova.web.DeprecatedApi;
+import de.thm.arsnova.web.ETagHelper;
 import de.thm.arsnova.web.exceptions.NotFoundException;
 import de.thm.arsnova.websocket.ArsnovaSocketioServerImpl;
 
@@ -60,8 +62,14 @@ public class FeedbackController extends AbstractController {
 	@DeprecatedApi
 	@Deprecated
 	@GetMapping("/feedback")
-	public Feedback getFeedback(@PathVariable final String shortId) {
-		return feedbackService.getByRoomId(roomService.getIdByShortId(shortId));
+	public Feedback getFeedback(@PathVariable final String shortId, final WebRequest webRequest) {
+		final String roomId = roomService.getIdByShortId(shortId);
+		if (webRequest.checkNotModified(
+				ETagHelper.forVersion("feedback-" + roomId, feedbackService.getVersionByRoomId(roomId)))) {
+			return null;
+		}
+
+		return feedbackService.getByRoomId(roomId);
 	}
 
 	@DeprecatedApi
@@ -44,6 +44,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import de.thm.arsnova.controller.PaginationController;
 import de.thm.arsnova.model.migration.FromV2Migrator;
@@ -59,6 +60,7 @@ import de.thm.arsnova.service.RoomServiceImpl.RoomNameComparator;
 import de.thm.arsnova.service.RoomServiceImpl.RoomShortNameComparator;
 import de.thm.arsnova.service.UserService;
 import de.thm.arsnova.web.DeprecatedApi;
+import de.thm.arsnova.web.ETagHelper;
 import de.thm.arsnova.web.Pagination;
 import de.thm.arsnova.web.exceptions.NotImplementedException;
 import de.thm.arsnova.web.exceptions.UnauthorizedException;
@@ -92,12 +94,16 @@ public class RoomController extends PaginationController {
 				@PathVariable final String shortId,
 				@ApiParam(value = "Adminflag", required = false)
 				@RequestParam(value = "admin", defaultValue = "false")
-				final boolean admin) {
-		if (admin) {
-			return toV2Migrator.migrate(roomService.getForAdmin(shortId));
-		} else {
-			return toV2Migrator.migrate(roomService.getByShortId(shortId));
+				final boolean admin,
+				final WebRequest webRequest) {
+		final de.thm.arsnova.model.Room room = admin
+				? roomService.getForAdmin(shortId)
+				: roomService.getByShortId(shortId);
+		if (webRequest.checkNotModified(ETagHelper.forEntity(room))) {
+			return null;
 		}
+
+		return toV2Migrator.migrate(room);
 	}
 
 	@ApiOperation(value = "deletes a Room",
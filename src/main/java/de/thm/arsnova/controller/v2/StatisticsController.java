@@ -25,12 +25,14 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import de.thm.arsnova.controller.AbstractController;
 import de.thm.arsnova.model.Statistics;
 import de.thm.arsnova.service.StatisticsService;
 import de.thm.arsnova.web.CacheControl;
 import de.thm.arsnova.web.DeprecatedApi;
+import de.thm.arsnova.web.ETagHelper;
 
 /**
  * Allows retrieval of several statistics such as the number of active users.
@@ -47,7 +49,11 @@ public class StatisticsController extends AbstractController {
 			nickname = "getStatistics")
 	@GetMapping("/")
 	@CacheControl(maxAge = 60, policy = CacheControl.Policy.PUBLIC)
-	public Statistics getStatistics() {
+	public Statistics getStatistics(final WebRequest webRequest) {
+		if (webRequest.checkNotModified(ETagHelper.forVersion("statistics", statisticsService.getVersion()))) {
+			return null;
+		}
+
 		return statisticsService.getStatistics();
 	}
 
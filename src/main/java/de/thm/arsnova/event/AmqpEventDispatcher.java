@@ -13,9 +13,9 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.event.EventListener;
 
 import de.thm.arsnova.config.properties.MessageBrokerProperties;
 import de.thm.arsnova.model.Entity;
@@ -54,9 +54,32 @@ public class AmqpEventDispatcher {
 		return PREFIX + entityType.toLowerCase() + "." + eventType.toLowerCase();
 	}
 
-	@EventListener
+	@DeferredEventListener(condition = "#event.batch == null")
 	public <T extends CrudEvent, E extends Entity> void dispatchEntityCrudEvent(final T event) {
 		logger.trace("Dispatching event ({}) for AMQP.", event.getClass().getSimpleName());
+		dispatch(messagingTemplate, event);
+	}
+
+	/**
+	 * Dispatches the events of a bulk operation. A message is still sent for each entity, but all messages are sent
+	 * via the same channel.
+	 */
+	@DeferredEventListener
+	public void dispatchEntityCrudBatchEvent(final BatchEvent<? extends CrudEvent<?>> event) {
+		logger.trace("Dispatching batch of {} events for AMQP.", event.size());
+		try {
+			messagingTemplate.invoke(operations -> {
+				for (final CrudEvent<?> e : event.getEvents()) {
+					dispatch(operations, e);
+				}
+				return null;
+			});
+		} catch (final AmqpException e) {
+			logger.error("Could not send events to broker.", e);
+		}
+	}
+
+	private void dispatch(final RabbitOperations operations, final CrudEvent<?> event) {
 		String eventType = event.getClass().getSimpleName();
 		eventType = eventType.substring(0, eventType.length() - 5);
 		final String entityType = event.getEntity().getClass().getSimpleName();
@@ -69,7 +92,7 @@ public class AmqpEventDispatcher {
 				final ObjectMapper mapper = createOrGetObjectMapper(exchangeName, properties);
 				final String jsonPayload = mapper.writeValueAsString(event.getEntity());
 				logger.debug("AMQP event payload: {}", jsonPayload);
-				messagingTemplate.convertAndSend(exchangeName, "", jsonPayload);
+				operations.convertAndSend(exchangeName, "", jsonPayload);
 			} catch (final JsonProcessingException e) {
 				logger.error("Event serialization failed.", e);
 			} catch (final AmqpException e) {
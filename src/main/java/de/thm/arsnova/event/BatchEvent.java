@@ -0,0 +1,91 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import de.thm.arsnova.model.Entity;
+
+/**
+ * Groups the {@link CrudEvent}s of a bulk operation which affects multiple entities.
+ *
+ * <p>
+ * The single events are still published for each entity before the batch event, so listeners which only handle
+ * single events keep working without changes. Listeners which can process all entities at once should ignore the
+ * single events which are part of a batch and listen for the batch event instead:
+ * </p>
+ *
+ * <pre>
+ * &#64;EventListener(condition = "#event.batch == null")
+ * public void handleAnswerCreation(final AfterCreationEvent&lt;Answer&gt; event) { ... }
+ *
+ * &#64;EventListener
+ * public void handleAnswerCreation(final BatchEvent&lt;AfterCreationEvent&lt;Answer&gt;&gt; event) { ... }
+ * </pre>
+ *
+ * <p>
+ * All events of a batch have to be of the same type. The generic type used to match listeners is resolved based on
+ * the entity type of the service instead of the entities' classes, so a batch of mixed answer subtypes is delivered
+ * to listeners for <code>BatchEvent&lt;AfterCreationEvent&lt;Answer&gt;&gt;</code>. Since nested generic types have to
+ * match exactly, listeners for event subtypes have to use a wildcard, e.g.
+ * <code>BatchEvent&lt;? extends AfterUpdateEvent&lt;Room&gt;&gt;</code> for patch and full update batches.
+ * </p>
+ *
+ * @param <T> The type of the grouped events
+ */
+public class BatchEvent<T extends CrudEvent<?>> extends ApplicationEvent implements ResolvableTypeProvider {
+	private final Class<? extends Entity> entityType;
+	private final List<T> events;
+
+	public BatchEvent(final Object source, final Class<? extends Entity> entityType, final List<T> events) {
+		super(source);
+		if (events.isEmpty()) {
+			throw new IllegalArgumentException("A batch requires at least one event.");
+		}
+		this.entityType = entityType;
+		this.events = Collections.unmodifiableList(new ArrayList<>(events));
+		for (final T event : this.events) {
+			event.setBatch(this);
+		}
+	}
+
+	public List<T> getEvents() {
+		return events;
+	}
+
+	public <E extends Entity> List<E> getEntities() {
+		return events.stream().map(e -> (E) e.getEntity()).collect(Collectors.toList());
+	}
+
+	public int size() {
+		return events.size();
+	}
+
+	@Override
+	public ResolvableType getResolvableType() {
+		return ResolvableType.forClassWithGenerics(BatchEvent.class,
+				ResolvableType.forClassWithGenerics(events.get(0).getClass(), entityType));
+	}
+}
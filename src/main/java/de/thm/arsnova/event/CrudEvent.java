@@ -26,6 +26,7 @@ import de.thm.arsnova.model.Entity;
 
 public abstract class CrudEvent<E extends Entity> extends ApplicationEvent implements ResolvableTypeProvider {
 	private E entity;
+	private BatchEvent<?> batch;
 
 	public CrudEvent(final Object source, final E entity) {
 		super(source);
@@ -36,6 +37,19 @@ public abstract class CrudEvent<E extends Entity> extends ApplicationEvent imple
 		return entity;
 	}
 
+	/**
+	 * Returns the batch this event is part of if it was published for a bulk operation.
+	 *
+	 * @return The batch or <code>null</code> if the event was published for a single entity
+	 */
+	public BatchEvent<?> getBatch() {
+		return batch;
+	}
+
+	void setBatch(final BatchEvent<?> batch) {
+		this.batch = batch;
+	}
+
 	@Override
 	public ResolvableType getResolvableType() {
 		return ResolvableType.forClassWithGenerics(getClass(), entity.getClass());
@@ -0,0 +1,55 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AliasFor;
+
+/**
+ * Marks a method as an event listener which is not critical for the operation publishing the event, e.g. because it
+ * only notifies clients or other services. Such listeners are invoked by the event executor after the publishing
+ * thread has continued, so the response for a write request does not wait for them. Events related to the same entity
+ * or room are delivered in the order they have been published. Listeners which have to complete before the response
+ * is sent, e.g. to keep caches consistent, use {@link EventListener} instead.
+ *
+ * <p>
+ * The entity of an event might be changed by the publishing thread before the listener is invoked. The security
+ * context of the publishing thread is available to the listener. If no {@link DeferredEventListenerFactory} is
+ * registered, the listener is invoked synchronously like a plain {@link EventListener}.
+ * </p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EventListener
+public @interface DeferredEventListener {
+	@AliasFor(annotation = EventListener.class, attribute = "classes")
+	Class<?>[] value() default {};
+
+	@AliasFor(annotation = EventListener.class, attribute = "classes")
+	Class<?>[] classes() default {};
+
+	@AliasFor(annotation = EventListener.class, attribute = "condition")
+	String condition() default "";
+}
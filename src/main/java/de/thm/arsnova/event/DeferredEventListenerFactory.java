@@ -0,0 +1,139 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.event;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.EventListenerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import de.thm.arsnova.config.properties.TaskExecutorProperties;
+import de.thm.arsnova.model.Entity;
+
+/**
+ * Creates the listeners for methods annotated with {@link DeferredEventListener}. The listeners pass events to an
+ * {@link OrderedTaskExecutor} which uses the entity or room of an event as key, so events for the same entity or room
+ * are processed in publication order. The executor and its pool properties are looked up lazily since factories are
+ * created before the regular beans.
+ */
+public class DeferredEventListenerFactory implements EventListenerFactory, Ordered, BeanFactoryAware {
+	private static final Logger logger = LoggerFactory.getLogger(DeferredEventListenerFactory.class);
+
+	private final String executorQualifier;
+	private final Function<TaskExecutorProperties, TaskExecutorProperties.Pool> poolSelector;
+	private BeanFactory beanFactory;
+	private OrderedTaskExecutor orderedTaskExecutor;
+
+	public DeferredEventListenerFactory(final String executorQualifier,
+			final Function<TaskExecutorProperties, TaskExecutorProperties.Pool> poolSelector) {
+		this.executorQualifier = executorQualifier;
+		this.poolSelector = poolSelector;
+	}
+
+	@Override
+	public void setBeanFactory(final BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	@Override
+	public int getOrder() {
+		/* Takes precedence over the default factory which would handle the meta-annotation otherwise. */
+		return 100;
+	}
+
+	@Override
+	public boolean supportsMethod(final Method method) {
+		return AnnotatedElementUtils.hasAnnotation(method, DeferredEventListener.class);
+	}
+
+	@Override
+	public ApplicationListener<?> createApplicationListener(
+			final String beanName, final Class<?> type, final Method method) {
+		return new DeferredApplicationListenerMethodAdapter(beanName, type, method, getOrderedTaskExecutor());
+	}
+
+	private synchronized OrderedTaskExecutor getOrderedTaskExecutor() {
+		if (orderedTaskExecutor == null) {
+			/* Tasks waiting for their key are limited like the executor's queue. */
+			final TaskExecutorProperties.Pool pool =
+					poolSelector.apply(beanFactory.getBean(TaskExecutorProperties.class));
+			orderedTaskExecutor = new OrderedTaskExecutor(
+					BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, Executor.class, executorQualifier),
+					pool.getQueueCapacity(),
+					pool.getSaturationPolicy() == TaskExecutorProperties.SaturationPolicy.CALLER_RUNS);
+		}
+
+		return orderedTaskExecutor;
+	}
+
+	/**
+	 * Determines the key for ordering the event. Events related to entities are ordered per entity, other room
+	 * related events per room.
+	 */
+	static Object getOrderingKey(final ApplicationEvent event) {
+		final Entity entity;
+		if (event instanceof CrudEvent) {
+			entity = ((CrudEvent<?>) event).getEntity();
+		} else if (event instanceof StateChangeEvent) {
+			entity = ((StateChangeEvent<?, ?>) event).getEntity();
+		} else if (event instanceof RoomEvent) {
+			return "Room-" + ((RoomEvent) event).getRoomId();
+		} else {
+			return null;
+		}
+
+		return entity != null && entity.getId() != null
+				? entity.getClass().getSimpleName() + "-" + entity.getId() : null;
+	}
+
+	private static class DeferredApplicationListenerMethodAdapter extends ApplicationListenerMethodAdapter {
+		private final Method method;
+		private final OrderedTaskExecutor orderedTaskExecutor;
+
+		DeferredApplicationListenerMethodAdapter(final String beanName, final Class<?> targetClass,
+				final Method method, final OrderedTaskExecutor orderedTaskExecutor) {
+			super(beanName, targetClass, method);
+			this.method = method;
+			this.orderedTaskExecutor = orderedTaskExecutor;
+		}
+
+		@Override
+		public void onApplicationEvent(final ApplicationEvent event) {
+			orderedTaskExecutor.execute(getOrderingKey(event), new DelegatingSecurityContextRunnable(() -> {
+				try {
+					processEvent(event);
+				} catch (final RuntimeException e) {
+					logger.error("Deferred event listener {} failed for {}.",
+							method, event.getClass().getSimpleName(), e);
+				}
+			}));
+		}
+	}
+}
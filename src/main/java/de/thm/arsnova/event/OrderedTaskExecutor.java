@@ -0,0 +1,134 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.event;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes tasks on a delegate executor while preserving the submission order of tasks with the same key. A task is
+ * only passed to the delegate once the previous task for its key has completed, so tasks with different keys run
+ * concurrently while tasks with the same key run one after another. Tasks without a key are passed to the delegate
+ * directly.
+ *
+ * <p>
+ * The delegate has to either run or reject each task. A task which is silently discarded would leave its key pending,
+ * so all further tasks for that key would be queued forever.
+ * </p>
+ *
+ * <p>
+ * The number of tasks waiting for a single key is limited since they are not part of the delegate's bounded queue. If
+ * the limit is reached, further tasks for the key are either run on the submitting thread, which gives up their order
+ * but slows down the submitter like a caller-runs policy, or they are rejected.
+ * </p>
+ */
+class OrderedTaskExecutor {
+	private static final Logger logger = LoggerFactory.getLogger(OrderedTaskExecutor.class);
+
+	private final Executor executor;
+	private final int maxPendingTasksPerKey;
+	private final boolean callerRunsWhenFull;
+
+	/* Tasks waiting for a running task with the same key. A key is present as long as one of its tasks is running. */
+	private final Map<Object, Queue<Runnable>> pendingTasks = new HashMap<>();
+
+	OrderedTaskExecutor(final Executor executor, final int maxPendingTasksPerKey, final boolean callerRunsWhenFull) {
+		this.executor = executor;
+		this.maxPendingTasksPerKey = maxPendingTasksPerKey;
+		this.callerRunsWhenFull = callerRunsWhenFull;
+	}
+
+	void execute(final Object key, final Runnable task) {
+		if (key == null) {
+			executor.execute(task);
+
+			return;
+		}
+		final boolean full;
+		synchronized (pendingTasks) {
+			final Queue<Runnable> queue = pendingTasks.get(key);
+			full = queue != null && queue.size() >= maxPendingTasksPerKey;
+			if (queue == null) {
+				pendingTasks.put(key, new ArrayDeque<>());
+			} else if (!full) {
+				queue.add(task);
+
+				return;
+			}
+		}
+		if (full) {
+			if (!callerRunsWhenFull) {
+				logger.warn("Task for {} was rejected since {} tasks are pending for the key.",
+						key, maxPendingTasksPerKey);
+
+				return;
+			}
+			task.run();
+
+			return;
+		}
+		if (!submit(key, task)) {
+			submitNext(key);
+		}
+	}
+
+	int countPendingKeys() {
+		synchronized (pendingTasks) {
+			return pendingTasks.size();
+		}
+	}
+
+	private boolean submit(final Object key, final Runnable task) {
+		try {
+			executor.execute(() -> {
+				try {
+					task.run();
+				} finally {
+					submitNext(key);
+				}
+			});
+
+			return true;
+		} catch (final RejectedExecutionException e) {
+			logger.warn("Task for {} was rejected by the executor.", key);
+
+			return false;
+		}
+	}
+
+	private void submitNext(final Object key) {
+		Runnable task;
+		do {
+			synchronized (pendingTasks) {
+				task = pendingTasks.get(key).poll();
+				if (task == null) {
+					pendingTasks.remove(key);
+
+					return;
+				}
+			}
+		} while (!submit(key, task));
+	}
+}
@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.function.Function;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import de.thm.arsnova.model.Content;
@@ -43,7 +42,7 @@ public class StateEventDispatcher implements ApplicationEventPublisherAware {
 
 	private ApplicationEventPublisher eventPublisher;
 
-	@EventListener
+	@DeferredEventListener
 	public void dispatchRoomStateEvent(final AfterFullUpdateEvent<Room> event) {
 		final Room newRoom = event.getEntity();
 		final Room oldRoom = event.getOldEntity();
@@ -51,14 +50,14 @@ public class StateEventDispatcher implements ApplicationEventPublisherAware {
 		publishEventIfPropertyChanged(newRoom, oldRoom, Room::getSettings, SETTINGS_PROPERTY);
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void dispatchRoomStateEvent(final AfterPatchEvent<Room> event) {
 		publishEventIfPropertyChanged(event, Function.identity(), CLOSED_PROPERTY, CLOSED_PROPERTY);
 		publishEventIfPropertyChanged(event, Function.identity(), SETTINGS_PROPERTY, SETTINGS_PROPERTY);
 		publishEventIfPropertyChanged(event, Room::getSettings, null, SETTINGS_PROPERTY);
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void dispatchContentStateEvent(final AfterFullUpdateEvent<Content> event) {
 		final Content newContent = event.getEntity();
 		final Content oldContent = event.getOldEntity();
@@ -67,7 +66,7 @@ public class StateEventDispatcher implements ApplicationEventPublisherAware {
 		publishEventIfPropertyChanged(newContent, oldContent, Content::getState, STATE_PROPERTY);
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void dispatchContentStateEvent(final AfterPatchEvent<Content> event) {
 		publishEventIfPropertyChanged(event, Function.identity(), STATE_PROPERTY, STATE_PROPERTY);
 		publishEventIfPropertyChanged(event, Content::getState, null, STATE_PROPERTY);
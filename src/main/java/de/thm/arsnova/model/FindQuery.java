@@ -25,15 +25,19 @@ import org.springframework.core.style.ToStringCreator;
 import de.thm.arsnova.model.serialization.View;
 
 public class FindQuery<E extends Entity> {
-	enum LogicalOperator {
+	public enum LogicalOperator {
 		AND,
 		OR
 	}
 
-	private LogicalOperator operator = LogicalOperator.AND;
+	private LogicalOperator operator;
 	private E properties;
 	private Map<String, Object> externalFilters;
 
+	/**
+	 * Returns the operator used to combine the filters. If it is <code>null</code>, the default of the
+	 * {@link de.thm.arsnova.service.FindQueryService} is used.
+	 */
 	public LogicalOperator getOperator() {
 		return operator;
 	}
@@ -21,6 +21,7 @@ package de.thm.arsnova.model;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import java.util.Objects;
 
 import de.thm.arsnova.model.serialization.View;
 
@@ -177,31 +178,38 @@ public class Statistics {
 
 	@Override
 	public int hashCode() {
-		return (this.getClass().getName()
-				+ activeUsers
-				+ answers
-				+ closedSessions
-				+ openSessions
-				+ lectureQuestions
-				+ preparationQuestions
-				+ interposedQuestions
-				+ loggedinUsers
-				+ conceptQuestions
-				).hashCode();
+		return Objects.hash(answers, lectureQuestions, preparationQuestions, openSessions, closedSessions, creators,
+				activeUsers, activeStudents, loggedinUsers, interposedQuestions, conceptQuestions, flashcards);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * All counters are compared so changes of the statistics can be detected reliably.
+	 * </p>
+	 */
 	@Override
 	public boolean equals(final Object obj) {
-		if (obj == null) {
-			return false;
-		}
 		if (obj == this) {
 			return true;
 		}
-		if (obj instanceof Statistics) {
-			final Statistics other = (Statistics) obj;
-			return hashCode() == other.hashCode();
+		if (!(obj instanceof Statistics)) {
+			return false;
 		}
-		return false;
+		final Statistics other = (Statistics) obj;
+
+		return answers == other.answers
+				&& lectureQuestions == other.lectureQuestions
+				&& preparationQuestions == other.preparationQuestions
+				&& openSessions == other.openSessions
+				&& closedSessions == other.closedSessions
+				&& creators == other.creators
+				&& activeUsers == other.activeUsers
+				&& activeStudents == other.activeStudents
+				&& loggedinUsers == other.loggedinUsers
+				&& interposedQuestions == other.interposedQuestions
+				&& conceptQuestions == other.conceptQuestions
+				&& flashcards == other.flashcards;
 	}
 }
@@ -18,6 +18,7 @@
 
 package de.thm.arsnova.model.serialization;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.ektorp.CouchDbConnector;
@@ -25,7 +26,23 @@ import org.ektorp.impl.StdObjectMapperFactory;
 
 public class CouchDbObjectMapperFactory extends StdObjectMapperFactory {
 	public ObjectMapper createObjectMapper(final CouchDbConnector connector) {
-		final ObjectMapper om = super.createObjectMapper(connector);
+		return configure(super.createObjectMapper(connector));
+	}
+
+	/**
+	 * Creates an ObjectMapper which (de)serializes documents like the one used for CouchDB but is not bound to a
+	 * connector. It can be used to process documents outside of the database, e.g. for in-memory persistence.
+	 *
+	 * @return The ObjectMapper
+	 */
+	public ObjectMapper createDetachedObjectMapper() {
+		final ObjectMapper om = new ObjectMapper();
+		om.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+		return configure(om);
+	}
+
+	private ObjectMapper configure(final ObjectMapper om) {
 		om.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
 		om.setConfig(om.getSerializationConfig().withView(View.Persistence.class));
 		om.registerModule(new CouchDbDocumentModule());
@@ -0,0 +1,150 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.model.transport;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.Date;
+import java.util.UUID;
+import org.springframework.core.style.ToStringCreator;
+
+import de.thm.arsnova.model.serialization.View;
+
+/**
+ * The state of an asynchronously running import which can be polled by clients.
+ */
+public class ImportJob {
+	public enum Status {
+		PENDING,
+		RUNNING,
+		COMPLETED,
+		FAILED
+	}
+
+	private final String id;
+	private final Date creationTimestamp;
+	private volatile Status status = Status.PENDING;
+	private volatile Date finishTimestamp;
+	private volatile String roomId;
+	private volatile int totalContents;
+	private volatile int importedContents;
+	private volatile int totalAnswers;
+	private volatile int importedAnswers;
+	private volatile String errorMessage;
+
+	public ImportJob() {
+		this.id = UUID.randomUUID().toString();
+		this.creationTimestamp = new Date();
+	}
+
+	@JsonView(View.Public.class)
+	public String getId() {
+		return id;
+	}
+
+	@JsonView(View.Public.class)
+	public Date getCreationTimestamp() {
+		return creationTimestamp;
+	}
+
+	@JsonView(View.Public.class)
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(final Status status) {
+		this.status = status;
+		if (status == Status.COMPLETED || status == Status.FAILED) {
+			this.finishTimestamp = new Date();
+		}
+	}
+
+	@JsonView(View.Public.class)
+	public Date getFinishTimestamp() {
+		return finishTimestamp;
+	}
+
+	public boolean isFinished() {
+		return finishTimestamp != null;
+	}
+
+	@JsonView(View.Public.class)
+	public String getRoomId() {
+		return roomId;
+	}
+
+	public void setRoomId(final String roomId) {
+		this.roomId = roomId;
+	}
+
+	@JsonView(View.Public.class)
+	public int getTotalContents() {
+		return totalContents;
+	}
+
+	public void setTotalContents(final int totalContents) {
+		this.totalContents = totalContents;
+	}
+
+	@JsonView(View.Public.class)
+	public int getImportedContents() {
+		return importedContents;
+	}
+
+	public void setImportedContents(final int importedContents) {
+		this.importedContents = importedContents;
+	}
+
+	@JsonView(View.Public.class)
+	public int getTotalAnswers() {
+		return totalAnswers;
+	}
+
+	public void setTotalAnswers(final int totalAnswers) {
+		this.totalAnswers = totalAnswers;
+	}
+
+	@JsonView(View.Public.class)
+	public int getImportedAnswers() {
+		return importedAnswers;
+	}
+
+	public void setImportedAnswers(final int importedAnswers) {
+		this.importedAnswers = importedAnswers;
+	}
+
+	@JsonView(View.Public.class)
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(final String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this)
+				.append("id", id)
+				.append("status", status)
+				.append("roomId", roomId)
+				.append("importedContents", importedContents)
+				.append("importedAnswers", importedAnswers)
+				.toString();
+	}
+}
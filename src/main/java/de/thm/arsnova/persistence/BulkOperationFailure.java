@@ -0,0 +1,51 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence;
+
+/**
+ * Describes why a single entity of a bulk operation has not been written.
+ */
+public class BulkOperationFailure {
+	private final String id;
+	private final String reason;
+
+	public BulkOperationFailure(final String id, final String reason) {
+		this.id = id;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return The ID of the entity which has not been written
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return The reason reported by the database, e.g. <code>conflict</code>
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkOperationFailure[id=" + id + ", reason=" + reason + "]";
+	}
+}
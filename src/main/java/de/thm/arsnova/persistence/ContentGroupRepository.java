@@ -19,6 +19,8 @@
 package de.thm.arsnova.persistence;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import de.thm.arsnova.model.ContentGroup;
 
@@ -26,4 +28,6 @@ public interface ContentGroupRepository extends CrudRepository<ContentGroup, Str
 	ContentGroup findByRoomIdAndName(String roomId, String name);
 
 	List<ContentGroup> findByRoomId(String roomId);
+
+	Map<String, Set<String>> findGroupNamesByRoomIdGroupedByContentId(String roomId);
 }
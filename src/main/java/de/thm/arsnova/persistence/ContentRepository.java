@@ -16,13 +16,19 @@ public interface ContentRepository extends CrudRepository<Content, String> {
 
 	List<String> findIdsByRoomId(String roomId);
 
+	List<String> findVisibleIdsByRoomId(String roomId);
+
 	Iterable<Content> findStubsByIds(Set<String> ids);
 
 	Iterable<Content> findStubsByRoomId(String roomId);
 
 	List<String> findUnansweredIdsByRoomIdAndUser(String roomId, String userId);
 
+	Set<String> findAnsweredIdsByRoomIdAndUser(String roomId, String userId);
+
 	List<Content> findByRoomIdOnlyFlashcardVariantAndActive(String roomId);
 
 	List<Content> findByRoomId(String roomId);
+
+	List<Content> findWithPendingRoundEnd();
 }
@@ -18,6 +18,8 @@
 
 package de.thm.arsnova.persistence;
 
+import java.util.List;
+
 /**
  * This is a temporary extension to {@link org.springframework.data.repository.CrudRepository} which simplifies the
  * migration to Spring Data 2.0.
@@ -36,4 +38,23 @@ public interface CrudRepository<T, I> extends org.springframework.data.repositor
 	 */
 	@Deprecated
 	T findOne(I id);
+
+	/**
+	 * Saves multiple entities with bulk requests. Other than {@link #saveAll(Iterable)}, failed operations for single
+	 * documents, e.g. because of update conflicts, are reported to the caller. IDs and revisions are only updated for
+	 * entities which have been written.
+	 *
+	 * @param entities The entities to save
+	 * @return The failures of entities which have not been written
+	 */
+	<S extends T> List<BulkOperationFailure> bulkSave(Iterable<S> entities);
+
+	/**
+	 * Deletes multiple entities with bulk requests. Other than {@link #deleteAll(Iterable)}, failed operations for
+	 * single documents are reported to the caller.
+	 *
+	 * @param entities The entities to delete
+	 * @return The failures of entities which have not been written
+	 */
+	List<BulkOperationFailure> bulkDelete(Iterable<? extends T> entities);
 }
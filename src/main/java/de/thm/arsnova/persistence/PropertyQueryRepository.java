@@ -0,0 +1,44 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repositories implementing this interface can look up entity IDs by property values directly in the database using
+ * indexes for a set of properties.
+ */
+public interface PropertyQueryRepository {
+	/**
+	 * Returns the names of the properties for which indexes are available. A query has to include at least one of
+	 * them.
+	 *
+	 * @return The names of the indexed properties
+	 */
+	Set<String> getIndexedProperties();
+
+	/**
+	 * Retrieves the IDs of all entities which match all property values.
+	 *
+	 * @param properties Property values by property path. Nested properties are separated by a dot.
+	 * @return The IDs of the matching entities
+	 */
+	Set<String> findIdsByProperties(Map<String, Object> properties);
+}
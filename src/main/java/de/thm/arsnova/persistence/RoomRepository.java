@@ -19,6 +19,7 @@
 package de.thm.arsnova.persistence;
 
 import java.util.List;
+import java.util.Map;
 
 import de.thm.arsnova.connector.model.Course;
 import de.thm.arsnova.model.Room;
@@ -28,6 +29,11 @@ import de.thm.arsnova.model.transport.ImportExportContainer;
 public interface RoomRepository extends CrudRepository<Room, String> {
 	Room findByShortId(String shortId);
 
+	/**
+	 * Retrieves the IDs of all rooms mapped by their short IDs.
+	 */
+	Map<String, String> findAllIdsByShortId();
+
 	List<Room> findInactiveGuestRoomsMetadata(long lastActivityBefore);
 
 	List<Room> findByOwner(ClientAuthentication owner, int start, int limit);
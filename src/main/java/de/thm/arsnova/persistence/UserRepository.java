@@ -28,4 +28,6 @@ public interface UserRepository extends CrudRepository<UserProfile, String> {
 	List<UserProfile> findByLoginId(String loginId);
 
 	int deleteInactiveUsers(long lastActivityBefore);
+
+	List<String> findRoomIdsFromRoomHistory(String userId, int start, int limit);
 }
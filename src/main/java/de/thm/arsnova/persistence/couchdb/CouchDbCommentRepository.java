@@ -40,6 +40,7 @@ public class CouchDbCommentRepository extends CouchDbCrudRepository<Comment> imp
 
 	public CouchDbCommentRepository(final CouchDbConnector db, final boolean createIfNotExists) {
 		super(Comment.class, db, "by_id", createIfNotExists);
+		setIndexedProperties("roomId", "creatorId");
 	}
 
 	@Override
@@ -18,9 +18,14 @@
 
 package de.thm.arsnova.persistence.couchdb;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.ektorp.ComplexKey;
 import org.ektorp.CouchDbConnector;
+import org.ektorp.ViewResult;
 
 import de.thm.arsnova.model.ContentGroup;
 import de.thm.arsnova.persistence.ContentGroupRepository;
@@ -53,4 +58,19 @@ public class CouchDbContentGroupRepository extends CouchDbCrudRepository<Content
 
 		return contentGroups;
 	}
+
+	@Override
+	public Map<String, Set<String>> findGroupNamesByRoomIdGroupedByContentId(final String roomId) {
+		final ViewResult result = db.queryView(createQuery("name_by_roomid_contentid")
+				.startKey(ComplexKey.of(roomId))
+				.endKey(ComplexKey.of(roomId, ComplexKey.emptyObject()))
+				.reduce(false));
+		final Map<String, Set<String>> groupNames = new HashMap<>();
+		for (final ViewResult.Row row : result.getRows()) {
+			final String contentId = row.getKeyAsNode().get(1).asText();
+			groupNames.computeIfAbsent(contentId, id -> new HashSet<>()).add(row.getValue());
+		}
+
+		return groupNames;
+	}
 }
@@ -20,6 +20,7 @@ package de.thm.arsnova.persistence.couchdb;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -42,19 +43,16 @@ public class CouchDbContentRepository extends CouchDbCrudRepository<Content> imp
 
 	public CouchDbContentRepository(final CouchDbConnector db, final boolean createIfNotExists) {
 		super(Content.class, db, "by_id", createIfNotExists);
+		setIndexedProperties("roomId");
 	}
 
 	@Override
 	public List<Content> findByRoomIdForUsers(final String roomId) {
-		final List<Content> contents = new ArrayList<>();
-		final List<Content> questions1 = findByRoomIdAndVariantAndActive(roomId, "lecture", true);
-		final List<Content> questions2 = findByRoomIdAndVariantAndActive(roomId, "preparation", true);
-		final List<Content> questions3 = findByRoomIdAndVariantAndActive(roomId, "flashcard", true);
-		contents.addAll(questions1);
-		contents.addAll(questions2);
-		contents.addAll(questions3);
-
-		return contents;
+		return db.queryView(createQuery("by_roomid_visible")
+						.includeDocs(true)
+						.reduce(false)
+						.key(ComplexKey.of(roomId, true)),
+				Content.class);
 	}
 
 	@Override
@@ -80,6 +78,13 @@ public class CouchDbContentRepository extends CouchDbCrudRepository<Content> imp
 				.reduce(false)));
 	}
 
+	@Override
+	public List<String> findVisibleIdsByRoomId(final String roomId) {
+		return collectQuestionIds(db.queryView(createQuery("by_roomid_visible")
+				.key(ComplexKey.of(roomId, true))
+				.reduce(false)));
+	}
+
 	@Override
 	public Iterable<Content> findStubsByIds(final Set<String> ids) {
 		return super.createEntityStubs(db.queryView(createQuery("by_id")
@@ -101,16 +106,20 @@ public class CouchDbContentRepository extends CouchDbCrudRepository<Content> imp
 
 	@Override
 	public List<String> findUnansweredIdsByRoomIdAndUser(final String roomId, final String userId) {
+		return collectUnansweredQuestionIds(findIdsByRoomId(roomId), findAnsweredIdsByRoomIdAndUser(roomId, userId));
+	}
+
+	@Override
+	public Set<String> findAnsweredIdsByRoomIdAndUser(final String roomId, final String userId) {
 		final ViewResult result = db.queryView(createQuery("contentid_by_creatorid_roomid")
 				.designDocId("_design/Answer")
-				.startKey(ComplexKey.of(userId, roomId))
-				.endKey(ComplexKey.of(userId, roomId, ComplexKey.emptyObject())));
-		final List<String> answeredIds = new ArrayList<>();
+				.key(ComplexKey.of(userId, roomId)));
+		final Set<String> answeredIds = new HashSet<>();
 		for (final ViewResult.Row row : result.getRows()) {
-			answeredIds.add(row.getId());
+			answeredIds.add(row.getValue());
 		}
 
-		return collectUnansweredQuestionIds(findIdsByRoomId(roomId), answeredIds);
+		return answeredIds;
 	}
 
 	@Override
@@ -123,6 +132,14 @@ public class CouchDbContentRepository extends CouchDbCrudRepository<Content> imp
 		return findByRoomIdAndVariantAndActive(roomId);
 	}
 
+	@Override
+	public List<Content> findWithPendingRoundEnd() {
+		return db.queryView(createQuery("by_roundendtimestamp")
+						.includeDocs(true)
+						.reduce(false),
+				Content.class);
+	}
+
 	@Override
 	public List<Content> findByRoomIdAndVariantAndActive(final Object... keys) {
 		final Object[] endKeys = Arrays.copyOf(keys, keys.length + 1);
@@ -138,7 +155,7 @@ public class CouchDbContentRepository extends CouchDbCrudRepository<Content> imp
 
 	private List<String> collectUnansweredQuestionIds(
 			final List<String> contentIds,
-			final List<String> answeredContentIds) {
+			final Set<String> answeredContentIds) {
 		final List<String> unanswered = new ArrayList<>();
 		for (final String contentId : contentIds) {
 			if (!answeredContentIds.contains(contentId)) {
@@ -18,25 +18,57 @@
 
 package de.thm.arsnova.persistence.couchdb;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import org.ektorp.BulkDeleteDocument;
 import org.ektorp.CouchDbConnector;
+import org.ektorp.DocumentOperationResult;
 import org.ektorp.ViewResult;
 import org.ektorp.support.CouchDbRepositorySupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.repository.NoRepositoryBean;
 
 import de.thm.arsnova.model.Entity;
+import de.thm.arsnova.persistence.BulkOperationFailure;
 import de.thm.arsnova.persistence.CrudRepository;
+import de.thm.arsnova.persistence.PropertyQueryRepository;
+import de.thm.arsnova.persistence.couchdb.support.MangoCouchDbConnector;
+import de.thm.arsnova.persistence.couchdb.support.PagedMangoResponse;
 
 @NoRepositoryBean
 abstract class CouchDbCrudRepository<T extends Entity>
-		extends CouchDbRepositorySupport<T> implements CrudRepository<T, String> {
+		extends CouchDbRepositorySupport<T> implements CrudRepository<T, String>, PropertyQueryRepository {
+	/**
+	 * The maximum number of documents sent to CouchDB with a single _bulk_docs request. Larger collections are split
+	 * into multiple requests to keep request size and memory usage of the database bounded.
+	 */
+	protected static final int BULK_CHUNK_SIZE = 500;
+
+	/**
+	 * The number of IDs retrieved with a single Mango query by {@link #findIdsByProperties(Map)}.
+	 */
+	private static final int PROPERTY_QUERY_PAGE_SIZE = 1000;
+
+	private static final Logger logger = LoggerFactory.getLogger(CouchDbCrudRepository.class);
+
 	private String countableAllViewName;
+	private Set<String> indexedProperties = Collections.emptySet();
+	private final Set<String> createdIndexes = ConcurrentHashMap.newKeySet();
 
 	protected CouchDbCrudRepository(
 			final Class<T> type,
@@ -61,6 +93,70 @@ abstract class CouchDbCrudRepository<T extends Entity>
 		return countableAllViewName;
 	}
 
+	/**
+	 * Sets the properties for which Mango indexes are created to support {@link #findIdsByProperties(Map)}. Indexes
+	 * are created on first use and only contain documents of the repository's type.
+	 *
+	 * @param properties The names of the properties
+	 */
+	protected void setIndexedProperties(final String... properties) {
+		indexedProperties = db instanceof MangoCouchDbConnector
+				? Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(properties)))
+				: Collections.emptySet();
+	}
+
+	@Override
+	public Set<String> getIndexedProperties() {
+		return indexedProperties;
+	}
+
+	@Override
+	public Set<String> findIdsByProperties(final Map<String, Object> properties) {
+		final String indexedProperty = properties.keySet().stream()
+				.filter(indexedProperties::contains)
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Query does not contain an indexed property."));
+		final MangoCouchDbConnector connector = (MangoCouchDbConnector) db;
+		final String indexName = createPropertyIndex(connector, indexedProperty);
+		final Map<String, Object> selector = new HashMap<>(properties);
+		selector.put("type", type.getSimpleName());
+		final MangoCouchDbConnector.MangoQuery query = new MangoCouchDbConnector.MangoQuery(selector);
+		query.setIndexDocument(indexName);
+		query.setLimit(PROPERTY_QUERY_PAGE_SIZE);
+
+		final Set<String> ids = new HashSet<>();
+		List<String> page;
+		do {
+			final PagedMangoResponse<String> response = connector.queryForPage(query, "_id", String.class);
+			page = response.getEntities();
+			ids.addAll(page);
+			query.setBookmark(response.getBookmark());
+		} while (page.size() == PROPERTY_QUERY_PAGE_SIZE);
+
+		return ids;
+	}
+
+	/**
+	 * Creates a partial Mango index for the property if it has not been created since startup. Creating an existing
+	 * index is a no-op for CouchDB.
+	 *
+	 * @return The name of the index' design document
+	 */
+	private String createPropertyIndex(final MangoCouchDbConnector connector, final String property) {
+		final String indexName = "find-" + type.getSimpleName() + "-" + property;
+		if (!createdIndexes.contains(indexName)) {
+			final List<MangoCouchDbConnector.MangoQuery.Sort> fields = new ArrayList<>();
+			fields.add(new MangoCouchDbConnector.MangoQuery.Sort(property, false));
+			final Map<String, Object> filterSelector = new HashMap<>();
+			filterSelector.put("type", type.getSimpleName());
+			logger.debug("Creating Mango index {}.", indexName);
+			connector.createPartialJsonIndex(indexName, fields, filterSelector);
+			createdIndexes.add(indexName);
+		}
+
+		return indexName;
+	}
+
 	@Override
 	public <S extends T> S save(final S entity) {
 		final String id = entity.getId();
@@ -75,12 +171,18 @@ abstract class CouchDbCrudRepository<T extends Entity>
 
 	@Override
 	public <S extends T> Iterable<S> saveAll(final Iterable<S> entities) {
+		bulkSave(entities);
+
+		return entities;
+	}
+
+	@Override
+	public <S extends T> List<BulkOperationFailure> bulkSave(final Iterable<S> entities) {
 		if (!(entities instanceof Collection)) {
 			throw new IllegalArgumentException("Implementation only supports Collections.");
 		}
-		db.executeBulk((Collection<S>) entities);
 
-		return entities;
+		return executeBulkInChunks((Collection<S>) entities);
 	}
 
 	@Override
@@ -136,6 +238,11 @@ abstract class CouchDbCrudRepository<T extends Entity>
 
 	@Override
 	public void deleteAll(final Iterable<? extends T> entities) {
+		bulkDelete(entities);
+	}
+
+	@Override
+	public List<BulkOperationFailure> bulkDelete(final Iterable<? extends T> entities) {
 		if (!(entities instanceof Collection)) {
 			throw new IllegalArgumentException("Implementation only supports Collections.");
 		}
@@ -143,7 +250,8 @@ abstract class CouchDbCrudRepository<T extends Entity>
 		final List<BulkDeleteDocument> docs = ((Collection<? extends T>) entities).stream()
 				.map(entity -> new BulkDeleteDocument(entity.getId(), entity.getRevision()))
 				.collect(Collectors.toList());
-		db.executeBulk(docs);
+
+		return executeBulkInChunks(docs);
 	}
 
 	@Override
@@ -151,6 +259,33 @@ abstract class CouchDbCrudRepository<T extends Entity>
 		throw new UnsupportedOperationException("Deletion of all entities is not supported for security reasons.");
 	}
 
+	/**
+	 * Sends the documents to CouchDB via _bulk_docs requests of at most {@link #BULK_CHUNK_SIZE} documents.
+	 *
+	 * @param docs The documents to be written
+	 * @return The failures of documents which have not been written
+	 */
+	protected List<BulkOperationFailure> executeBulkInChunks(final Collection<?> docs) {
+		if (docs.size() <= BULK_CHUNK_SIZE) {
+			return logBulkErrors(db.executeBulk(docs));
+		}
+
+		return logBulkErrors(Streams.stream(Iterables.partition(docs, BULK_CHUNK_SIZE))
+				.flatMap(chunk -> db.executeBulk(chunk).stream())
+				.collect(Collectors.toList()));
+	}
+
+	private List<BulkOperationFailure> logBulkErrors(final List<DocumentOperationResult> results) {
+		if (!results.isEmpty()) {
+			logger.warn("{} document operation(s) of bulk request failed for type {}.",
+					results.size(), type.getSimpleName());
+		}
+
+		return results.stream()
+				.map(result -> new BulkOperationFailure(result.getId(), result.getError()))
+				.collect(Collectors.toList());
+	}
+
 	/**
 	 * Creates stub entities from a ViewResult. Stub entities only have meta data (id, revision, reference id) set.
 	 *
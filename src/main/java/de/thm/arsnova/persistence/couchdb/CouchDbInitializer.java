@@ -18,10 +18,9 @@
 
 package de.thm.arsnova.persistence.couchdb;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
@@ -30,14 +29,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 import org.apache.http.NoHttpResponseException;
 import org.ektorp.CouchDbConnector;
 import org.ektorp.DbAccessException;
 import org.ektorp.DbInfo;
 import org.ektorp.DocumentNotFoundException;
+import org.ektorp.ViewQuery;
+import org.ektorp.ViewResult;
 import org.ektorp.impl.ObjectMapperFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,24 +44,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
-import org.springframework.util.FileCopyUtils;
 
 import de.thm.arsnova.model.MigrationState;
 import de.thm.arsnova.persistence.couchdb.migrations.MigrationExecutor;
+import de.thm.arsnova.persistence.couchdb.support.DesignDocCompiler;
 import de.thm.arsnova.service.StatusService;
 
 @Component
 public class CouchDbInitializer implements ResourceLoaderAware {
 	private static final Logger logger = LoggerFactory.getLogger(CouchDbInitializer.class);
+	private static final String DESIGN_DOC_ID_PREFIX = "_design/";
+	private static final long WAIT_FOR_DB_INITIAL_DELAY_MS = 250;
+	private static final long WAIT_FOR_DB_MAX_DELAY_MS = 10000;
 	private final List<Map<String, Object>> docs = new ArrayList<>();
 
 	private ResourceLoader resourceLoader;
 	private MigrationExecutor migrationExecutor;
+	private CouchDbViewWarmer viewWarmer;
 	private CouchDbConnector connector;
 	private ObjectMapper objectMapper;
 	private StatusService statusService;
@@ -76,46 +78,62 @@ public class CouchDbInitializer implements ResourceLoaderAware {
 	}
 
 	protected void loadDesignDocFiles() throws IOException, ScriptException {
-		final ScriptEngine engine = new ScriptEngineManager().getEngineByMimeType("application/javascript");
-		engine.eval(new InputStreamReader(new ClassPathResource("couchdb/jsToJson.js").getInputStream()));
-
 		final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-		final Resource[] resources = resolver.getResources("classpath:couchdb/*.design.js");
-		for (final Resource resource : resources) {
-			logger.debug("Loading CouchDB design doc: {}", resource.getFilename());
-			final String js = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream()));
-			/* Reset designDoc before parsing a new one. */
-			engine.eval("var designDoc = null;" + js);
-			final Map<String, Object> jsonObject = (Map<String, Object>) engine.eval("jsToJson(designDoc)");
-			docs.add(jsonObject);
+		final Resource[] sourceResources = resolver.getResources(DesignDocCompiler.SOURCE_PATTERN);
+		final Map<String, Resource> sourceResourcesByName = new HashMap<>();
+		for (final Resource resource : sourceResources) {
+			sourceResourcesByName.put(resource.getFilename(), resource);
+		}
+		final List<Map<String, Object>> compiledDocs = new ArrayList<>();
+		for (final Resource resource : resolver.getResources(DesignDocCompiler.COMPILED_PATTERN)) {
+			logger.debug("Loading precompiled CouchDB design doc: {}", resource.getFilename());
+			final Map<String, Object> doc = objectMapper.readValue(resource.getInputStream(), HashMap.class);
+			final Resource source = sourceResourcesByName.get(DesignDocCompiler.getSourceFilename(resource));
+			if (source != null && !DesignDocCompiler.computeSourceHash(source)
+					.equals(doc.remove(DesignDocCompiler.SOURCE_HASH_PROPERTY))) {
+				logger.warn("Precompiled design doc {} is outdated.", resource.getFilename());
+				break;
+			}
+			compiledDocs.add(doc);
+		}
+		if (!compiledDocs.isEmpty() && compiledDocs.size() == sourceResources.length) {
+			docs.addAll(compiledDocs);
+		} else {
+			logger.info("No up-to-date precompiled design docs found. Compiling design docs from source.");
+			docs.addAll(new DesignDocCompiler().compile(sourceResources));
 		}
 	}
 
 	protected void createDesignDocs() {
-		connector.executeBulk(docs.stream().filter(doc -> {
-			try {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Checking design doc {}:\n{}", doc.get("_id"), objectMapper.writeValueAsString(doc));
-				}
-				final Map<String, Object> existingDoc = connector.get(HashMap.class, doc.get("_id").toString());
-				final String existingViews = objectMapper.writeValueAsString(existingDoc.get("views"));
-				final String currentViews = objectMapper.writeValueAsString(doc.get("views"));
-				if (existingViews.equals(currentViews)) {
-					logger.debug("Design doc {} already exists.", doc.get("_id"));
-					return false;
-				} else {
-					logger.debug("Design doc {} will be updated.", doc.get("_id"));
-					doc.put("_rev", existingDoc.get("_rev"));
-					return true;
-				}
-			} catch (final DocumentNotFoundException e) {
+		final Map<String, JsonNode> existingDocs = new HashMap<>();
+		final ViewResult result = connector.queryView(new ViewQuery()
+				.allDocs()
+				.startKey(DESIGN_DOC_ID_PREFIX)
+				.endKey(DESIGN_DOC_ID_PREFIX + "\ufff0")
+				.includeDocs(true));
+		for (final ViewResult.Row row : result.getRows()) {
+			existingDocs.put(row.getId(), row.getDocAsNode());
+		}
+
+		final List<Map<String, Object>> changedDocs = docs.stream().filter(doc -> {
+			final JsonNode existingDoc = existingDocs.get(doc.get("_id").toString());
+			if (existingDoc == null) {
 				logger.debug("Design doc {} will be created.", doc.get("_id"));
 				return true;
-			} catch (final JsonProcessingException e) {
-				logger.warn("Failed to serialize design doc {}.", doc.get("_id"), e);
+			}
+			final JsonNode existingHash = existingDoc.get(DesignDocCompiler.HASH_PROPERTY);
+			if (existingHash != null && existingHash.asText().equals(doc.get(DesignDocCompiler.HASH_PROPERTY))) {
+				logger.debug("Design doc {} is up to date.", doc.get("_id"));
 				return false;
 			}
-		}).collect(Collectors.toList()));
+			logger.debug("Design doc {} will be updated.", doc.get("_id"));
+			doc.put("_rev", existingDoc.get("_rev").asText());
+			return true;
+		}).collect(Collectors.toList());
+		if (!changedDocs.isEmpty()) {
+			logger.info("Uploading {} changed design docs.", changedDocs.size());
+			connector.executeBulk(changedDocs);
+		}
 	}
 
 	private MigrationState checkMigrationState() {
@@ -144,6 +162,7 @@ public class CouchDbInitializer implements ResourceLoaderAware {
 	protected void waitForDb() {
 		DbInfo info = null;
 		logger.info("Waiting for database...");
+		long delay = WAIT_FOR_DB_INITIAL_DELAY_MS;
 		boolean firstTry = true;
 		do {
 			try {
@@ -159,14 +178,15 @@ public class CouchDbInitializer implements ResourceLoaderAware {
 				}
 				if (firstTry) {
 					logger.error("Database not ready.", e1);
-					logger.info("Retrying...");
 					firstTry = false;
 				}
+				logger.info("Retrying in {} ms...", delay);
 				try {
-					Thread.sleep(10000);
+					Thread.sleep(delay);
 				} catch (final InterruptedException e2) {
 					logger.warn("Database waiting loop was interrupted.", e2);
 				}
+				delay = Math.min(delay * 2, WAIT_FOR_DB_MAX_DELAY_MS);
 			}
 		} while (info == null);
 	}
@@ -193,6 +213,9 @@ public class CouchDbInitializer implements ResourceLoaderAware {
 			createDesignDocs();
 			migrate(state);
 			statusService.removeMaintenanceReason(this.getClass());
+			if (viewWarmer != null) {
+				viewWarmer.warmViews(docs);
+			}
 		} catch (final DbAccessException e) {
 			logger.error("Database initialization failed.", e);
 			statusService.putMaintenanceReason(this.getClass(), "Invalid database state");
@@ -208,4 +231,9 @@ public class CouchDbInitializer implements ResourceLoaderAware {
 	public void setMigrationExecutor(final MigrationExecutor migrationExecutor) {
 		this.migrationExecutor = migrationExecutor;
 	}
+
+	@Autowired
+	public void setViewWarmer(final CouchDbViewWarmer viewWarmer) {
+		this.viewWarmer = viewWarmer;
+	}
 }
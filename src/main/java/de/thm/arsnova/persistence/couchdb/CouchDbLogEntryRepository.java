@@ -18,29 +18,164 @@
 
 package de.thm.arsnova.persistence.couchdb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.ektorp.CouchDbConnector;
+import org.ektorp.DbAccessException;
+import org.ektorp.DocumentOperationResult;
 import org.ektorp.support.CouchDbRepositorySupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
 
+import de.thm.arsnova.config.properties.CouchDbProperties.LogWriter.OverflowPolicy;
 import de.thm.arsnova.model.migration.v2.LogEntry;
 import de.thm.arsnova.persistence.LogEntryRepository;
 
-public class CouchDbLogEntryRepository extends CouchDbRepositorySupport<LogEntry> implements LogEntryRepository {
+/**
+ * Writes log entries asynchronously. Entries are put into a bounded queue and written in batches by a single
+ * background thread via the <code>_bulk_docs</code> API. The behavior for a full queue is determined by the
+ * {@link OverflowPolicy}. The background thread is managed as part of the application context's lifecycle. Entries
+ * created while it is not running are written synchronously, and pending entries are written when it is stopped.
+ */
+public class CouchDbLogEntryRepository extends CouchDbRepositorySupport<LogEntry>
+		implements LogEntryRepository, SmartLifecycle {
 	private static final Logger logger = LoggerFactory.getLogger(CouchDbLogEntryRepository.class);
+	private static final long POLL_TIMEOUT_MS = 1000;
+	private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+	private final BlockingQueue<LogEntry> queue;
+	private final int batchSize;
+	private final OverflowPolicy overflowPolicy;
+	private final AtomicLong discardedCount = new AtomicLong();
+	private Thread writer;
+	private volatile boolean running;
 
 	public CouchDbLogEntryRepository(final CouchDbConnector db, final boolean createIfNotExists) {
+		this(db, createIfNotExists, 1000, 100, OverflowPolicy.DISCARD_NEW);
+	}
+
+	public CouchDbLogEntryRepository(final CouchDbConnector db, final boolean createIfNotExists,
+			final int queueCapacity, final int batchSize, final OverflowPolicy overflowPolicy) {
 		super(LogEntry.class, db, createIfNotExists);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.overflowPolicy = overflowPolicy;
 	}
 
 	@Override
 	public void create(final String event, final LogEntry.LogLevel level, final Map<String, Object> payload) {
 		final LogEntry log = new LogEntry(event, level.ordinal(), payload);
+		if (!running) {
+			writeBatch(Collections.singletonList(log));
+			return;
+		}
+		switch (overflowPolicy) {
+			case DISCARD_OLDEST:
+				while (!queue.offer(log)) {
+					if (queue.poll() != null) {
+						discardedCount.incrementAndGet();
+					}
+				}
+				break;
+			case CALLER_WRITES:
+				if (!queue.offer(log)) {
+					writeBatch(Collections.singletonList(log));
+				}
+				break;
+			default:
+				if (!queue.offer(log)) {
+					discardedCount.incrementAndGet();
+				}
+				break;
+		}
+		if (!running) {
+			/* The writer has been stopped concurrently, so the entry might not have been drained. */
+			flushQueue();
+		}
+	}
+
+	/**
+	 * Starts the background thread which writes the queued entries.
+	 */
+	@Override
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		writer = new Thread(this::processQueue, "LogEntryWriter");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Stops the background thread and writes all pending entries.
+	 */
+	@Override
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			writer.join(SHUTDOWN_TIMEOUT_MS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writer = null;
+		flushQueue();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private void processQueue() {
+		while (running) {
+			try {
+				final LogEntry log = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+				if (log == null) {
+					continue;
+				}
+				final List<LogEntry> batch = new ArrayList<>(batchSize);
+				batch.add(log);
+				queue.drainTo(batch, batchSize - 1);
+				writeBatch(batch);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	private void flushQueue() {
+		final List<LogEntry> batch = new ArrayList<>(batchSize);
+		while (queue.drainTo(batch, batchSize) > 0) {
+			writeBatch(batch);
+			batch.clear();
+		}
+	}
+
+	private void writeBatch(final List<LogEntry> batch) {
+		final long discarded = discardedCount.getAndSet(0);
+		if (discarded > 0) {
+			logger.warn("Discarded {} log entries because the queue was full.", discarded);
+		}
 		try {
-			db.create(log);
-		} catch (final IllegalArgumentException e) {
-			logger.error("Logging of '{}' event to database failed.", event, e);
+			final List<DocumentOperationResult> results = db.executeBulk(batch);
+			for (final DocumentOperationResult result : results) {
+				logger.error("Logging of event to database failed: {} ({}).", result.getError(), result.getReason());
+			}
+		} catch (final DbAccessException | IllegalArgumentException e) {
+			logger.error("Logging of {} events to database failed.", batch.size(), e);
 		}
 	}
 }
@@ -36,7 +36,7 @@ public class CouchDbMotdRepository extends CouchDbCrudRepository<Motd> implement
 
 	@Override
 	public List<Motd> findGlobalForAdmin() {
-		return find(null);
+		return db.queryView(createQuery("by_audience_for_global").includeDocs(true), Motd.class);
 	}
 
 	@Override
@@ -55,6 +55,7 @@ public class CouchDbRoomRepository extends CouchDbCrudRepository<Room> implement
 
 	public CouchDbRoomRepository(final CouchDbConnector db, final boolean createIfNotExists) {
 		super(Room.class, db, "by_id", createIfNotExists);
+		setIndexedProperties("ownerId");
 	}
 
 	@Override
@@ -67,6 +68,15 @@ public class CouchDbRoomRepository extends CouchDbCrudRepository<Room> implement
 		return !roomList.isEmpty() ? roomList.get(0) : null;
 	}
 
+	@Override
+	public Map<String, String> findAllIdsByShortId() {
+		final ViewResult result = db.queryView(createQuery("by_shortid"));
+
+		return result.getRows().stream()
+				.filter(row -> row.getKey() != null)
+				.collect(Collectors.toMap(ViewResult.Row::getKey, ViewResult.Row::getId, (id1, id2) -> id1));
+	}
+
 	/* TODO: Move to service layer. */
 	private String getShortId(final String id) throws IOException {
 		final Room room = get(id);
@@ -41,6 +41,7 @@ public class CouchDbUserRepository extends CouchDbCrudRepository<UserProfile> im
 
 	public CouchDbUserRepository(final CouchDbConnector db, final boolean createIfNotExists) {
 		super(UserProfile.class, db, "by_id", createIfNotExists);
+		setIndexedProperties("loginId");
 	}
 
 	private void log(final Object... strings) {
@@ -72,6 +73,24 @@ public class CouchDbUserRepository extends CouchDbCrudRepository<UserProfile> im
 		}
 	}
 
+	@Override
+	public List<String> findRoomIdsFromRoomHistory(final String userId, final int start, final int limit) {
+		final int qSkip = start > 0 ? start : -1;
+		final int qLimit = limit > 0 ? limit : -1;
+		final ViewResult result = db.queryView(createQuery("roomid_by_id_lastvisit")
+				.descending(true)
+				.skip(qSkip)
+				.limit(qLimit)
+				.startKey(ComplexKey.of(userId, ComplexKey.emptyObject()))
+				.endKey(ComplexKey.of(userId)));
+		final List<String> roomIds = new ArrayList<>();
+		for (final ViewResult.Row row : result.getRows()) {
+			roomIds.add(row.getValue());
+		}
+
+		return roomIds;
+	}
+
 	@Override
 	public int deleteInactiveUsers(final long lastActivityBefore) {
 		final ViewQuery q = createQuery("by_creationtimestamp_for_inactive").endKey(lastActivityBefore);
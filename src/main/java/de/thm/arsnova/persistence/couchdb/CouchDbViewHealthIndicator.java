@@ -0,0 +1,49 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.couchdb;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the database as out of service until the view indexes have been built by {@link CouchDbViewWarmer}. It is
+ * part of the <code>readiness</code> health group, so load balancers can wait for warmed instances.
+ */
+@Component
+public class CouchDbViewHealthIndicator implements HealthIndicator {
+	private final CouchDbViewWarmer viewWarmer;
+
+	public CouchDbViewHealthIndicator(final CouchDbViewWarmer viewWarmer) {
+		this.viewWarmer = viewWarmer;
+	}
+
+	@Override
+	public Health health() {
+		final Health.Builder builder = viewWarmer.getState() == CouchDbViewWarmer.State.READY
+				? Health.up()
+				: Health.outOfService();
+
+		return builder
+				.withDetail("state", viewWarmer.getState())
+				.withDetail("changesDone", viewWarmer.getChangesDone())
+				.withDetail("totalChanges", viewWarmer.getTotalChanges())
+				.build();
+	}
+}
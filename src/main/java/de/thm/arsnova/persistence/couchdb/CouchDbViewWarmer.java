@@ -0,0 +1,230 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.couchdb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.ektorp.CouchDbConnector;
+import org.ektorp.DbAccessException;
+import org.ektorp.ViewQuery;
+import org.ektorp.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the view indexes of the design documents in the background so the first requests after a design document
+ * update do not block until CouchDB has finished indexing.
+ *
+ * <p>
+ * Indexing is triggered by a <code>limit=0</code>, <code>stale=update_after</code> query per design document because
+ * all views of a design document share an index. Progress is tracked via <code>_active_tasks</code>. If the task list
+ * is not accessible, the views are queried again without <code>stale</code> which blocks until they are built.
+ * </p>
+ */
+@Component
+public class CouchDbViewWarmer {
+	public enum State {
+		PENDING,
+		WARMING,
+		READY
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(CouchDbViewWarmer.class);
+	private static final int THREAD_COUNT = 4;
+	private static final int QUEUE_CAPACITY = 100;
+	private static final long POLL_INTERVAL_MS = 5000;
+
+	private final CouchDbConnector connector;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			THREAD_COUNT, THREAD_COUNT, 60, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY), new CustomizableThreadFactory("ViewWarmer"));
+	private volatile State state = State.PENDING;
+	private volatile long changesDone;
+	private volatile long totalChanges;
+
+	public CouchDbViewWarmer(final CouchDbConnector connector) {
+		this.connector = connector;
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Starts building the indexes of the passed design documents in the background.
+	 *
+	 * @param designDocs The design documents
+	 */
+	public void warmViews(final Collection<Map<String, Object>> designDocs) {
+		state = State.WARMING;
+		final List<ViewQuery> queries = new ArrayList<>();
+		final Set<String> designDocIds = new HashSet<>();
+		for (final Map<String, Object> designDoc : designDocs) {
+			final Map<String, Object> views = (Map<String, Object>) designDoc.get("views");
+			if (views == null || views.isEmpty()) {
+				continue;
+			}
+			final String id = designDoc.get("_id").toString();
+			designDocIds.add(id);
+			queries.add(new ViewQuery().designDocId(id).viewName(views.keySet().iterator().next()));
+		}
+		logger.info("Warming views of {} design docs.", queries.size());
+
+		final List<Future<?>> triggers = new ArrayList<>();
+		for (final ViewQuery query : queries) {
+			triggers.add(executor.submit(() -> queryView(query, true)));
+		}
+		/* The monitor is queued after the triggers, so it cannot block them even with a single thread. */
+		executor.submit(() -> {
+			awaitAll(triggers);
+			if (!awaitIndexing(designDocIds)) {
+				final List<Future<?>> blockingQueries = new ArrayList<>();
+				for (final ViewQuery query : queries) {
+					blockingQueries.add(executor.submit(() -> queryView(query, false)));
+				}
+				awaitAll(blockingQueries);
+			}
+			state = State.READY;
+			logger.info("Views are ready.");
+		});
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public long getChangesDone() {
+		return changesDone;
+	}
+
+	public long getTotalChanges() {
+		return totalChanges;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void queryView(final ViewQuery query, final boolean updateAfter) {
+		final ViewQuery warmingQuery = new ViewQuery()
+				.designDocId(query.getDesignDocId())
+				.viewName(query.getViewName())
+				.limit(0);
+		try {
+			connector.queryView(updateAfter ? warmingQuery.staleOkUpdateAfter() : warmingQuery);
+			logger.debug("Queried view {}/{}.", query.getDesignDocId(), query.getViewName());
+		} catch (final DbAccessException e) {
+			logger.warn("Failed to query view {}/{}.", query.getDesignDocId(), query.getViewName(), e);
+		}
+	}
+
+	/**
+	 * Polls <code>_active_tasks</code> until no indexer tasks are left for the design documents.
+	 *
+	 * @return <code>false</code> if the task list is not accessible
+	 */
+	private boolean awaitIndexing(final Set<String> designDocIds) {
+		try {
+			while (true) {
+				final JsonNode tasks = fetchActiveTasks();
+				if (tasks == null) {
+					return false;
+				}
+				long done = 0;
+				long total = 0;
+				int indexerCount = 0;
+				for (final JsonNode task : tasks) {
+					if ("indexer".equals(task.path("type").asText())
+							&& isOwnDatabase(task.path("database").asText())
+							&& designDocIds.contains(task.path("design_document").asText())) {
+						indexerCount++;
+						done += task.path("changes_done").asLong();
+						total += task.path("total_changes").asLong();
+					}
+				}
+				changesDone = done;
+				totalChanges = total;
+				if (indexerCount == 0) {
+					return true;
+				}
+				logger.info("Waiting for {} indexer tasks ({}/{} changes).", indexerCount, done, total);
+				Thread.sleep(POLL_INTERVAL_MS);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return true;
+		}
+	}
+
+	private JsonNode fetchActiveTasks() {
+		HttpResponse response = null;
+		try {
+			response = connector.getConnection().get("/_active_tasks");
+			if (!response.isSuccessful()) {
+				logger.warn("Active tasks are not accessible (HTTP {}).", response.getCode());
+				return null;
+			}
+			return objectMapper.readTree(response.getContent());
+		} catch (final DbAccessException | IOException e) {
+			logger.warn("Failed to retrieve active tasks.", e);
+			return null;
+		} finally {
+			if (response != null) {
+				response.releaseConnection();
+			}
+		}
+	}
+
+	/**
+	 * Checks if the database of a task matches. CouchDB 2 reports shard names like
+	 * <code>shards/00000000-1fffffff/dbname.1576000000</code>.
+	 */
+	private boolean isOwnDatabase(final String database) {
+		final String dbName = connector.getDatabaseName();
+
+		return database.equals(dbName) || database.contains("/" + dbName + ".");
+	}
+
+	private void awaitAll(final List<Future<?>> futures) {
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final ExecutionException e) {
+				logger.warn("View warming task failed.", e.getCause());
+			}
+		}
+	}
+}
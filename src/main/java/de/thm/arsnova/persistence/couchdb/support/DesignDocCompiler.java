@@ -0,0 +1,159 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.couchdb.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Converts the JavaScript design document sources (<code>couchdb/*.design.js</code>) to JSON. Each document gets a
+ * hash of its content in the {@link #HASH_PROPERTY} field, so changed documents can be detected without comparing
+ * their views.
+ *
+ * <p>
+ * The conversion is run as part of the build via {@link #main(String[])} which stores the results as
+ * <code>couchdb/*.design.json</code> resources. This way no script engine is needed at application startup. The
+ * compiled resources contain a hash of their source in the {@link #SOURCE_HASH_PROPERTY} field which allows detecting
+ * outdated resources, e.g. if sources were changed without running the build.
+ * </p>
+ */
+public class DesignDocCompiler {
+	public static final String HASH_PROPERTY = "arsnovaHash";
+	public static final String SOURCE_HASH_PROPERTY = "arsnovaSourceHash";
+	public static final String SOURCE_PATTERN = "classpath:couchdb/*.design.js";
+	public static final String COMPILED_PATTERN = "classpath:couchdb/*.design.json";
+	private static final String SOURCE_SUFFIX = ".design.js";
+	private static final String COMPILED_SUFFIX = ".design.json";
+	private static final Logger logger = LoggerFactory.getLogger(DesignDocCompiler.class);
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	/**
+	 * Compiles the design document sources and writes them to the directory passed as first argument.
+	 *
+	 * @param args The output directory
+	 */
+	public static void main(final String[] args) throws IOException, ScriptException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Output directory expected.");
+		}
+		final File outputDir = new File(args[0]);
+		if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+			throw new IOException("Cannot create output directory " + outputDir + ".");
+		}
+		final DesignDocCompiler compiler = new DesignDocCompiler();
+		final Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SOURCE_PATTERN);
+		final List<Map<String, Object>> docs = compiler.compile(resources);
+		for (int i = 0; i < resources.length; i++) {
+			final String filename = resources[i].getFilename();
+			final File file = new File(outputDir,
+					filename.substring(0, filename.length() - SOURCE_SUFFIX.length()) + COMPILED_SUFFIX);
+			final Map<String, Object> doc = docs.get(i);
+			doc.put(SOURCE_HASH_PROPERTY, computeSourceHash(resources[i]));
+			compiler.objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, doc);
+			logger.info("Compiled design doc {} to {}.", filename, file);
+		}
+	}
+
+	/**
+	 * Evaluates the design document sources and adds the content hashes.
+	 *
+	 * @param resources The <code>*.design.js</code> resources
+	 * @return The design documents in the order of the passed resources
+	 */
+	public List<Map<String, Object>> compile(final Resource[] resources) throws IOException, ScriptException {
+		final ScriptEngine engine = new ScriptEngineManager().getEngineByMimeType("application/javascript");
+		engine.eval(new InputStreamReader(
+				new ClassPathResource("couchdb/jsToJson.js").getInputStream(), StandardCharsets.UTF_8));
+
+		final List<Map<String, Object>> docs = new ArrayList<>();
+		for (final Resource resource : resources) {
+			logger.debug("Evaluating CouchDB design doc: {}", resource.getFilename());
+			final String js = FileCopyUtils.copyToString(
+					new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+			/* Reset designDoc before parsing a new one. */
+			engine.eval("var designDoc = null;" + js);
+			/* Detach the result from the script engine. */
+			final Map<String, Object> doc = objectMapper.convertValue(
+					engine.eval("jsToJson(designDoc)"), new TypeReference<LinkedHashMap<String, Object>>() { });
+			doc.put(HASH_PROPERTY, computeHash(doc));
+			docs.add(doc);
+		}
+
+		return docs;
+	}
+
+	/**
+	 * Computes the hash of a design document source.
+	 *
+	 * @param resource The <code>*.design.js</code> resource
+	 * @return The hash as hex string
+	 */
+	public static String computeSourceHash(final Resource resource) throws IOException {
+		return Hashing.sha256().hashBytes(FileCopyUtils.copyToByteArray(resource.getInputStream())).toString();
+	}
+
+	/**
+	 * Returns the name of the source resource for a compiled design document resource.
+	 *
+	 * @param compiledResource The <code>*.design.json</code> resource
+	 * @return The <code>*.design.js</code> file name
+	 */
+	public static String getSourceFilename(final Resource compiledResource) {
+		final String filename = compiledResource.getFilename();
+
+		return filename.substring(0, filename.length() - COMPILED_SUFFIX.length()) + SOURCE_SUFFIX;
+	}
+
+	/**
+	 * Computes the hash of a design document. The hash and <code>_rev</code> fields are ignored.
+	 *
+	 * @param doc The design document
+	 * @return The hash as hex string
+	 */
+	public String computeHash(final Map<String, Object> doc) throws JsonProcessingException {
+		final Map<String, Object> content = new LinkedHashMap<>(doc);
+		content.remove(HASH_PROPERTY);
+		content.remove(SOURCE_HASH_PROPERTY);
+		content.remove("_rev");
+
+		return Hashing.sha256().hashBytes(objectMapper.writeValueAsBytes(content)).toString();
+	}
+}
@@ -300,6 +300,21 @@ public class MangoCouchDbConnector extends StdCouchDbConnector {
 		return new PagedMangoResponse<T>(query(query, rh), rh.getBookmark());
 	}
 
+	/**
+	 * Retrieves a single property of entities with pagination metadata from the database selected by the query.
+	 *
+	 * @param query The query sent to CouchDB's Mango API
+	 * @param propertyName Name of the entity's property to be parsed
+	 * @param type Type for deserialization of retrieved entities
+	 * @return List of retrieved properties wrapped with pagination metadata
+	 */
+	public <T> PagedMangoResponse<T> queryForPage(
+			final MangoQuery query, final String propertyName, final Class<T> type) {
+		query.setFields(Arrays.asList(new String[] {propertyName}));
+		final MangoResponseHandler<T> rh = new MangoResponseHandler<>(propertyName, type, objectMapper);
+		return new PagedMangoResponse<T>(query(query, rh), rh.getBookmark());
+	}
+
 	public void createPartialJsonIndex(
 			final String name, final List<MangoQuery.Sort> fields, final Map<String, Object> filterSelector) {
 		final Map<String, Object> query = new HashMap<>();
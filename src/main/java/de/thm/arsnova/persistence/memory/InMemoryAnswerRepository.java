@@ -0,0 +1,164 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.thm.arsnova.model.Answer;
+import de.thm.arsnova.model.AnswerStatistics;
+import de.thm.arsnova.model.ChoiceAnswer;
+import de.thm.arsnova.persistence.AnswerRepository;
+
+public class InMemoryAnswerRepository extends InMemoryCrudRepository<Answer> implements AnswerRepository {
+	private final Index<String> contentIdIndex = createIndex(Answer::getContentId);
+	private final Index<String> roomIdIndex = createIndex(Answer::getRoomId);
+	private final Index<List<String>> creatorIdRoomIdIndex =
+			createIndex(answer -> Arrays.asList(answer.getCreatorId(), answer.getRoomId()));
+
+	public InMemoryAnswerRepository(final ObjectMapper objectMapper) {
+		super(Answer.class, objectMapper);
+	}
+
+	@Override
+	public Iterable<Answer> findStubsByContentId(final String contentId) {
+		return contentIdIndex.find(contentId)
+				.map(answer -> createStub(answer, Answer::setContentId, contentId))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Iterable<Answer> findStubsByContentIds(final Collection<String> contentIds) {
+		return contentIds.stream()
+				.flatMap(contentId -> contentIdIndex.find(contentId)
+						.map(answer -> createStub(answer, Answer::setContentId, contentId)))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<String> findIdsByContentId(final String contentId) {
+		return contentIdIndex.find(contentId).map(Answer::getId).collect(Collectors.toList());
+	}
+
+	@Override
+	public <T extends Answer> T findByContentIdUserIdPiRound(
+			final String contentId, final Class<T> type, final String userId, final int piRound) {
+		return contentIdIndex.find(contentId)
+				.filter(answer -> type.isInstance(answer)
+						&& userId.equals(answer.getCreatorId())
+						&& answer.getRound() == piRound)
+				.findFirst()
+				.<T>map(answer -> type.cast(copy(answer)))
+				.orElse(null);
+	}
+
+	@Override
+	public AnswerStatistics findByContentIdRound(final String contentId, final int round, final int optionCount) {
+		final AnswerStatistics stats = new AnswerStatistics();
+		stats.setContentId(contentId);
+		final AnswerStatistics.RoundStatistics roundStats = new AnswerStatistics.RoundStatistics();
+		roundStats.setRound(round);
+		final List<Integer> independentCounts = new ArrayList<>(Collections.nCopies(optionCount, 0));
+		final Map<List<Integer>, Integer> combinationCounts = new HashMap<>();
+		int abstentionCount = 0;
+		for (final Answer answer : findByContentIdAndRound(contentId, round).collect(Collectors.toList())) {
+			final List<Integer> indexes = answer instanceof ChoiceAnswer
+					? ((ChoiceAnswer) answer).getSelectedChoiceIndexes() : null;
+			if (indexes == null || indexes.isEmpty()) {
+				/* Like the CouchDB view, answers without selected choices are counted as abstentions. */
+				abstentionCount++;
+			} else {
+				for (final int index : indexes) {
+					independentCounts.set(index, independentCounts.get(index) + 1);
+				}
+				combinationCounts.merge(new ArrayList<>(indexes), 1, Integer::sum);
+			}
+		}
+		roundStats.setAbstentionCount(abstentionCount);
+		roundStats.setIndependentCounts(independentCounts);
+		if (!combinationCounts.isEmpty()) {
+			roundStats.setCombinatedCounts(combinationCounts.entrySet().stream()
+					.map(e -> new AnswerStatistics.RoundStatistics.Combination(e.getKey(), e.getValue()))
+					.collect(Collectors.toList()));
+		}
+		final List<AnswerStatistics.RoundStatistics> roundStatisticsList =
+				new ArrayList<>(Collections.nCopies(round, null));
+		roundStatisticsList.set(round - 1, roundStats);
+		stats.setRoundStatistics(roundStatisticsList);
+
+		return stats;
+	}
+
+	@Override
+	public int countByContentId(final String contentId) {
+		return contentIdIndex.count(contentId);
+	}
+
+	@Override
+	public int countByContentIdRound(final String contentId, final int round) {
+		return (int) findByContentIdAndRound(contentId, round).count();
+	}
+
+	@Override
+	public int countByContentIds(final Collection<String> contentIds) {
+		return contentIds.stream().mapToInt(contentIdIndex::count).sum();
+	}
+
+	@Override
+	public <T extends Answer> List<T> findByContentId(
+			final String contentId, final Class<T> type, final int start, final int limit) {
+		return paginate(contentIdIndex.find(contentId)
+						.filter(type::isInstance)
+						.sorted(Comparator.comparing(Answer::getCreationTimestamp,
+								Comparator.nullsFirst(Comparator.naturalOrder())).reversed()),
+				start, limit)
+				.map(answer -> type.cast(copy(answer)))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Answer> findByUserIdRoomId(final String userId, final String roomId) {
+		return copyAll(creatorIdRoomIdIndex.find(Arrays.asList(userId, roomId)));
+	}
+
+	@Override
+	public int countByRoomId(final String roomId) {
+		return roomIdIndex.count(roomId);
+	}
+
+	Set<String> findContentIdsByUserIdRoomId(final String userId, final String roomId) {
+		return creatorIdRoomIdIndex.find(Arrays.asList(userId, roomId))
+				.map(Answer::getContentId)
+				.collect(Collectors.toSet());
+	}
+
+	private Stream<Answer> findByContentIdAndRound(final String contentId, final int round) {
+		return contentIdIndex.find(contentId).filter(answer -> answer.getRound() == round);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.migration.v2.CommentReadingCount;
+import de.thm.arsnova.persistence.CommentRepository;
+
+public class InMemoryCommentRepository extends InMemoryCrudRepository<Comment> implements CommentRepository {
+	private static final Comparator<Comment> NEWEST_FIRST = Comparator.comparing(Comment::getCreationTimestamp,
+			Comparator.nullsFirst(Comparator.naturalOrder())).reversed();
+
+	private final Index<String> roomIdIndex = createIndex(Comment::getRoomId);
+	private final Index<List<String>> roomIdCreatorIdIndex =
+			createIndex(comment -> Arrays.asList(comment.getRoomId(), comment.getCreatorId()));
+
+	public InMemoryCommentRepository(final ObjectMapper objectMapper) {
+		super(Comment.class, objectMapper);
+	}
+
+	@Override
+	public int countByRoomId(final String roomId) {
+		return roomIdIndex.count(roomId);
+	}
+
+	@Override
+	public CommentReadingCount countReadingByRoomId(final String roomId) {
+		return calculateReadingCount(roomIdIndex.find(roomId));
+	}
+
+	@Override
+	public CommentReadingCount countReadingByRoomIdAndUserId(final String roomId, final String userId) {
+		return calculateReadingCount(roomIdCreatorIdIndex.find(Arrays.asList(roomId, userId)));
+	}
+
+	@Override
+	public List<Comment> findByRoomId(final String roomId, final int start, final int limit) {
+		return copyAll(paginate(roomIdIndex.find(roomId).sorted(NEWEST_FIRST), start, limit));
+	}
+
+	@Override
+	public List<Comment> findByRoomIdAndUserId(
+			final String roomId, final String userId, final int start, final int limit) {
+		return copyAll(paginate(roomIdCreatorIdIndex.find(Arrays.asList(roomId, userId)).sorted(NEWEST_FIRST),
+				start, limit));
+	}
+
+	@Override
+	public Iterable<Comment> findStubsByRoomId(final String roomId) {
+		return roomIdIndex.find(roomId)
+				.map(comment -> createStub(comment, Comment::setRoomId, roomId))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Iterable<Comment> findStubsByRoomIdAndUserId(final String roomId, final String userId) {
+		return roomIdCreatorIdIndex.find(Arrays.asList(roomId, userId))
+				.map(comment -> createStub(comment, Comment::setRoomId, roomId))
+				.collect(Collectors.toList());
+	}
+
+	private CommentReadingCount calculateReadingCount(final Stream<Comment> comments) {
+		final int[] counts = new int[2];
+		comments.forEach(comment -> counts[comment.isRead() ? 0 : 1]++);
+
+		return new CommentReadingCount(counts[0], counts[1]);
+	}
+}
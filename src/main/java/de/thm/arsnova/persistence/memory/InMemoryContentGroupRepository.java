@@ -0,0 +1,64 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.persistence.ContentGroupRepository;
+
+public class InMemoryContentGroupRepository extends InMemoryCrudRepository<ContentGroup>
+		implements ContentGroupRepository {
+	private final Index<String> roomIdIndex = createIndex(ContentGroup::getRoomId);
+	private final Index<List<String>> roomIdNameIndex =
+			createIndex(contentGroup -> Arrays.asList(contentGroup.getRoomId(), contentGroup.getName()));
+
+	public InMemoryContentGroupRepository(final ObjectMapper objectMapper) {
+		super(ContentGroup.class, objectMapper);
+	}
+
+	@Override
+	public ContentGroup findByRoomIdAndName(final String roomId, final String name) {
+		return roomIdNameIndex.find(Arrays.asList(roomId, name)).findFirst().map(this::copy).orElse(null);
+	}
+
+	@Override
+	public List<ContentGroup> findByRoomId(final String roomId) {
+		return copyAll(roomIdIndex.find(roomId)
+				.sorted(Comparator.comparing(ContentGroup::getName, Comparator.nullsFirst(Comparator.naturalOrder()))));
+	}
+
+	@Override
+	public Map<String, Set<String>> findGroupNamesByRoomIdGroupedByContentId(final String roomId) {
+		final Map<String, Set<String>> groupNames = new HashMap<>();
+		roomIdIndex.find(roomId)
+				.filter(contentGroup -> contentGroup.getContentIds() != null)
+				.forEach(contentGroup -> contentGroup.getContentIds().forEach(contentId ->
+						groupNames.computeIfAbsent(contentId, id -> new HashSet<>()).add(contentGroup.getName())));
+
+		return groupNames;
+	}
+}
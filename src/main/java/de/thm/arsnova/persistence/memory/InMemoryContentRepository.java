@@ -0,0 +1,145 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.thm.arsnova.model.Content;
+import de.thm.arsnova.persistence.ContentRepository;
+
+public class InMemoryContentRepository extends InMemoryCrudRepository<Content> implements ContentRepository {
+	/* Mirrors the key order of the by_roomid_locked view: subject and the first characters of the body. */
+	private static final Comparator<Content> SUBJECT_BODY_ORDER = Comparator
+			.comparing(Content::getSubject, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(InMemoryContentRepository::getBodyPrefix, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	private final Index<String> roomIdIndex = createIndex(Content::getRoomId);
+	private final Index<Boolean> pendingRoundEndIndex = createIndex(content ->
+			content.getState() != null && content.getState().getRoundEndTimestamp() != null ? Boolean.TRUE : null);
+
+	private final InMemoryAnswerRepository answerRepository;
+
+	public InMemoryContentRepository(
+			final ObjectMapper objectMapper,
+			final InMemoryAnswerRepository answerRepository) {
+		super(Content.class, objectMapper);
+		this.answerRepository = answerRepository;
+	}
+
+	@Override
+	public List<Content> findByRoomIdForUsers(final String roomId) {
+		return copyAll(roomIdIndex.find(roomId).filter(content -> content.getState() != null
+				&& content.getState().isVisible()));
+	}
+
+	@Override
+	public List<Content> findByRoomIdForSpeaker(final String roomId) {
+		return findByRoomIdAndVariantAndActive(roomId);
+	}
+
+	@Override
+	public int countByRoomId(final String roomId) {
+		return roomIdIndex.count(roomId);
+	}
+
+	@Override
+	public List<String> findIdsByRoomId(final String roomId) {
+		return findSortedByRoomId(roomId).map(Content::getId).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<String> findVisibleIdsByRoomId(final String roomId) {
+		return roomIdIndex.find(roomId)
+				.filter(content -> content.getState() != null && content.getState().isVisible())
+				.map(Content::getId)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Iterable<Content> findStubsByIds(final Set<String> ids) {
+		return streamAllById(ids)
+				.map(content -> createStub(content, (a, b) -> { }, null))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Iterable<Content> findStubsByRoomId(final String roomId) {
+		return findSortedByRoomId(roomId)
+				.map(content -> createStub(content, Content::setRoomId, roomId))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<String> findUnansweredIdsByRoomIdAndUser(final String roomId, final String userId) {
+		final Set<String> answeredIds = findAnsweredIdsByRoomIdAndUser(roomId, userId);
+
+		return findIdsByRoomId(roomId).stream()
+				.filter(id -> !answeredIds.contains(id))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Set<String> findAnsweredIdsByRoomIdAndUser(final String roomId, final String userId) {
+		return answerRepository.findContentIdsByUserIdRoomId(userId, roomId);
+	}
+
+	@Override
+	public List<Content> findByRoomIdOnlyFlashcardVariantAndActive(final String roomId) {
+		return findByRoomIdAndVariantAndActive(roomId, "flashcard", true);
+	}
+
+	@Override
+	public List<Content> findByRoomId(final String roomId) {
+		return findByRoomIdAndVariantAndActive(roomId);
+	}
+
+	@Override
+	public List<Content> findWithPendingRoundEnd() {
+		return copyAll(pendingRoundEndIndex.find(Boolean.TRUE)
+				.sorted(Comparator.comparing((Content content) -> content.getState().getRoundEndTimestamp())));
+	}
+
+	@Override
+	public List<Content> findByRoomIdAndVariantAndActive(final Object... keys) {
+		/* The second key element of the by_roomid_locked view is the legacy locked property which is not part of
+		 * current documents, so the CouchDB implementation does not return any results for additional keys either. */
+		if (keys.length > 1 && Stream.of(keys).skip(1).anyMatch(Objects::nonNull)) {
+			return new ArrayList<>();
+		}
+
+		return copyAll(findSortedByRoomId((String) keys[0]));
+	}
+
+	private static String getBodyPrefix(final Content content) {
+		final String body = content.getBody();
+
+		return body != null ? body.substring(0, Math.min(16, body.length())) : null;
+	}
+
+	private Stream<Content> findSortedByRoomId(final String roomId) {
+		return roomIdIndex.find(roomId).sorted(SUBJECT_BODY_ORDER);
+	}
+}
@@ -0,0 +1,388 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.ektorp.DocumentNotFoundException;
+import org.ektorp.UpdateConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import de.thm.arsnova.model.Entity;
+import de.thm.arsnova.persistence.BulkOperationFailure;
+import de.thm.arsnova.persistence.CrudRepository;
+
+/**
+ * Base class for repositories which keep their entities in concurrent in-memory maps instead of a database. It is
+ * intended for measuring the throughput of the service layer in isolation and emulates the CouchDB semantics the
+ * services rely on: Generated IDs, revisions, update conflicts, missing documents and bulk operations which report
+ * failures per document instead of aborting.
+ *
+ * <p>
+ * Entities are stored as deep copies created by the same Jackson configuration used for CouchDB, so modifications to
+ * returned entities do not affect the stored state until they are saved. Secondary indexes created with
+ * {@link #createIndex(Function)} replace CouchDB views and are kept in sync with every write.
+ * </p>
+ *
+ * @param <T> The entity type
+ */
+@NoRepositoryBean
+abstract class InMemoryCrudRepository<T extends Entity> implements CrudRepository<T, String> {
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryCrudRepository.class);
+
+	protected final Class<T> type;
+	private final ObjectMapper objectMapper;
+	private final Map<String, T> documents = new ConcurrentHashMap<>();
+	private final List<Index<?>> indexes = new ArrayList<>();
+
+	protected InMemoryCrudRepository(final Class<T> type, final ObjectMapper objectMapper) {
+		this.type = type;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public <S extends T> S save(final S entity) {
+		final String id = entity.getId() != null ? entity.getId() : UUID.randomUUID().toString().replace("-", "");
+		final String revision = nextRevision(entity.getRevision());
+		final S copy = copy(entity);
+		copy.setId(id);
+		copy.setRevision(revision);
+		documents.compute(id, (key, current) -> {
+			final String currentRevision = current != null ? current.getRevision() : null;
+			if (!Objects.equals(currentRevision, entity.getRevision())) {
+				throw new UpdateConflictException(id, entity.getRevision());
+			}
+			updateIndexes(current, copy);
+
+			return copy;
+		});
+		entity.setId(id);
+		entity.setRevision(revision);
+
+		return entity;
+	}
+
+	@Override
+	public <S extends T> Iterable<S> saveAll(final Iterable<S> entities) {
+		bulkSave(entities);
+
+		return entities;
+	}
+
+	@Override
+	public <S extends T> List<BulkOperationFailure> bulkSave(final Iterable<S> entities) {
+		if (!(entities instanceof Collection)) {
+			throw new IllegalArgumentException("Implementation only supports Collections.");
+		}
+		final List<BulkOperationFailure> failures = new ArrayList<>();
+		for (final S entity : entities) {
+			try {
+				save(entity);
+			} catch (final UpdateConflictException e) {
+				failures.add(new BulkOperationFailure(entity.getId(), "conflict"));
+			}
+		}
+		logBulkErrors(failures.size());
+
+		return failures;
+	}
+
+	@Override
+	public Optional<T> findById(final String id) {
+		return Optional.ofNullable(get(id));
+	}
+
+	@Override
+	public T findOne(final String id) {
+		return get(id);
+	}
+
+	@Override
+	public boolean existsById(final String id) {
+		return documents.containsKey(id);
+	}
+
+	@Override
+	public Iterable<T> findAll() {
+		return copyAll(documents.values().stream().sorted(Comparator.comparing(Entity::getId)));
+	}
+
+	@Override
+	public Iterable<T> findAllById(final Iterable<String> ids) {
+		if (!(ids instanceof Collection)) {
+			throw new IllegalArgumentException("Implementation only supports Collections.");
+		}
+
+		return copyAll(streamAllById((Collection<String>) ids));
+	}
+
+	@Override
+	public long count() {
+		return documents.size();
+	}
+
+	@Override
+	public void deleteById(final String id) {
+		remove(id, get(id).getRevision());
+	}
+
+	@Override
+	public void delete(final T entity) {
+		remove(entity.getId(), entity.getRevision());
+	}
+
+	@Override
+	public void deleteAll(final Iterable<? extends T> entities) {
+		bulkDelete(entities);
+	}
+
+	@Override
+	public List<BulkOperationFailure> bulkDelete(final Iterable<? extends T> entities) {
+		if (!(entities instanceof Collection)) {
+			throw new IllegalArgumentException("Implementation only supports Collections.");
+		}
+		final List<BulkOperationFailure> failures = new ArrayList<>();
+		for (final T entity : entities) {
+			try {
+				remove(entity.getId(), entity.getRevision());
+			} catch (final DocumentNotFoundException e) {
+				failures.add(new BulkOperationFailure(entity.getId(), "not_found"));
+			} catch (final UpdateConflictException e) {
+				failures.add(new BulkOperationFailure(entity.getId(), "conflict"));
+			}
+		}
+		logBulkErrors(failures.size());
+
+		return failures;
+	}
+
+	@Override
+	public void deleteAll() {
+		throw new UnsupportedOperationException("Deletion of all entities is not supported for security reasons.");
+	}
+
+	/**
+	 * Retrieves a copy of the stored entity. Like CouchDB, an exception is thrown if there is no entity for the ID.
+	 *
+	 * @param id The entity's ID
+	 * @return A copy of the stored entity
+	 * @throws DocumentNotFoundException if no entity is stored for the ID
+	 */
+	protected T get(final String id) {
+		final T document = documents.get(id);
+		if (document == null) {
+			throw new DocumentNotFoundException(id);
+		}
+
+		return copy(document);
+	}
+
+	/**
+	 * Creates a secondary index for a single key per entity. Entities for which the key mapper returns
+	 * <code>null</code> are not indexed.
+	 *
+	 * @param keyMapper Extracts the key from an entity
+	 * @param <K> The key type
+	 * @return The index which is kept in sync with the stored entities
+	 */
+	protected <K> Index<K> createIndex(final Function<T, K> keyMapper) {
+		return createMultiIndex(entity -> {
+			final K key = keyMapper.apply(entity);
+			return key != null ? Collections.singleton(key) : Collections.emptySet();
+		});
+	}
+
+	/**
+	 * Creates a secondary index for multiple keys per entity, comparable to a CouchDB view which emits multiple rows
+	 * for a single document.
+	 *
+	 * @param keyMapper Extracts the keys from an entity
+	 * @param <K> The key type
+	 * @return The index which is kept in sync with the stored entities
+	 */
+	protected <K> Index<K> createMultiIndex(final Function<T, Collection<K>> keyMapper) {
+		final Index<K> index = new Index<>(keyMapper);
+		indexes.add(index);
+
+		return index;
+	}
+
+	/**
+	 * Provides direct access to the stored entities. Callers must not modify or return them without creating copies.
+	 */
+	Stream<T> streamAll() {
+		return documents.values().stream();
+	}
+
+	/**
+	 * Provides direct access to the stored entities for the IDs. Callers must not modify or return them without
+	 * creating copies.
+	 */
+	Stream<T> streamAllById(final Collection<String> ids) {
+		return ids.stream().map(documents::get).filter(Objects::nonNull);
+	}
+
+	protected List<T> copyAll(final Stream<? extends T> entities) {
+		return entities.map(this::copy).collect(Collectors.toList());
+	}
+
+	protected <S extends T> S copy(final S entity) {
+		try {
+			final TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+			objectMapper.writeValue(buffer, entity);
+
+			return objectMapper.readValue(buffer.asParser(), (Class<S>) entity.getClass());
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a stub entity which only has meta data (id, revision, reference id) set.
+	 */
+	protected T createStub(final T entity, final BiConsumer<T, String> keyPropertySetter, final String key) {
+		try {
+			final T stub = type.newInstance();
+			stub.setId(entity.getId());
+			stub.setRevision(entity.getRevision());
+			keyPropertySetter.accept(stub, key);
+
+			return stub;
+		} catch (final InstantiationException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	protected static <E> Stream<E> paginate(final Stream<E> entities, final int start, final int limit) {
+		final Stream<E> skipped = start > 0 ? entities.skip(start) : entities;
+
+		return limit > 0 ? skipped.limit(limit) : skipped;
+	}
+
+	private void remove(final String id, final String revision) {
+		documents.compute(id, (key, current) -> {
+			if (current == null) {
+				throw new DocumentNotFoundException(id);
+			}
+			if (!current.getRevision().equals(revision)) {
+				throw new UpdateConflictException(id, revision);
+			}
+			updateIndexes(current, null);
+
+			return null;
+		});
+	}
+
+	private void updateIndexes(final T oldEntity, final T newEntity) {
+		for (final Index<?> index : indexes) {
+			index.update(oldEntity, newEntity);
+		}
+	}
+
+	private String nextRevision(final String revision) {
+		final int generation = revision != null ? Integer.parseInt(revision.substring(0, revision.indexOf('-'))) : 0;
+
+		return (generation + 1) + "-" + UUID.randomUUID().toString().replace("-", "");
+	}
+
+	private void logBulkErrors(final int failures) {
+		if (failures > 0) {
+			logger.warn("{} document operation(s) of bulk request failed for type {}.", failures, type.getSimpleName());
+		}
+	}
+
+	/**
+	 * A secondary index mapping keys to the IDs of the stored entities. It is updated while the write lock for the
+	 * affected entity is held, so lookups check the entity's current keys to filter out stale entries of concurrent
+	 * updates.
+	 *
+	 * @param <K> The key type
+	 */
+	protected final class Index<K> {
+		private final Function<T, Collection<K>> keyMapper;
+		private final Map<K, Set<String>> ids = new ConcurrentHashMap<>();
+
+		private Index(final Function<T, Collection<K>> keyMapper) {
+			this.keyMapper = keyMapper;
+		}
+
+		/**
+		 * Provides direct access to the stored entities for a key. Callers must not modify or return them without
+		 * creating copies.
+		 */
+		public Stream<T> find(final K key) {
+			final Set<String> keyIds = ids.get(key);
+			if (keyIds == null) {
+				return Stream.empty();
+			}
+
+			return keyIds.stream()
+					.map(documents::get)
+					.filter(entity -> entity != null && keyMapper.apply(entity).contains(key));
+		}
+
+		public int count(final K key) {
+			return (int) find(key).count();
+		}
+
+		public Set<K> keys() {
+			return Collections.unmodifiableSet(ids.keySet());
+		}
+
+		private void update(final T oldEntity, final T newEntity) {
+			final Collection<K> oldKeys = oldEntity != null ? keyMapper.apply(oldEntity) : Collections.emptySet();
+			final Collection<K> newKeys = newEntity != null ? keyMapper.apply(newEntity) : Collections.emptySet();
+			final String id = oldEntity != null ? oldEntity.getId() : newEntity.getId();
+			for (final K key : oldKeys) {
+				if (!newKeys.contains(key)) {
+					ids.computeIfPresent(key, (k, keyIds) -> {
+						keyIds.remove(id);
+						return keyIds.isEmpty() ? null : keyIds;
+					});
+				}
+			}
+			for (final K key : newKeys) {
+				ids.compute(key, (k, keyIds) -> {
+					final Set<String> updatedIds = keyIds != null ? keyIds : ConcurrentHashMap.newKeySet();
+					updatedIds.add(id);
+					return updatedIds;
+				});
+			}
+		}
+	}
+}
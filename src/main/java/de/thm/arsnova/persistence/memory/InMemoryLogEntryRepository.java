@@ -0,0 +1,47 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.thm.arsnova.model.migration.v2.LogEntry;
+import de.thm.arsnova.persistence.LogEntryRepository;
+
+/**
+ * Discards database log entries after passing them to the default logging mechanism. Only the number of entries is
+ * tracked so the overhead of database logging is excluded from throughput measurements.
+ */
+public class InMemoryLogEntryRepository implements LogEntryRepository {
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryLogEntryRepository.class);
+
+	private final AtomicLong entryCount = new AtomicLong();
+
+	@Override
+	public void create(final String event, final LogEntry.LogLevel level, final Map<String, Object> payload) {
+		entryCount.incrementAndGet();
+		logger.debug("Log entry for event {} ({}): {}", event, level, payload);
+	}
+
+	public long getEntryCount() {
+		return entryCount.get();
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import de.thm.arsnova.model.Motd;
+import de.thm.arsnova.persistence.MotdRepository;
+
+public class InMemoryMotdRepository extends InMemoryCrudRepository<Motd> implements MotdRepository {
+	private final Index<Motd.Audience> globalAudienceIndex = createIndex(motd ->
+			motd.getAudience() != Motd.Audience.ROOM ? motd.getAudience() : null);
+	private final Index<String> roomIdIndex = createIndex(motd ->
+			motd.getAudience() == Motd.Audience.ROOM ? motd.getRoomId() : null);
+
+	public InMemoryMotdRepository(final ObjectMapper objectMapper) {
+		super(Motd.class, objectMapper);
+	}
+
+	@Override
+	public List<Motd> findGlobalForAdmin() {
+		return copyAll(globalAudienceIndex.keys().stream()
+				.sorted(Comparator.comparing(Motd.Audience::toString))
+				.flatMap(globalAudienceIndex::find));
+	}
+
+	@Override
+	public List<Motd> findGlobalForAll() {
+		return find(Motd.Audience.ALL);
+	}
+
+	@Override
+	public List<Motd> findGlobalForLoggedIn() {
+		return find(Motd.Audience.AUTHENTICATED);
+	}
+
+	@Override
+	public List<Motd> findGlobalForTutors() {
+		final List<Motd> union = new ArrayList<>();
+		union.addAll(find(Motd.Audience.AUTHENTICATED));
+		union.addAll(find(Motd.Audience.AUTHORS));
+
+		return union;
+	}
+
+	@Override
+	public List<Motd> findForStudents() {
+		final List<Motd> union = new ArrayList<>();
+		union.addAll(find(Motd.Audience.AUTHENTICATED));
+		union.addAll(find(Motd.Audience.PARTICIPANTS));
+
+		return union;
+	}
+
+	@Override
+	public List<Motd> findByRoomId(final String roomId) {
+		return copyAll(roomIdIndex.find(roomId));
+	}
+
+	private List<Motd> find(final Motd.Audience audience) {
+		return copyAll(globalAudienceIndex.find(audience));
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.thm.arsnova.connector.model.Course;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.model.RoomStatistics;
+import de.thm.arsnova.model.migration.v2.ClientAuthentication;
+import de.thm.arsnova.model.transport.ImportExportContainer;
+import de.thm.arsnova.persistence.AnswerRepository;
+import de.thm.arsnova.persistence.CommentRepository;
+import de.thm.arsnova.persistence.ContentRepository;
+import de.thm.arsnova.persistence.RoomRepository;
+
+public class InMemoryRoomRepository extends InMemoryCrudRepository<Room> implements RoomRepository {
+	private static final Comparator<Room> NAME_ORDER =
+			Comparator.comparing(Room::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	private final Index<String> shortIdIndex = createIndex(Room::getShortId);
+	private final Index<List<Object>> poolOwnerIdIndex =
+			createIndex(room -> Arrays.asList(room.getPoolProperties() != null, room.getOwnerId()));
+	private final Index<String> moderatorIdIndex = createMultiIndex(room -> room.getModerators() != null
+			? room.getModerators().stream().map(Room.Moderator::getUserId).collect(Collectors.toSet())
+			: Collections.emptySet());
+	private final Index<Boolean> poolIndex =
+			createIndex(room -> room.getPoolProperties() != null ? Boolean.TRUE : null);
+
+	private final ContentRepository contentRepository;
+	private final AnswerRepository answerRepository;
+	private final CommentRepository commentRepository;
+
+	public InMemoryRoomRepository(
+			final ObjectMapper objectMapper,
+			final ContentRepository contentRepository,
+			final AnswerRepository answerRepository,
+			final CommentRepository commentRepository) {
+		super(Room.class, objectMapper);
+		this.contentRepository = contentRepository;
+		this.answerRepository = answerRepository;
+		this.commentRepository = commentRepository;
+	}
+
+	@Override
+	public Room findByShortId(final String shortId) {
+		if (shortId == null) {
+			return null;
+		}
+
+		return shortIdIndex.find(shortId).findFirst().map(this::copy).orElse(null);
+	}
+
+	@Override
+	public Map<String, String> findAllIdsByShortId() {
+		final Map<String, String> ids = new HashMap<>();
+		for (final String shortId : shortIdIndex.keys()) {
+			shortIdIndex.find(shortId).findFirst().ifPresent(room -> ids.put(shortId, room.getId()));
+		}
+
+		return ids;
+	}
+
+	@Override
+	public List<Room> findRoomsByCourses(final List<Course> courses) {
+		/* Course IDs are not part of current room documents. */
+		return new ArrayList<>();
+	}
+
+	@Override
+	public List<Room> findInactiveGuestRoomsMetadata(final long lastActivityBefore) {
+		/* The CouchDB view relies on the legacy creator property which is not part of current room documents. */
+		return new ArrayList<>();
+	}
+
+	@Override
+	public Room importRoom(final String userId, final ImportExportContainer importRoom) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public ImportExportContainer exportRoom(
+			final String id,
+			final Boolean withAnswers,
+			final Boolean withFeedbackQuestions) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<Room> findByOwner(final ClientAuthentication owner, final int start, final int limit) {
+		return findByOwnerId(owner.getId(), start, limit);
+	}
+
+	@Override
+	public List<Room> findByOwnerId(final String ownerId, final int start, final int limit) {
+		return copyAll(paginate(poolOwnerIdIndex.find(Arrays.asList(false, ownerId)).sorted(NAME_ORDER), start, limit));
+	}
+
+	@Override
+	public List<String> findIdsByOwnerId(final String ownerId) {
+		return Stream.concat(
+				poolOwnerIdIndex.find(Arrays.asList(false, ownerId)),
+				poolOwnerIdIndex.find(Arrays.asList(true, ownerId)))
+				.map(Room::getId)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<String> findIdsByModeratorId(final String moderatorId) {
+		return moderatorIdIndex.find(moderatorId).map(Room::getId).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Room> findAllForPublicPool() {
+		return copyAll(poolIndex.find(Boolean.TRUE).sorted(Comparator
+				.comparing((Room room) -> room.getPoolProperties().getCategory(),
+						Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(NAME_ORDER)));
+	}
+
+	@Override
+	public List<Room> findInfosForPublicPool() {
+		return attachStatsForRooms(findAllForPublicPool());
+	}
+
+	@Override
+	public List<Room> findForPublicPoolByOwnerId(final String ownerId) {
+		return copyAll(poolOwnerIdIndex.find(Arrays.asList(true, ownerId)).sorted(NAME_ORDER));
+	}
+
+	@Override
+	public List<Room> findInfosForPublicPoolByOwnerId(final String ownerId) {
+		return attachStatsForRooms(findForPublicPoolByOwnerId(ownerId));
+	}
+
+	@Override
+	public List<Room> getRoomsWithStatsForOwnerId(final String ownerId, final int start, final int limit) {
+		return attachStatsForRooms(findByOwnerId(ownerId, start, limit));
+	}
+
+	@Override
+	public List<Room> getRoomHistoryWithStatsForUser(final List<Room> rooms, final String ownerId) {
+		for (final Room room : rooms) {
+			final RoomStatistics stats = new RoomStatistics();
+			stats.setUnansweredContentCount(
+					contentRepository.findUnansweredIdsByRoomIdAndUser(room.getId(), ownerId).size());
+			room.setStatistics(stats);
+		}
+
+		return rooms;
+	}
+
+	private List<Room> attachStatsForRooms(final List<Room> rooms) {
+		for (final Room room : rooms) {
+			final RoomStatistics stats = new RoomStatistics();
+			stats.setContentCount(contentRepository.countByRoomId(room.getId()));
+			stats.setAnswerCount(answerRepository.countByRoomId(room.getId()));
+			stats.setCommentCount(commentRepository.countByRoomId(room.getId()));
+			stats.setUnreadCommentCount(commentRepository.countReadingByRoomId(room.getId()).getUnread());
+			room.setStatistics(stats);
+		}
+
+		return rooms;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import java.util.Objects;
+import java.util.Set;
+
+import de.thm.arsnova.model.Answer;
+import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.model.Statistics;
+import de.thm.arsnova.persistence.StatisticsRepository;
+
+/**
+ * Calculates the statistics on demand from the entities of the other in-memory repositories.
+ */
+public class InMemoryStatisticsRepository implements StatisticsRepository {
+	private final InMemoryRoomRepository roomRepository;
+	private final InMemoryContentGroupRepository contentGroupRepository;
+	private final InMemoryAnswerRepository answerRepository;
+	private final InMemoryCommentRepository commentRepository;
+
+	public InMemoryStatisticsRepository(
+			final InMemoryRoomRepository roomRepository,
+			final InMemoryContentGroupRepository contentGroupRepository,
+			final InMemoryAnswerRepository answerRepository,
+			final InMemoryCommentRepository commentRepository) {
+		this.roomRepository = roomRepository;
+		this.contentGroupRepository = contentGroupRepository;
+		this.answerRepository = answerRepository;
+		this.commentRepository = commentRepository;
+	}
+
+	@Override
+	public Statistics getStatistics() {
+		final Statistics stats = new Statistics();
+		final int closedRooms = (int) roomRepository.streamAll().filter(Room::isClosed).count();
+		stats.setOpenSessions((int) roomRepository.count() - closedRooms);
+		stats.setClosedSessions(closedRooms);
+		stats.setCreators((int) roomRepository.streamAll().map(Room::getOwnerId).distinct().count());
+		stats.setLectureQuestions(countGroupContents("lecture"));
+		stats.setPreparationQuestions(countGroupContents("preparation"));
+		stats.setFlashcards(countGroupContents("flashcard"));
+		stats.setAnswers((int) answerRepository.count());
+		stats.setActiveStudents((int) answerRepository.streamAll().map(Answer::getCreatorId).distinct().count());
+		stats.setInterposedQuestions((int) commentRepository.count());
+
+		return stats;
+	}
+
+	private int countGroupContents(final String name) {
+		return contentGroupRepository.streamAll()
+				.filter(contentGroup -> name.equals(contentGroup.getName()))
+				.map(ContentGroup::getContentIds)
+				.filter(Objects::nonNull)
+				.mapToInt(Set::size)
+				.sum();
+	}
+}
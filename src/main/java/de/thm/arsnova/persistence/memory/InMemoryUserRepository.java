@@ -0,0 +1,93 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.ektorp.DocumentNotFoundException;
+import org.ektorp.UpdateConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.thm.arsnova.model.UserProfile;
+import de.thm.arsnova.persistence.UserRepository;
+
+public class InMemoryUserRepository extends InMemoryCrudRepository<UserProfile> implements UserRepository {
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryUserRepository.class);
+
+	private final Index<List<Object>> authProviderLoginIdIndex =
+			createIndex(user -> Arrays.asList(user.getAuthProvider(), user.getLoginId()));
+	private final Index<String> loginIdIndex = createIndex(UserProfile::getLoginId);
+
+	public InMemoryUserRepository(final ObjectMapper objectMapper) {
+		super(UserProfile.class, objectMapper);
+	}
+
+	@Override
+	public UserProfile findByAuthProviderAndLoginId(final UserProfile.AuthProvider authProvider, final String loginId) {
+		return authProviderLoginIdIndex.find(Arrays.asList(authProvider, loginId))
+				.findFirst().map(this::copy).orElse(null);
+	}
+
+	@Override
+	public List<UserProfile> findByLoginId(final String loginId) {
+		return copyAll(loginIdIndex.find(loginId));
+	}
+
+	@Override
+	public List<String> findRoomIdsFromRoomHistory(final String userId, final int start, final int limit) {
+		return streamAllById(Collections.singletonList(userId))
+				.filter(user -> user.getRoomHistory() != null)
+				.flatMap(user -> paginate(user.getRoomHistory().stream()
+						.sorted(Comparator.comparing(UserProfile.RoomHistoryEntry::getLastVisit,
+								Comparator.nullsFirst(Comparator.naturalOrder())).reversed()),
+						start, limit))
+				.map(UserProfile.RoomHistoryEntry::getRoomId)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public int deleteInactiveUsers(final long lastActivityBefore) {
+		final List<UserProfile> inactiveUsers = copyAll(streamAll().filter(user ->
+				user.getAuthProvider() == UserProfile.AuthProvider.ARSNOVA
+				&& user.getAccount() != null
+				&& user.getAccount().getActivationKey() != null
+				&& user.getCreationTimestamp() != null
+				&& user.getCreationTimestamp().getTime() <= lastActivityBefore));
+		int count = 0;
+		for (final UserProfile user : inactiveUsers) {
+			try {
+				delete(user);
+				count++;
+			} catch (final DocumentNotFoundException | UpdateConflictException e) {
+				logger.debug("User {} has been modified or deleted concurrently.", user.getId());
+			}
+		}
+
+		if (count > 0) {
+			logger.info("Deleted {} inactive users.", count);
+		}
+
+		return count;
+	}
+}
@@ -19,7 +19,13 @@
 package de.thm.arsnova.security;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +40,7 @@ import de.thm.arsnova.model.Answer;
 import de.thm.arsnova.model.Comment;
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.model.Entity;
 import de.thm.arsnova.model.Motd;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.UserProfile;
@@ -90,24 +97,45 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 			return false;
 		}
 
+		return isSystemAccess(authentication)
+				|| hasPermission(authentication, getUserId(authentication), targetDomainObject, permission.toString(),
+						new References());
+	}
+
+	/**
+	 * Filters entities by permission. In contrast to checking each entity separately, rooms and contents which are
+	 * referenced by the entities are retrieved with a single request per type and shared between the checks.
+	 *
+	 * @param authentication The authentication to check the permission for
+	 * @param entities The entities to filter
+	 * @param permission The permission to check
+	 * @param <E> The entity type
+	 * @return The entities for which the permission is granted
+	 */
+	public <E extends Entity> List<E> filterByPermission(
+			final Authentication authentication,
+			final Iterable<E> entities,
+			final String permission) {
+		final List<E> permittedEntities = new ArrayList<>();
+		if (authentication == null || permission == null) {
+			return permittedEntities;
+		}
+
 		final String userId = getUserId(authentication);
+		if (isSystemAccess(authentication) || hasAdminRole(userId)) {
+			entities.forEach(permittedEntities::add);
 
-		return isSystemAccess(authentication) || hasAdminRole(userId)
-				|| (targetDomainObject instanceof UserProfile
-						&& (isAccountManagementAccess(authentication)
-						|| hasUserProfilePermission(userId, ((UserProfile) targetDomainObject), permission.toString())))
-				|| (targetDomainObject instanceof Room
-						&& hasRoomPermission(userId, ((Room) targetDomainObject), permission.toString()))
-				|| (targetDomainObject instanceof Content
-						&& hasContentPermission(userId, ((Content) targetDomainObject), permission.toString()))
-				|| (targetDomainObject instanceof ContentGroup
-				&& hasContentGroupPermission(userId, ((ContentGroup) targetDomainObject), permission.toString()))
-				|| (targetDomainObject instanceof Answer
-						&& hasAnswerPermission(userId, ((Answer) targetDomainObject), permission.toString()))
-				|| (targetDomainObject instanceof Comment
-						&& hasCommentPermission(userId, ((Comment) targetDomainObject), permission.toString()))
-				|| (targetDomainObject instanceof Motd
-					&& hasMotdPermission(userId, ((Motd) targetDomainObject), permission.toString()));
+			return permittedEntities;
+		}
+		final References references = new References();
+		references.prefetch(entities);
+		for (final E entity : entities) {
+			if (hasPermission(authentication, userId, entity, permission, references)) {
+				permittedEntities.add(entity);
+			}
+		}
+
+		return permittedEntities;
 	}
 
 	@Override
@@ -127,6 +155,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 			return true;
 		}
 
+		final References references = new References();
 		switch (targetType) {
 			case "userprofile":
 				final UserProfile targetUserProfile = new UserProfile();
@@ -138,25 +167,54 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				return targetRoom != null && hasRoomPermission(userId, targetRoom, permission.toString());
 			case "content":
 				final Content targetContent = contentRepository.findOne(targetId.toString());
-				return targetContent != null && hasContentPermission(userId, targetContent, permission.toString());
+				return targetContent != null
+						&& hasContentPermission(userId, targetContent, permission.toString(), references);
 			case "contentgroup":
 				final ContentGroup targetContentGroup = contentGroupRepository.findOne(targetId.toString());
 				return targetContentGroup != null
-						&& hasContentGroupPermission(userId, targetContentGroup, permission.toString());
+						&& hasContentGroupPermission(
+								userId, targetContentGroup, permission.toString(), references);
 			case "answer":
 				final Answer targetAnswer = answerRepository.findOne(targetId.toString());
-				return targetAnswer != null && hasAnswerPermission(userId, targetAnswer, permission.toString());
+				return targetAnswer != null
+						&& hasAnswerPermission(userId, targetAnswer, permission.toString(), references);
 			case "comment":
 				final Comment targetComment = commentRepository.findOne(targetId.toString());
-				return targetComment != null && hasCommentPermission(userId, targetComment, permission.toString());
+				return targetComment != null
+						&& hasCommentPermission(userId, targetComment, permission.toString(), references);
 			case "motd":
 				final Motd targetMotd = motdRepository.findOne(targetId.toString());
-				return targetMotd != null && hasMotdPermission(userId, targetMotd, permission.toString());
+				return targetMotd != null && hasMotdPermission(userId, targetMotd, permission.toString(), references);
 			default:
 				return false;
 		}
 	}
 
+	private boolean hasPermission(
+			final Authentication authentication,
+			final String userId,
+			final Object targetDomainObject,
+			final String permission,
+			final References references) {
+		return hasAdminRole(userId)
+				|| (targetDomainObject instanceof UserProfile
+						&& (isAccountManagementAccess(authentication)
+						|| hasUserProfilePermission(userId, ((UserProfile) targetDomainObject), permission)))
+				|| (targetDomainObject instanceof Room
+						&& hasRoomPermission(userId, ((Room) targetDomainObject), permission))
+				|| (targetDomainObject instanceof Content
+						&& hasContentPermission(userId, ((Content) targetDomainObject), permission, references))
+				|| (targetDomainObject instanceof ContentGroup
+						&& hasContentGroupPermission(
+								userId, ((ContentGroup) targetDomainObject), permission, references))
+				|| (targetDomainObject instanceof Answer
+						&& hasAnswerPermission(userId, ((Answer) targetDomainObject), permission, references))
+				|| (targetDomainObject instanceof Comment
+						&& hasCommentPermission(userId, ((Comment) targetDomainObject), permission, references))
+				|| (targetDomainObject instanceof Motd
+						&& hasMotdPermission(userId, ((Motd) targetDomainObject), permission, references));
+	}
+
 	private boolean hasUserProfilePermission(
 			final String userId,
 			final UserProfile targetUserProfile,
@@ -201,8 +259,9 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 	private boolean hasContentPermission(
 			final String userId,
 			final Content targetContent,
-			final String permission) {
-		final Room room = roomRepository.findOne(targetContent.getRoomId());
+			final String permission,
+			final References references) {
+		final Room room = references.getRoom(targetContent.getRoomId());
 		if (room == null) {
 			return false;
 		}
@@ -225,8 +284,9 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 	private boolean hasContentGroupPermission(
 			final String userId,
 			final ContentGroup targetContentGroup,
-			final String permission) {
-		final Room room = roomRepository.findOne(targetContentGroup.getRoomId());
+			final String permission,
+			final References references) {
+		final Room room = references.getRoom(targetContentGroup.getRoomId());
 		if (room == null) {
 			return false;
 		}
@@ -247,9 +307,10 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 	private boolean hasAnswerPermission(
 			final String userId,
 			final Answer targetAnswer,
-			final String permission) {
-		final Content content = contentRepository.findOne(targetAnswer.getContentId());
-		if (!hasContentPermission(userId, content, "read")) {
+			final String permission,
+			final References references) {
+		final Content content = references.getContent(targetAnswer.getContentId());
+		if (content == null || !hasContentPermission(userId, content, READ_PERMISSION, references)) {
 			return false;
 		}
 		final Room room;
@@ -258,7 +319,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				if (targetAnswer.getCreatorId().equals(userId) || content.getState().isResponsesVisible()) {
 					return true;
 				}
-				room = roomRepository.findOne(targetAnswer.getRoomId());
+				room = references.getRoom(targetAnswer.getRoomId());
 				return room != null && hasUserIdRoomModeratingPermission(room, userId);
 			case CREATE_PERMISSION:
 				return content.getState().isResponsesEnabled();
@@ -268,7 +329,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				/* TODO */
 				return false;
 			case DELETE_PERMISSION:
-				room = roomRepository.findOne(targetAnswer.getRoomId());
+				room = references.getRoom(targetAnswer.getRoomId());
 				return room != null && hasUserIdRoomModeratingPermission(room, userId);
 			default:
 				return false;
@@ -278,10 +339,11 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 	private boolean hasCommentPermission(
 			final String userId,
 			final Comment targetComment,
-			final String permission) {
+			final String permission,
+			final References references) {
 		switch (permission) {
 			case CREATE_PERMISSION:
-				return !userId.isEmpty() && !roomRepository.findOne(targetComment.getRoomId()).isClosed();
+				return !userId.isEmpty() && !references.getRoom(targetComment.getRoomId()).isClosed();
 			case OWNER_PERMISSION:
 			case UPDATE_PERMISSION:
 				return targetComment.getCreatorId() != null && targetComment.getCreatorId().equals(userId);
@@ -292,7 +354,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				}
 
 				/* Allow reading & deletion by session owner */
-				final Room room = roomRepository.findOne(targetComment.getRoomId());
+				final Room room = references.getRoom(targetComment.getRoomId());
 
 				return room != null && hasUserIdRoomModeratingPermission(room, userId);
 			default:
@@ -303,7 +365,8 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 	private boolean hasMotdPermission(
 			final String userId,
 			final Motd targetMotd,
-			final String permission) {
+			final String permission,
+			final References references) {
 		final Room room;
 		switch (permission) {
 			case CREATE_PERMISSION:
@@ -312,7 +375,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				if (userId.isEmpty() || targetMotd.getRoomId() == null || targetMotd.getAudience() != Motd.Audience.ROOM) {
 					return false;
 				}
-				room = roomRepository.findOne(targetMotd.getRoomId());
+				room = references.getRoom(targetMotd.getRoomId());
 				if (room == null) {
 					return false;
 				}
@@ -323,7 +386,7 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				if (targetMotd.getAudience() != Motd.Audience.ROOM) {
 					return true;
 				}
-				room = roomRepository.findOne(targetMotd.getRoomId());
+				room = references.getRoom(targetMotd.getRoomId());
 
 				return room != null && (!room.isClosed() || hasUserIdRoomModeratingPermission(room, userId));
 			default:
@@ -378,4 +441,83 @@ public class ApplicationPermissionEvaluator implements PermissionEvaluator {
 				&& auth.getAuthorities().stream()
 					.anyMatch(ga -> ga.getAuthority().equals("ROLE_RUN_AS_ACCOUNT_MANAGEMENT"));
 	}
+
+	/**
+	 * Keeps rooms and contents which are referenced by entities during permission checks, so they are only retrieved
+	 * once. Missing references are remembered as <code>null</code>.
+	 */
+	private class References {
+		private final Map<String, Room> rooms = new HashMap<>();
+		private final Map<String, Content> contents = new HashMap<>();
+
+		private Room getRoom(final String id) {
+			return get(rooms, id, roomRepository::findOne);
+		}
+
+		private Content getContent(final String id) {
+			return get(contents, id, contentRepository::findOne);
+		}
+
+		/**
+		 * Retrieves the contents and rooms referenced by the entities with a single request per type.
+		 */
+		private void prefetch(final Iterable<? extends Entity> entities) {
+			final Set<String> contentIds = new HashSet<>();
+			for (final Entity entity : entities) {
+				if (entity instanceof Answer) {
+					contentIds.add(((Answer) entity).getContentId());
+				}
+			}
+			prefetch(contents, contentIds, contentRepository::findAllById);
+
+			final Set<String> roomIds = new HashSet<>();
+			for (final Entity entity : entities) {
+				if (entity instanceof Content) {
+					roomIds.add(((Content) entity).getRoomId());
+				} else if (entity instanceof ContentGroup) {
+					roomIds.add(((ContentGroup) entity).getRoomId());
+				} else if (entity instanceof Answer) {
+					roomIds.add(((Answer) entity).getRoomId());
+				} else if (entity instanceof Comment) {
+					roomIds.add(((Comment) entity).getRoomId());
+				} else if (entity instanceof Motd) {
+					roomIds.add(((Motd) entity).getRoomId());
+				}
+			}
+			for (final Content content : contents.values()) {
+				if (content != null) {
+					roomIds.add(content.getRoomId());
+				}
+			}
+			prefetch(rooms, roomIds, roomRepository::findAllById);
+		}
+
+		private <E extends Entity> E get(final Map<String, E> map, final String id, final Function<String, E> loader) {
+			if (id == null) {
+				return null;
+			}
+			if (!map.containsKey(id)) {
+				map.put(id, loader.apply(id));
+			}
+
+			return map.get(id);
+		}
+
+		private <E extends Entity> void prefetch(
+				final Map<String, E> map,
+				final Set<String> ids,
+				final Function<Set<String>, Iterable<E>> loader) {
+			ids.remove(null);
+			ids.removeAll(map.keySet());
+			if (ids.isEmpty()) {
+				return;
+			}
+			for (final String id : ids) {
+				map.put(id, null);
+			}
+			for (final E entity : loader.apply(ids)) {
+				map.put(entity.getId(), entity);
+			}
+		}
+	}
 }
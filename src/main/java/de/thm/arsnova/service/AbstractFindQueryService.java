@@ -0,0 +1,234 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.thm.arsnova.model.Entity;
+import de.thm.arsnova.model.FindQuery;
+import de.thm.arsnova.persistence.CrudRepository;
+import de.thm.arsnova.persistence.PropertyQueryRepository;
+
+/**
+ * Base class for {@link FindQueryService}s which plan the resolution of a {@link FindQuery} from registered filters.
+ *
+ * <p>
+ * Property filters for which the repository provides an index are pushed down to the database and resolved with a
+ * single request. All other filters are resolved separately by services which are backed by views and caches. The
+ * resulting sets of IDs are intersected (<code>AND</code>) or merged (<code>OR</code>) depending on the query's
+ * operator. Queries without an operator use the default of the service, which is <code>AND</code> unless a subclass
+ * passes another one. The latency of each filter resolution is recorded as <code>arsnova.find.query</code> timer.
+ * </p>
+ *
+ * @param <E> Entity type
+ */
+public abstract class AbstractFindQueryService<E extends Entity> implements FindQueryService<E> {
+	private static final String METRIC_NAME = "arsnova.find.query";
+	private static final String DATABASE_STRATEGY = "database";
+	private static final String SERVICE_STRATEGY = "service";
+
+	private final String entityName;
+	private final FindQuery.LogicalOperator defaultOperator;
+	private final PropertyQueryRepository propertyQueryRepository;
+	private final Map<String, PropertyFilter> propertyFilters = new LinkedHashMap<>();
+	private final Map<String, Function<String, Collection<String>>> externalFilters = new LinkedHashMap<>();
+	private MeterRegistry meterRegistry;
+
+	protected AbstractFindQueryService(final Class<E> type, final CrudRepository<E, String> repository) {
+		this(type, repository, FindQuery.LogicalOperator.AND);
+	}
+
+	protected AbstractFindQueryService(final Class<E> type, final CrudRepository<E, String> repository,
+			final FindQuery.LogicalOperator defaultOperator) {
+		this.entityName = type.getSimpleName().toLowerCase();
+		this.defaultOperator = defaultOperator;
+		this.propertyQueryRepository = repository instanceof PropertyQueryRepository
+				? (PropertyQueryRepository) repository : null;
+	}
+
+	@Autowired(required = false)
+	public void setMeterRegistry(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Registers a filter for an entity property.
+	 *
+	 * @param name The property's name
+	 * @param getter Retrieves the filter value from the query's properties
+	 * @param selector Creates the property values which are used to look up the IDs in the database. It can return
+	 *     <code>null</code> if the filter value cannot be looked up directly and is responsible for authorization
+	 *     checks the resolver would perform.
+	 * @param resolver Resolves the filter value to IDs if it is not looked up in the database
+	 */
+	protected void addPropertyFilter(
+			final String name,
+			final Function<E, String> getter,
+			final Function<String, Map<String, Object>> selector,
+			final Function<String, Collection<String>> resolver) {
+		propertyFilters.put(name, new PropertyFilter(getter, selector, resolver));
+	}
+
+	/**
+	 * Registers a filter which is passed as external filter of the query.
+	 *
+	 * @param name The filter's name
+	 * @param resolver Resolves the filter value to IDs
+	 */
+	protected void addExternalFilter(final String name, final Function<String, Collection<String>> resolver) {
+		externalFilters.put(name, resolver);
+	}
+
+	@Override
+	public Set<String> resolveQuery(final FindQuery<E> findQuery) {
+		final FindQuery.LogicalOperator operator =
+				findQuery.getOperator() != null ? findQuery.getOperator() : defaultOperator;
+		final boolean conjunction = operator != FindQuery.LogicalOperator.OR;
+		final List<Set<String>> idSets = new ArrayList<>();
+		final Map<String, Object> pushedDownProperties = new HashMap<>();
+		final List<String> pushedDownFilters = new ArrayList<>();
+
+		if (findQuery.getProperties() != null) {
+			for (final Map.Entry<String, PropertyFilter> entry : propertyFilters.entrySet()) {
+				final String name = entry.getKey();
+				final PropertyFilter filter = entry.getValue();
+				final String value = filter.getter.apply(findQuery.getProperties());
+				if (value == null) {
+					continue;
+				}
+				final Map<String, Object> properties = isIndexed(name) ? filter.selector.apply(value) : null;
+				if (properties == null) {
+					idSets.add(measure(name, SERVICE_STRATEGY, () -> filter.resolver.apply(value)));
+				} else if (conjunction) {
+					pushedDownProperties.putAll(properties);
+					pushedDownFilters.add(name);
+				} else {
+					idSets.add(measure(name, DATABASE_STRATEGY,
+							() -> propertyQueryRepository.findIdsByProperties(properties)));
+				}
+			}
+		}
+		if (!pushedDownProperties.isEmpty()) {
+			idSets.add(measure(String.join("+", pushedDownFilters), DATABASE_STRATEGY,
+					() -> propertyQueryRepository.findIdsByProperties(pushedDownProperties)));
+		}
+
+		if (findQuery.getExternalFilters() != null) {
+			for (final Map.Entry<String, Object> entry : findQuery.getExternalFilters().entrySet()) {
+				final Function<String, Collection<String>> resolver = externalFilters.get(entry.getKey());
+				if (resolver != null && entry.getValue() instanceof String) {
+					final String value = (String) entry.getValue();
+					idSets.add(measure(entry.getKey(), SERVICE_STRATEGY, () -> resolver.apply(value)));
+				}
+			}
+		}
+
+		return conjunction ? intersect(idSets) : merge(idSets);
+	}
+
+	/**
+	 * Resolves a single registered property filter to IDs. Like for queries, the filter is looked up in the database
+	 * if the property is indexed. This allows external filters to be based on property filters without loading
+	 * entities.
+	 *
+	 * @param name The property's name
+	 * @param value The filter value
+	 * @return The IDs of matching entities
+	 */
+	protected Set<String> resolvePropertyFilter(final String name, final String value) {
+		final PropertyFilter filter = propertyFilters.get(name);
+		final Map<String, Object> properties = isIndexed(name) ? filter.selector.apply(value) : null;
+		if (properties == null) {
+			return measure(name, SERVICE_STRATEGY, () -> filter.resolver.apply(value));
+		}
+
+		return measure(name, DATABASE_STRATEGY, () -> propertyQueryRepository.findIdsByProperties(properties));
+	}
+
+	private boolean isIndexed(final String property) {
+		return propertyQueryRepository != null && propertyQueryRepository.getIndexedProperties().contains(property);
+	}
+
+	private Set<String> measure(
+			final String filter, final String strategy, final Supplier<Collection<String>> resolver) {
+		final long start = System.nanoTime();
+		try {
+			return new HashSet<>(resolver.get());
+		} finally {
+			if (meterRegistry != null) {
+				Timer.builder(METRIC_NAME)
+						.description("Latency of resolving a filter of find queries")
+						.tag("entity", entityName)
+						.tag("filter", filter)
+						.tag("strategy", strategy)
+						.register(meterRegistry)
+						.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	private static Set<String> intersect(final List<Set<String>> idSets) {
+		if (idSets.isEmpty()) {
+			return new HashSet<>();
+		}
+		idSets.sort(Comparator.comparingInt(Set::size));
+		final Set<String> ids = idSets.get(0);
+		for (int i = 1; i < idSets.size() && !ids.isEmpty(); i++) {
+			ids.retainAll(idSets.get(i));
+		}
+
+		return ids;
+	}
+
+	private static Set<String> merge(final List<Set<String>> idSets) {
+		final Set<String> ids = new HashSet<>();
+		idSets.forEach(ids::addAll);
+
+		return ids;
+	}
+
+	private class PropertyFilter {
+		private final Function<E, String> getter;
+		private final Function<String, Map<String, Object>> selector;
+		private final Function<String, Collection<String>> resolver;
+
+		private PropertyFilter(
+				final Function<E, String> getter,
+				final Function<String, Map<String, Object>> selector,
+				final Function<String, Collection<String>> resolver) {
+			this.getter = getter;
+			this.selector = selector;
+			this.resolver = resolver;
+		}
+	}
+}
@@ -20,11 +20,15 @@ package de.thm.arsnova.service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import org.ektorp.DbAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,13 +109,9 @@ public class AnswerServiceImpl extends DefaultEntityServiceImpl<Answer> implemen
 			answers.add(entry);
 		}
 		try {
-			for (final Answer e : answers) {
-				this.eventPublisher.publishEvent(new BeforeCreationEvent<>(this, e));
-			}
-			answerRepository.saveAll(answers);
-			for (final Answer e : answers) {
-				this.eventPublisher.publishEvent(new AfterCreationEvent<>(this, e));
-			}
+			publishBatch(answers, e -> new BeforeCreationEvent<>(this, e), e -> { });
+			final List<Answer> savedAnswers = filterWritten(answers, answerRepository.bulkSave(answers));
+			publishBatch(savedAnswers, e -> new AfterCreationEvent<>(this, e), e -> { });
 		} catch (final DbAccessException e) {
 			logger.error("Could not bulk save answers from queue.", e);
 		}
@@ -410,6 +410,38 @@ public class AnswerServiceImpl extends DefaultEntityServiceImpl<Answer> implemen
 		}
 	}
 
+	/**
+	 * Prepares answers for bulk creation. The contents are loaded with a single request for the whole batch. Unlike
+	 * {@link #prepareCreate(Answer)}, existing answers are not looked up in the database. Only duplicates within the
+	 * batch are rejected, so this should only be used for answers of newly created users, e.g. for imports.
+	 *
+	 * @param answers The answers to be created
+	 */
+	@Override
+	protected void prepareCreateAll(final Iterable<Answer> answers) {
+		final User user = userService.getCurrentUser();
+		final Set<String> contentIds = StreamSupport.stream(answers.spliterator(), false)
+				.map(Answer::getContentId).collect(Collectors.toSet());
+		final Map<String, Content> contents = StreamSupport.stream(
+				contentService.get(contentIds).spliterator(), false)
+				.collect(Collectors.toMap(Content::getId, Function.identity()));
+		final Set<String> answerKeys = new HashSet<>();
+		for (final Answer answer : answers) {
+			final Content content = contents.get(answer.getContentId());
+			if (content == null) {
+				throw new NotFoundException();
+			}
+			if (answer.getCreatorId() == null) {
+				answer.setCreatorId(user.getId());
+			}
+			answer.setRoomId(content.getRoomId());
+			answer.setRound(content.getFormat() == Content.Format.TEXT ? 0 : content.getState().getRound());
+			if (!answerKeys.add(content.getId() + "-" + answer.getCreatorId() + "-" + answer.getRound())) {
+				throw new ForbiddenException();
+			}
+		}
+	}
+
 	@Override
 	protected void prepareUpdate(final Answer answer) {
 		final User user = userService.getCurrentUser();
@@ -465,8 +497,7 @@ public class AnswerServiceImpl extends DefaultEntityServiceImpl<Answer> implemen
 	 */
 	@Override
 	public int countLectureQuestionAnswersInternal(final String roomId) {
-		final Set<String> contentIds =
-				contentGroupService.getByRoomIdAndName(roomId, "lecture").getContentIds();
+		final Set<String> contentIds = contentGroupService.getContentIdsByRoomIdAndName(roomId, "lecture");
 		return answerRepository.countByContentIds(contentIds);
 	}
 
@@ -476,8 +507,7 @@ public class AnswerServiceImpl extends DefaultEntityServiceImpl<Answer> implemen
 	 */
 	@Override
 	public int countPreparationQuestionAnswersInternal(final String roomId) {
-		final Set<String> contentIds =
-				contentGroupService.getByRoomIdAndName(roomId, "preparation").getContentIds();
+		final Set<String> contentIds = contentGroupService.getContentIdsByRoomIdAndName(roomId, "preparation");
 		return answerRepository.countByContentIds(contentIds);
 	}
 
@@ -0,0 +1,137 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.migration.v2.CommentReadingCount;
+import de.thm.arsnova.persistence.CommentRepository;
+
+/**
+ * Keeps the numbers of read and unread comments per room and per room and creator. A count is loaded from the
+ * repository on first access and then kept up to date incrementally based on comment changes, so polling clients do
+ * not cause view queries. Changes which cannot be applied incrementally, e.g. deletions of comment stubs, drop all
+ * counts of the room.
+ */
+class CommentCounters {
+	private static final int EXPIRY_MINUTES = 60;
+
+	private final CommentRepository commentRepository;
+	private final Cache<String, RoomCounters> rooms = CacheBuilder.newBuilder()
+			.expireAfterAccess(EXPIRY_MINUTES, TimeUnit.MINUTES)
+			.build();
+
+	CommentCounters(final CommentRepository commentRepository) {
+		this.commentRepository = commentRepository;
+	}
+
+	CommentReadingCount countByRoomId(final String roomId) {
+		return getRoomCounters(roomId).get(null, () -> commentRepository.countReadingByRoomId(roomId));
+	}
+
+	CommentReadingCount countByRoomIdAndCreatorId(final String roomId, final String creatorId) {
+		return getRoomCounters(roomId).get(creatorId,
+				() -> commentRepository.countReadingByRoomIdAndUserId(roomId, creatorId));
+	}
+
+	void handleCreation(final Comment comment) {
+		update(comment, comment.isRead() ? 1 : 0, comment.isRead() ? 0 : 1);
+	}
+
+	void handleReadStateChange(final Comment comment) {
+		update(comment, comment.isRead() ? 1 : -1, comment.isRead() ? -1 : 1);
+	}
+
+	void invalidate(final String roomId) {
+		if (roomId != null) {
+			rooms.invalidate(roomId);
+		}
+	}
+
+	private void update(final Comment comment, final int readDelta, final int unreadDelta) {
+		final RoomCounters counters = comment.getRoomId() != null ? rooms.getIfPresent(comment.getRoomId()) : null;
+		if (counters != null) {
+			counters.update(comment.getCreatorId(), readDelta, unreadDelta);
+		}
+	}
+
+	private RoomCounters getRoomCounters(final String roomId) {
+		try {
+			return rooms.get(roomId, RoomCounters::new);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Counts of a single room. The counts for the whole room are stored with a <code>null</code> key. Counts are only
+	 * stored after loading if they have not been changed in the meantime since the change might not be reflected by
+	 * the loaded count.
+	 */
+	private static class RoomCounters {
+		private final Map<String, int[]> counts = new HashMap<>();
+		private long modificationCount;
+
+		private CommentReadingCount get(final String creatorId, final Supplier<CommentReadingCount> loader) {
+			final long expectedModificationCount;
+			synchronized (this) {
+				final int[] count = counts.get(creatorId);
+				if (count != null) {
+					return new CommentReadingCount(count[0], count[1]);
+				}
+				expectedModificationCount = modificationCount;
+			}
+			final CommentReadingCount loadedCount = loader.get();
+			synchronized (this) {
+				if (modificationCount == expectedModificationCount) {
+					counts.put(creatorId, new int[] {loadedCount.getRead(), loadedCount.getUnread()});
+				}
+			}
+
+			return loadedCount;
+		}
+
+		private synchronized void update(final String creatorId, final int readDelta, final int unreadDelta) {
+			modificationCount++;
+			update(null, counts.get(null), readDelta, unreadDelta);
+			if (creatorId != null) {
+				update(creatorId, counts.get(creatorId), readDelta, unreadDelta);
+			}
+		}
+
+		private void update(final String key, final int[] count, final int readDelta, final int unreadDelta) {
+			if (count == null) {
+				return;
+			}
+			count[0] += readDelta;
+			count[1] += unreadDelta;
+			if (count[0] < 0 || count[1] < 0) {
+				/* The count is inconsistent, so it is reloaded on next access. */
+				counts.remove(key);
+			}
+		}
+	}
+}
@@ -18,32 +18,52 @@
 
 package de.thm.arsnova.service;
 
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 import de.thm.arsnova.model.Comment;
-import de.thm.arsnova.model.FindQuery;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.CommentRepository;
+import de.thm.arsnova.security.User;
 
 @Service
-public class CommentFindQueryService implements FindQueryService<Comment> {
+public class CommentFindQueryService extends AbstractFindQueryService<Comment> {
 	private CommentService commentService;
+	private RoomService roomService;
 	private UserService userService;
 
-	public CommentFindQueryService(final CommentService commentService, final UserService userService) {
+	public CommentFindQueryService(final CommentService commentService, final RoomService roomService,
+			final UserService userService, final CommentRepository commentRepository) {
+		super(Comment.class, commentRepository);
 		this.commentService = commentService;
+		this.roomService = roomService;
 		this.userService = userService;
+		addPropertyFilter("roomId", Comment::getRoomId, this::selectByRoomId, this::getIdsByRoomId);
 	}
 
-	@Override
-	public Set<String> resolveQuery(final FindQuery<Comment> findQuery) {
-		final Set<String> ids = new HashSet<>();
-		if (findQuery.getProperties().getRoomId() != null) {
-			for (final Comment c : commentService.getByRoomId(findQuery.getProperties().getRoomId(), 0, 0)) {
-				ids.add(c.getId());
-			}
+	/**
+	 * Like {@link CommentService#getByRoomId(String, int, int)}, only the user's own comments are selected if the user
+	 * is not the room's owner.
+	 */
+	private Map<String, Object> selectByRoomId(final String roomId) {
+		final User user = userService.getCurrentUser();
+		if (user == null) {
+			return null;
 		}
+		final Room room = roomService.get(roomId);
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("roomId", room.getId());
+		if (!room.getOwnerId().equals(user.getId())) {
+			properties.put("creatorId", user.getId());
+		}
+
+		return properties;
+	}
 
-		return ids;
+	private Set<String> getIdsByRoomId(final String roomId) {
+		return commentService.getByRoomId(roomId, 0, 0).stream().map(Comment::getId).collect(Collectors.toSet());
 	}
 }
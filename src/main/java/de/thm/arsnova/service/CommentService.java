@@ -19,6 +19,7 @@
 package de.thm.arsnova.service;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 import de.thm.arsnova.model.Comment;
@@ -33,5 +34,7 @@ public interface CommentService extends EntityService<Comment> {
 
 	Comment getAndMarkRead(String commentId) throws IOException;
 
+	List<Comment> markRead(Collection<String> commentIds);
+
 	void deleteByRoomId(String roomId);
 }
@@ -18,11 +18,16 @@
 
 package de.thm.arsnova.service;
 
-import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -31,11 +36,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Validator;
 
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterPatchEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
 import de.thm.arsnova.event.BeforeDeletionEvent;
+import de.thm.arsnova.event.BeforePatchEvent;
 import de.thm.arsnova.model.Comment;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.migration.v2.CommentReadingCount;
 import de.thm.arsnova.persistence.CommentRepository;
+import de.thm.arsnova.security.ApplicationPermissionEvaluator;
 import de.thm.arsnova.security.User;
 import de.thm.arsnova.web.exceptions.ForbiddenException;
 import de.thm.arsnova.web.exceptions.NotFoundException;
@@ -52,6 +63,8 @@ public class CommentServiceImpl extends DefaultEntityServiceImpl<Comment> implem
 
 	private CommentRepository commentRepository;
 
+	private CommentCounters commentCounters;
+
 	public CommentServiceImpl(
 			final CommentRepository repository,
 			final RoomService roomService,
@@ -63,6 +76,7 @@ public class CommentServiceImpl extends DefaultEntityServiceImpl<Comment> implem
 		this.commentRepository = repository;
 		this.roomService = roomService;
 		this.userService = userService;
+		this.commentCounters = new CommentCounters(repository);
 	}
 
 	@Override
@@ -96,21 +110,21 @@ public class CommentServiceImpl extends DefaultEntityServiceImpl<Comment> implem
 	@Override
 	@PreAuthorize("isAuthenticated()")
 	public int count(final String roomId) {
-		return commentRepository.countByRoomId(roomId);
+		return commentCounters.countByRoomId(roomId).getTotal();
 	}
 
 	@Override
 	@PreAuthorize("isAuthenticated()")
 	public CommentReadingCount countRead(final String roomId, final String username) {
 		if (username == null) {
-			return commentRepository.countReadingByRoomId(roomId);
+			return commentCounters.countByRoomId(roomId);
 		} else {
 			final User user = userService.getCurrentUser();
 			if (!user.getUsername().equals(username)) {
 				throw new ForbiddenException();
 			}
 
-			return commentRepository.countReadingByRoomIdAndUserId(roomId, user.getId());
+			return commentCounters.countByRoomIdAndCreatorId(roomId, user.getId());
 		}
 	}
 
@@ -128,18 +142,59 @@ public class CommentServiceImpl extends DefaultEntityServiceImpl<Comment> implem
 
 	@Override
 	@PreAuthorize("hasPermission(#commentId, 'comment', 'update')")
-	public Comment getAndMarkRead(final String commentId) throws IOException {
+	public Comment getAndMarkRead(final String commentId) {
 		final Comment comment = get(commentId);
 		if (comment == null) {
 			throw new NotFoundException();
 		}
-		final Map<String, Object> changes = new HashMap<>();
-		changes.put("read", true);
-		patch(comment, changes);
+		markRead(Collections.singletonList(comment));
 
 		return comment;
 	}
 
+	@Override
+	@PreAuthorize("isAuthenticated()")
+	public List<Comment> markRead(final Collection<String> commentIds) {
+		return markRead(filterByPermission(get(commentIds), ApplicationPermissionEvaluator.UPDATE_PERMISSION));
+	}
+
+	/**
+	 * Marks the comments as read with a single bulk request. In contrast to patching, comments are neither cloned via
+	 * JSON nor validated since only the read state changes. Patch events are still published for each changed
+	 * comment, so counters are only updated for comments which have actually been written.
+	 */
+	private List<Comment> markRead(final List<Comment> comments) {
+		final List<Comment> unreadComments = comments.stream().filter(c -> !c.isRead()).collect(Collectors.toList());
+		if (unreadComments.isEmpty()) {
+			return comments;
+		}
+		final Map<String, Object> changes = Collections.singletonMap("read", true);
+		final Map<String, Comment> oldComments = new HashMap<>();
+		final Date updateTimestamp = new Date();
+		for (final Comment comment : unreadComments) {
+			final Comment oldComment = new Comment();
+			BeanUtils.copyProperties(comment, oldComment);
+			oldComments.put(comment.getId(), oldComment);
+			comment.setRead(true);
+			comment.setUpdateTimestamp(updateTimestamp);
+			eventPublisher.publishEvent(
+					new BeforePatchEvent<>(this, comment, oldComment, Function.identity(), changes));
+		}
+		final List<Comment> savedComments = filterWritten(unreadComments, commentRepository.bulkSave(unreadComments));
+		for (final Comment comment : savedComments) {
+			eventPublisher.publishEvent(new AfterPatchEvent<>(
+					this, comment, oldComments.get(comment.getId()), Function.identity(), changes));
+		}
+		/* Comments which could not be written are returned in their persisted state. */
+		unreadComments.removeAll(savedComments);
+		for (final Comment comment : unreadComments) {
+			comment.setRead(false);
+			comment.setUpdateTimestamp(oldComments.get(comment.getId()).getUpdateTimestamp());
+		}
+
+		return comments;
+	}
+
 	private User getCurrentUser() {
 		final User user = userService.getCurrentUser();
 		if (user == null) {
@@ -154,4 +209,30 @@ public class CommentServiceImpl extends DefaultEntityServiceImpl<Comment> implem
 		final Iterable<Comment> comments = commentRepository.findStubsByRoomId(event.getEntity().getId());
 		delete(comments);
 	}
+
+	@EventListener
+	public void handleCommentCreation(final AfterCreationEvent<Comment> event) {
+		commentCounters.handleCreation(event.getEntity());
+	}
+
+	@EventListener
+	public void handleCommentUpdate(final AfterUpdateEvent<Comment> event) {
+		final Comment comment = event.getEntity();
+		final Comment oldComment = event.getOldEntity();
+		if (oldComment == null || !Objects.equals(oldComment.getRoomId(), comment.getRoomId())
+				|| !Objects.equals(oldComment.getCreatorId(), comment.getCreatorId())) {
+			commentCounters.invalidate(comment.getRoomId());
+			if (oldComment != null) {
+				commentCounters.invalidate(oldComment.getRoomId());
+			}
+		} else if (oldComment.isRead() != comment.isRead()) {
+			commentCounters.handleReadStateChange(comment);
+		}
+	}
+
+	@EventListener
+	public void handleCommentDeletion(final AfterDeletionEvent<Comment> event) {
+		/* Deleted comments might be stubs without creator and read state. */
+		commentCounters.invalidate(event.getEntity().getRoomId());
+	}
 }
@@ -18,48 +18,69 @@
 
 package de.thm.arsnova.service;
 
-import java.util.HashSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.FindQuery;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.ContentRepository;
+import de.thm.arsnova.security.User;
 
 @Service
-public class ContentFindQueryService implements FindQueryService<Content> {
+public class ContentFindQueryService extends AbstractFindQueryService<Content> {
 	private RoomService roomService;
 	private ContentService contentService;
 	private ContentGroupService contentGroupService;
+	private UserService userService;
 
 	public ContentFindQueryService(final RoomService roomService, final ContentService contentService,
-			final ContentGroupService contentGroupService) {
+			final ContentGroupService contentGroupService, final UserService userService,
+			final ContentRepository contentRepository) {
+		/* Filters have always been merged for contents, so this stays the default. */
+		super(Content.class, contentRepository, FindQuery.LogicalOperator.OR);
 		this.roomService = roomService;
 		this.contentService = contentService;
 		this.contentGroupService = contentGroupService;
+		this.userService = userService;
+		addPropertyFilter("roomId", Content::getRoomId, this::selectByRoomId, this::getIdsByRoomId);
+		addExternalFilter("notInContentGroupOfRoomId", this::getIdsNotInContentGroupOfRoomId);
 	}
 
-	@Override
-	public Set<String> resolveQuery(final FindQuery<Content> findQuery) {
-		final Set<String> contentIds = new HashSet<>();
-
-		if (findQuery.getExternalFilters().get("notInContentGroupOfRoomId") instanceof String) {
-			final String roomId = (String) findQuery.getExternalFilters().get("notInContentGroupOfRoomId");
-			final Set<String> idsWithGroup = contentGroupService.getByRoomId(roomId).stream()
-					.flatMap(cg -> cg.getContentIds().stream()).collect(Collectors.toSet());
-			final Set<String> idsWithoutGroup = contentService.getByRoomId(roomId).stream()
-					.map(Content::getId).filter(id -> !idsWithGroup.contains(id)).collect(Collectors.toSet());
-			contentIds.addAll(idsWithoutGroup);
+	/**
+	 * Like {@link ContentService#getByRoomId(String)}, contents which are not visible are only selected for the
+	 * room's owner.
+	 */
+	private Map<String, Object> selectByRoomId(final String roomId) {
+		final User user = userService.getCurrentUser();
+		if (user == null) {
+			return null;
 		}
-
-		if (findQuery.getProperties().getRoomId() != null) {
-			final List<Content> contentList = contentService.getByRoomId(findQuery.getProperties().getRoomId());
-			for (final Content c : contentList) {
-				contentIds.add(c.getId());
-			}
+		final Room room = roomService.get(roomId);
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("roomId", room.getId());
+		if (!room.getOwnerId().equals(user.getId())) {
+			properties.put("state.visible", true);
 		}
 
-		return contentIds;
+		return properties;
+	}
+
+	private Set<String> getIdsByRoomId(final String roomId) {
+		return contentService.getByRoomId(roomId).stream().map(Content::getId).collect(Collectors.toSet());
+	}
+
+	/**
+	 * The room's content IDs are resolved like the <code>roomId</code> property filter and the grouped content IDs are
+	 * taken from the content group membership index, so no documents need to be loaded.
+	 */
+	private Set<String> getIdsNotInContentGroupOfRoomId(final String roomId) {
+		final Set<String> ids = resolvePropertyFilter("roomId", roomId);
+		ids.removeAll(contentGroupService.getGroupedContentIdsByRoomId(roomId));
+
+		return ids;
 	}
 }
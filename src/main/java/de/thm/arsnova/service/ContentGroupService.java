@@ -18,9 +18,16 @@
 
 package de.thm.arsnova.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +38,9 @@ import org.springframework.security.access.annotation.Secured;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Validator;
 
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
 import de.thm.arsnova.event.BeforeDeletionEvent;
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.ContentGroup;
@@ -40,9 +50,17 @@ import de.thm.arsnova.web.exceptions.BadRequestException;
 
 @Service
 public class ContentGroupService extends DefaultEntityServiceImpl<ContentGroup> {
+	private static final int MEMBERSHIP_INDEX_EXPIRY_MINUTES = 60;
+
 	private ContentGroupRepository contentGroupRepository;
 	private ContentService contentService;
 
+	/* Per room index of content group names by content ID. It is built from a view without loading documents and is
+	 * dropped for a room as soon as one of its content groups changes. */
+	private final Cache<String, MembershipIndex> membershipIndex = CacheBuilder.newBuilder()
+			.expireAfterAccess(MEMBERSHIP_INDEX_EXPIRY_MINUTES, TimeUnit.MINUTES)
+			.build();
+
 	public ContentGroupService(
 			final ContentGroupRepository repository,
 			@Qualifier("defaultJsonMessageConverter")
@@ -83,6 +101,50 @@ public class ContentGroupService extends DefaultEntityServiceImpl<ContentGroup>
 		return contentGroupRepository.findByRoomId(roomId);
 	}
 
+	/**
+	 * Returns the IDs of the contents which are part of the named content group of the room.
+	 *
+	 * @param roomId The room's ID
+	 * @param name The content group's name
+	 * @return The content IDs or an empty set if the group does not exist
+	 */
+	public Set<String> getContentIdsByRoomIdAndName(final String roomId, final String name) {
+		return getMembershipIndex(roomId).entrySet().stream()
+				.filter(e -> e.getValue().contains(name))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns the names of the content groups of the room which contain the content.
+	 *
+	 * @param roomId The room's ID
+	 * @param contentId The content's ID
+	 * @return The content group names
+	 */
+	public Set<String> getNamesByRoomIdAndContentId(final String roomId, final String contentId) {
+		return getMembershipIndex(roomId).getOrDefault(contentId, Collections.emptySet());
+	}
+
+	/**
+	 * Returns the IDs of the contents which are part of at least one content group of the room.
+	 *
+	 * @param roomId The room's ID
+	 * @return The content IDs
+	 */
+	public Set<String> getGroupedContentIdsByRoomId(final String roomId) {
+		return getMembershipIndex(roomId).keySet();
+	}
+
+	private Map<String, Set<String>> getMembershipIndex(final String roomId) {
+		try {
+			return membershipIndex.get(roomId, MembershipIndex::new)
+					.get(() -> contentGroupRepository.findGroupNamesByRoomIdGroupedByContentId(roomId));
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
 	public void addContentToGroup(final String roomId, final String groupName, final String contentId) {
 		ContentGroup contentGroup = getByRoomIdAndName(roomId, groupName);
 		if (contentGroup == null) {
@@ -116,10 +178,64 @@ public class ContentGroupService extends DefaultEntityServiceImpl<ContentGroup>
 		}
 	}
 
+	@EventListener
+	public void handleContentGroupCreation(final AfterCreationEvent<ContentGroup> event) {
+		invalidateMembershipIndex(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleContentGroupUpdate(final AfterUpdateEvent<ContentGroup> event) {
+		invalidateMembershipIndex(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleContentGroupDeletion(final AfterDeletionEvent<ContentGroup> event) {
+		invalidateMembershipIndex(event.getEntity().getRoomId());
+	}
+
 	@EventListener
 	@Secured({"ROLE_USER", "RUN_AS_SYSTEM"})
 	public void handleRoomDeletion(final BeforeDeletionEvent<Room> event) {
 		final Iterable<ContentGroup> contentGroups = contentGroupRepository.findByRoomId(event.getEntity().getId());
 		delete(contentGroups);
 	}
+
+	private void invalidateMembershipIndex(final String roomId) {
+		final MembershipIndex entry = roomId != null ? membershipIndex.getIfPresent(roomId) : null;
+		if (entry != null) {
+			entry.invalidate();
+		}
+	}
+
+	/**
+	 * Membership index of a single room. The entry is kept on invalidation so a load which is still running when a
+	 * content group changes can detect the change and does not store an index which might not reflect it.
+	 */
+	private static class MembershipIndex {
+		private Map<String, Set<String>> index;
+		private long modificationCount;
+
+		private Map<String, Set<String>> get(final Supplier<Map<String, Set<String>>> loader) {
+			final long expectedModificationCount;
+			synchronized (this) {
+				if (index != null) {
+					return index;
+				}
+				expectedModificationCount = modificationCount;
+			}
+			final Map<String, Set<String>> loadedIndex = Collections.unmodifiableMap(loader.get());
+			synchronized (this) {
+				if (modificationCount == expectedModificationCount) {
+					index = loadedIndex;
+				}
+			}
+
+			return loadedIndex;
+		}
+
+		private synchronized void invalidate() {
+			modificationCount++;
+			index = null;
+		}
+	}
 }
@@ -18,6 +18,8 @@
 
 package de.thm.arsnova.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
@@ -25,12 +27,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -39,7 +46,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Validator;
 
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
 import de.thm.arsnova.event.BeforeDeletionEvent;
+import de.thm.arsnova.model.Answer;
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.ContentGroup;
 import de.thm.arsnova.model.Room;
@@ -69,8 +79,15 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	private AnswerRepository answerRepository;
 
+	private static final int ANSWERED_CONTENT_IDS_EXPIRY_MINUTES = 60;
+
 	private static final Logger logger = LoggerFactory.getLogger(ContentServiceImpl.class);
 
+	/* roomId -> IDs of answered contents per user, kept up to date by answer events */
+	private final Cache<String, AnsweredContentIds> answeredContentIds = CacheBuilder.newBuilder()
+			.expireAfterAccess(ANSWERED_CONTENT_IDS_EXPIRY_MINUTES, TimeUnit.MINUTES)
+			.build();
+
 	public ContentServiceImpl(
 			final ContentRepository repository,
 			final RoomService roomService,
@@ -106,18 +123,30 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 		}
 	}
 
-	/* FIXME: caching */
 	@Override
 	@PreAuthorize("isAuthenticated()")
-	//@Cacheable("contentlists")
 	public List<Content> getByRoomId(final String roomId) {
 		final Room room = roomService.get(roomId);
 		final User user = userService.getCurrentUser();
-		if (room.getOwnerId().equals(user.getId())) {
-			return contentRepository.findByRoomIdForSpeaker(roomId);
-		} else {
-			return contentRepository.findByRoomIdForUsers(roomId);
-		}
+		final boolean speaker = room.getOwnerId().equals(user.getId());
+
+		/* Read access to the room grants read access to its contents, so no
+		 * further permission checks are necessary. Contents missing in the
+		 * entity cache are retrieved with a single request. */
+		return getWithoutPermissionCheck(getIdsByRoomId(roomId)).stream()
+				.filter(content -> speaker || content.getState().isVisible())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Only the IDs are cached per room. The entities are served from the
+	 * entity cache which is kept up to date on changes. The cached list is
+	 * evicted when contents are created, updated or deleted, when contents are
+	 * published or locked and when content groups change.
+	 */
+	@Cacheable(value = "contentlists", key = "#roomId")
+	private List<String> getIdsByRoomId(final String roomId) {
+		return contentRepository.findIdsByRoomId(roomId);
 	}
 
 	@Override
@@ -209,11 +238,15 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	@Override
 	protected void prepareDelete(final Content content) {
-		final List<ContentGroup> contentGroups = contentGroupService.getByRoomId(content.getRoomId());
-		for (final ContentGroup contentGroup : contentGroups) {
+		final Set<String> groupNames =
+				contentGroupService.getNamesByRoomIdAndContentId(content.getRoomId(), content.getId());
+		for (final String groupName : groupNames) {
+			final ContentGroup contentGroup = contentGroupService.getByRoomIdAndName(content.getRoomId(), groupName);
+			if (contentGroup == null) {
+				continue;
+			}
 			final Set<String> ids = contentGroup.getContentIds();
-			if (ids.contains(content.getId())) {
-				ids.remove(content.getId());
+			if (ids.remove(content.getId())) {
 				if (!ids.isEmpty()) {
 					contentGroupService.update(contentGroup);
 				} else {
@@ -294,8 +327,7 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	@Override
 	@PreAuthorize("isAuthenticated()")
-	@Caching(evict = { @CacheEvict(value = "contents", allEntries = true),
-			@CacheEvict(value = "contentlists", key = "#roomId"),
+	@Caching(evict = { @CacheEvict(value = "contentlists", key = "#roomId"),
 			@CacheEvict(value = "lecturecontentlists", key = "#roomId"),
 			@CacheEvict(value = "preparationcontentlists", key = "#roomId"),
 			@CacheEvict(value = "flashcardcontentlists", key = "#roomId") })
@@ -329,7 +361,21 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 	@PreAuthorize("isAuthenticated()")
 	public List<String> getUnAnsweredContentIds(final String roomId) {
 		final User user = getCurrentUser();
-		return contentRepository.findUnansweredIdsByRoomIdAndUser(roomId, user.getId());
+		return findUnansweredIds(roomId, user.getId());
+	}
+
+	private List<String> findUnansweredIds(final String roomId, final String userId) {
+		final Set<String> answeredIds;
+		try {
+			answeredIds = answeredContentIds.get(roomId, AnsweredContentIds::new)
+					.get(userId, () -> contentRepository.findAnsweredIdsByRoomIdAndUser(roomId, userId));
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		return getIdsByRoomId(roomId).stream()
+				.filter(id -> !answeredIds.contains(id))
+				.collect(Collectors.toList());
 	}
 
 	private User getCurrentUser() {
@@ -346,7 +392,16 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 	 */
 	@Override
 	public int countFlashcardsForUserInternal(final String roomId) {
-		return contentRepository.findByRoomIdOnlyFlashcardVariantAndActive(roomId).size();
+		/* Only visible flashcards are counted for users. The group's content IDs and the visible content IDs are both
+		 * read from views, so no documents are loaded. */
+		final Set<String> flashcardIds = contentGroupService.getContentIdsByRoomIdAndName(roomId, "flashcard");
+		if (flashcardIds.isEmpty()) {
+			return 0;
+		}
+
+		return (int) contentRepository.findVisibleIdsByRoomId(roomId).stream()
+				.filter(flashcardIds::contains)
+				.count();
 	}
 
 	@Override
@@ -358,8 +413,8 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	@Override
 	public List<String> getUnAnsweredLectureContentIds(final String roomId, final String userId) {
-		final List<String> ids = contentRepository.findUnansweredIdsByRoomIdAndUser(roomId, userId);
-		ids.retainAll(contentGroupService.getByRoomIdAndName(roomId, "lecture").getContentIds());
+		final List<String> ids = findUnansweredIds(roomId, userId);
+		ids.retainAll(contentGroupService.getContentIdsByRoomIdAndName(roomId, "lecture"));
 
 		return ids;
 	}
@@ -373,8 +428,8 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	@Override
 	public List<String> getUnAnsweredPreparationContentIds(final String roomId, final String userId) {
-		final List<String> ids = contentRepository.findUnansweredIdsByRoomIdAndUser(roomId, userId);
-		ids.retainAll(contentGroupService.getByRoomIdAndName(roomId, "preparation").getContentIds());
+		final List<String> ids = findUnansweredIds(roomId, userId);
+		ids.retainAll(contentGroupService.getContentIdsByRoomIdAndName(roomId, "preparation"));
 
 		return ids;
 	}
@@ -394,8 +449,7 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 
 	@Override
 	@PreAuthorize("isAuthenticated()")
-	@Caching(evict = { @CacheEvict(value = "contents", allEntries = true),
-			@CacheEvict(value = "contentlists", key = "#roomId"),
+	@Caching(evict = { @CacheEvict(value = "contentlists", key = "#roomId"),
 			@CacheEvict(value = "lecturecontentlists", key = "#roomId"),
 			@CacheEvict(value = "preparationcontentlists", key = "#roomId"),
 			@CacheEvict(value = "flashcardcontentlists", key = "#roomId") })
@@ -428,8 +482,7 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 	@PreAuthorize("isAuthenticated()")
 	public void deleteAllPreparationAnswers(final String roomId) {
 		final Room room = roomService.get(roomId);
-		contentGroupService.getByRoomIdAndName(roomId, "preparation").getContentIds();
-		final Set<String> contentIds = contentGroupService.getByRoomIdAndName(roomId, "preparation").getContentIds();
+		final Set<String> contentIds = contentGroupService.getContentIdsByRoomIdAndName(roomId, "preparation");
 		resetContentsRoundState(room.getId(), get(contentIds));
 		answerService.delete(answerRepository.findStubsByContentIds(contentIds));
 	}
@@ -438,14 +491,12 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 	@PreAuthorize("isAuthenticated()")
 	public void deleteAllLectureAnswers(final String roomId) {
 		final Room room = roomService.get(roomId);
-		contentGroupService.getByRoomIdAndName(roomId, "lecture").getContentIds();
-		final Set<String> contentIds = contentGroupService.getByRoomIdAndName(roomId, "lecture").getContentIds();
+		final Set<String> contentIds = contentGroupService.getContentIdsByRoomIdAndName(roomId, "lecture");
 		resetContentsRoundState(room.getId(), get(contentIds));
 		answerService.delete(answerRepository.findStubsByContentIds(contentIds));
 	}
 
 	@Caching(evict = {
-			@CacheEvict(value = "contents", allEntries = true),
 			@CacheEvict(value = "contentlists", key = "#roomId"),
 			@CacheEvict(value = "lecturecontentlists", key = "#roomId"),
 			@CacheEvict(value = "preparationcontentlists", key = "#roomId"),
@@ -464,5 +515,63 @@ public class ContentServiceImpl extends DefaultEntityServiceImpl<Content> implem
 	public void handleRoomDeletion(final BeforeDeletionEvent<Room> event) {
 		final Iterable<Content> contents = contentRepository.findStubsByRoomId(event.getEntity().getId());
 		delete(contents);
+		answeredContentIds.invalidate(event.getEntity().getId());
+	}
+
+	@EventListener
+	public void handleAnswerCreation(final AfterCreationEvent<Answer> event) {
+		final Answer answer = event.getEntity();
+		final AnsweredContentIds answeredIds = answer.getRoomId() != null
+				? answeredContentIds.getIfPresent(answer.getRoomId()) : null;
+		if (answeredIds != null) {
+			answeredIds.add(answer.getCreatorId(), answer.getContentId());
+		}
+	}
+
+	@EventListener
+	public void handleAnswerDeletion(final AfterDeletionEvent<Answer> event) {
+		/* Another answer of the user for the same content might still exist, so the room's state is rebuilt. */
+		if (event.getEntity().getRoomId() != null) {
+			answeredContentIds.invalidate(event.getEntity().getRoomId());
+		} else {
+			answeredContentIds.invalidateAll();
+		}
+	}
+
+	/**
+	 * IDs of the contents answered by each user of a single room. Answers are counted per user, and IDs loaded for a
+	 * user are discarded if the count has changed during the query.
+	 */
+	private static class AnsweredContentIds {
+		private final Map<String, Set<String>> idsByUser = new HashMap<>();
+		private final Map<String, Long> modificationCounts = new HashMap<>();
+
+		private Set<String> get(final String userId, final Supplier<Set<String>> loader) {
+			final long expectedModificationCount;
+			synchronized (this) {
+				final Set<String> ids = idsByUser.get(userId);
+				if (ids != null) {
+					return ids;
+				}
+				expectedModificationCount = modificationCounts.getOrDefault(userId, 0L);
+			}
+			final Set<String> loadedIds = ConcurrentHashMap.newKeySet();
+			loadedIds.addAll(loader.get());
+			synchronized (this) {
+				if (modificationCounts.getOrDefault(userId, 0L) == expectedModificationCount) {
+					idsByUser.put(userId, loadedIds);
+				}
+			}
+
+			return loadedIds;
+		}
+
+		private synchronized void add(final String userId, final String contentId) {
+			modificationCounts.merge(userId, 1L, Long::sum);
+			final Set<String> ids = idsByUser.get(userId);
+			if (ids != null) {
+				ids.add(contentId);
+			}
+		}
 	}
 }
@@ -23,10 +23,21 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -35,6 +46,7 @@ import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
@@ -45,14 +57,18 @@ import de.thm.arsnova.event.AfterDeletionEvent;
 import de.thm.arsnova.event.AfterFullUpdateEvent;
 import de.thm.arsnova.event.AfterPatchEvent;
 import de.thm.arsnova.event.AfterUpdateEvent;
+import de.thm.arsnova.event.BatchEvent;
 import de.thm.arsnova.event.BeforeCreationEvent;
 import de.thm.arsnova.event.BeforeDeletionEvent;
 import de.thm.arsnova.event.BeforeFullUpdateEvent;
 import de.thm.arsnova.event.BeforePatchEvent;
+import de.thm.arsnova.event.CrudEvent;
 import de.thm.arsnova.model.Entity;
 import de.thm.arsnova.model.EntityValidationException;
 import de.thm.arsnova.model.serialization.View;
+import de.thm.arsnova.persistence.BulkOperationFailure;
 import de.thm.arsnova.persistence.CrudRepository;
+import de.thm.arsnova.security.ApplicationPermissionEvaluator;
 
 /**
  * Default implementation of {@link EntityService} which provides CRUD operations for entities independently from the
@@ -68,6 +84,8 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 	private ObjectMapper objectMapper;
 	private ObjectMapper objectMapperForPatchTree;
 	private Validator validator;
+	private ApplicationPermissionEvaluator permissionEvaluator;
+	private Cache entityCache;
 
 	public DefaultEntityServiceImpl(
 			final Class<T> type,
@@ -100,13 +118,73 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 		return entity;
 	}
 
+	@Autowired
+	public void setPermissionEvaluator(final ApplicationPermissionEvaluator permissionEvaluator) {
+		this.permissionEvaluator = permissionEvaluator;
+	}
+
+	@Autowired(required = false)
+	public void setCacheManager(final CacheManager cacheManager) {
+		this.entityCache = cacheManager.getCache("entity");
+	}
+
+	/**
+	 * Retrieves multiple entities. Entities are served from the cache used by {@link #get(String, boolean)} if
+	 * possible, the remaining entities are retrieved with a single request and added to the cache. Read permissions
+	 * are checked in bulk for the retrieved entities instead of for each ID.
+	 *
+	 * @param ids The IDs of the entities
+	 * @return The entities which exist and are readable by the current user in the order of the IDs
+	 */
 	@Override
-	@PreFilter(value = "hasPermission(filterObject, #this.this.getTypeName(), 'read')", filterTarget = "ids")
 	public Iterable<T> get(final Iterable<String> ids) {
-		final Iterable<T> entities = repository.findAllById(ids);
-		entities.forEach(this::modifyRetrieved);
+		return filterByPermission(getWithoutPermissionCheck(ids), ApplicationPermissionEvaluator.READ_PERMISSION);
+	}
+
+	/**
+	 * Retrieves multiple entities like {@link #get(Iterable)} but without checking permissions. It can be used by
+	 * subclasses if permissions have already been checked for a related entity.
+	 *
+	 * @param ids The IDs of the entities
+	 * @return The entities which exist in the order of the IDs
+	 */
+	protected List<T> getWithoutPermissionCheck(final Iterable<String> ids) {
+		final Map<String, T> entities = new LinkedHashMap<>();
+		final List<String> missingIds = new ArrayList<>();
+		for (final String id : ids) {
+			if (entities.containsKey(id)) {
+				continue;
+			}
+			final T entity = entityCache != null ? entityCache.get(getCacheKey(id), type) : null;
+			entities.put(id, entity);
+			if (entity == null) {
+				missingIds.add(id);
+			}
+		}
+		if (!missingIds.isEmpty()) {
+			for (final T entity : repository.findAllById(missingIds)) {
+				modifyRetrieved(entity);
+				if (entityCache != null) {
+					entityCache.put(getCacheKey(entity.getId()), entity);
+				}
+				entities.put(entity.getId(), entity);
+			}
+		}
+
+		return entities.values().stream().filter(Objects::nonNull).collect(Collectors.toList());
+	}
 
-		return entities;
+	/**
+	 * Filters entities by the permissions of the current user. Entities referenced by the entities are retrieved in
+	 * bulk for the checks.
+	 *
+	 * @param entities The entities to filter
+	 * @param permission The permission to check
+	 * @return The entities for which the permission is granted
+	 */
+	protected List<T> filterByPermission(final Iterable<T> entities, final String permission) {
+		return permissionEvaluator.filterByPermission(
+				SecurityContextHolder.getContext().getAuthentication(), entities, permission);
 	}
 
 	@Override
@@ -128,6 +206,46 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 		return createdEntity;
 	}
 
+	/**
+	 * Creates multiple entities with a single bulk request. Before/After creation events are still published for each
+	 * entity and are additionally grouped by a {@link BatchEvent}. After creation events are only published for
+	 * entities which have actually been written.
+	 *
+	 * @param entities The entities to be created
+	 * @return The created entities, without the ones which could not be written
+	 */
+	@Override
+	@PreFilter(value = "hasPermission(filterObject, 'create')", filterTarget = "entities")
+	public Iterable<T> create(final Iterable<T> entities) {
+		final Date creationTimestamp = new Date();
+		for (final T entity : entities) {
+			if (entity.getId() != null || entity.getRevision() != null) {
+				throw new IllegalArgumentException("Entity is not new.");
+			}
+			entity.setCreationTimestamp(creationTimestamp);
+		}
+
+		prepareCreateAll(entities);
+		publishBatch(entities, e -> new BeforeCreationEvent<>(this, e), this::validate);
+		final List<T> createdEntities = filterWritten(entities, repository.bulkSave(entities));
+		publishBatch(createdEntities, e -> new AfterCreationEvent<>(this, e), e -> {
+			finalizeCreate(e);
+			modifyRetrieved(e);
+		});
+
+		return createdEntities;
+	}
+
+	/**
+	 * This method can be overridden by subclasses to modify the entities before bulk creation. By default, the
+	 * implementation of {@link #prepareCreate} is used for each entity.
+	 *
+	 * @param entities The entities to be created
+	 */
+	protected void prepareCreateAll(final Iterable<T> entities) {
+		entities.forEach(this::prepareCreate);
+	}
+
 	/**
 	 * This method can be overridden by subclasses to modify the entity before creation.
 	 *
@@ -242,26 +360,56 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 	@PreFilter(value = "hasPermission(filterObject, 'update')", filterTarget = "entities")
 	public Iterable<T> patch(final Iterable<T> entities, final Map<String, Object> changes,
 			final Function<T, ? extends Object> propertyGetter, final Class<?> view) throws IOException {
-		final JsonNode tree = objectMapperForPatchTree.valueToTree(changes);
+		return doPatch(entities, e -> changes, propertyGetter, view);
+	}
+
+	/**
+	 * Patches multiple entities with individual changes for each entity. Like
+	 * {@link #patch(Iterable, Map, Function, Class)}, all entities are written with a single bulk request.
+	 *
+	 * @param entities The entities to be patched
+	 * @param changesProvider Provides the changes for an entity
+	 * @param propertyGetter Retrieves the object of an entity the changes are applied to
+	 * @param view The view used for deserialization of the changes
+	 * @return The entities which have been written
+	 */
+	@PreFilter(value = "hasPermission(filterObject, 'update')", filterTarget = "entities")
+	public Iterable<T> patchEach(final Iterable<T> entities, final Function<T, Map<String, Object>> changesProvider,
+			final Function<T, ? extends Object> propertyGetter, final Class<?> view) throws IOException {
+		return doPatch(entities, changesProvider, propertyGetter, view);
+	}
+
+	private List<T> doPatch(final Iterable<T> entities, final Function<T, Map<String, Object>> changesProvider,
+			final Function<T, ? extends Object> propertyGetter, final Class<?> view) throws IOException {
+		final Map<Map<String, Object>, JsonNode> trees = new IdentityHashMap<>();
 		final Map<String, T> oldEntities = new HashMap<>();
+		final Map<String, Map<String, Object>> changesById = new HashMap<>();
 		for (final T entity : entities) {
+			final Map<String, Object> changes = changesProvider.apply(entity);
+			JsonNode tree = trees.get(changes);
+			if (tree == null) {
+				tree = objectMapperForPatchTree.valueToTree(changes);
+				trees.put(changes, tree);
+			}
 			final T oldEntity = cloneEntity(entity);
 			oldEntities.put(entity.getId(), oldEntity);
+			changesById.put(entity.getId(), changes);
 			final Object obj = propertyGetter.apply(entity);
 			final ObjectReader reader = objectMapper.readerForUpdating(obj).withView(view);
 			reader.readValue(tree);
 			entity.setUpdateTimestamp(new Date());
 			preparePatch(entity);
-			eventPublisher.publishEvent(new BeforePatchEvent<>(this, entity, oldEntity, propertyGetter, changes));
-			validate(entity);
 		}
+		publishBatch(entities,
+				e -> new BeforePatchEvent<>(
+						this, e, oldEntities.get(e.getId()), propertyGetter, changesById.get(e.getId())),
+				this::validate);
 
-		final Iterable<T> patchedEntities = repository.saveAll(entities);
-		patchedEntities.forEach((e) -> {
-			eventPublisher.publishEvent(new AfterPatchEvent<>(
-					this, e, oldEntities.get(e.getId()), propertyGetter, changes));
-			modifyRetrieved(e);
-		});
+		final List<T> patchedEntities = filterWritten(entities, repository.bulkSave(entities));
+		publishBatch(patchedEntities,
+				e -> new AfterPatchEvent<>(
+						this, e, oldEntities.get(e.getId()), propertyGetter, changesById.get(e.getId())),
+				this::modifyRetrieved);
 
 		return patchedEntities;
 	}
@@ -288,14 +436,56 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 	@Override
 	@PreFilter(value = "hasPermission(filterObject, 'delete')", filterTarget = "entities")
 	public void delete(final Iterable<T> entities) {
+		entities.forEach(this::prepareDelete);
+		publishBatch(entities, e -> new BeforeDeletionEvent<>(this, e), e -> { });
+		final List<T> deletedEntities = filterWritten(entities, repository.bulkDelete(entities));
+		publishBatch(deletedEntities, e -> new AfterDeletionEvent<>(this, e), e -> { });
+	}
+
+	/**
+	 * Determines which entities of a bulk operation have been written to the database. An entity is considered as not
+	 * written if the repository reported a failure for its ID or if it has not been assigned an ID.
+	 *
+	 * @param entities The entities passed to the bulk operation
+	 * @param failures The failures reported by the repository
+	 * @return The entities which have been written
+	 */
+	protected List<T> filterWritten(final Iterable<T> entities, final List<BulkOperationFailure> failures) {
+		final Set<String> failedIds = failures.stream()
+				.map(BulkOperationFailure::getId)
+				.collect(Collectors.toSet());
+		final List<T> writtenEntities = new ArrayList<>();
 		for (final T entity : entities) {
-			prepareDelete(entity);
-			eventPublisher.publishEvent(new BeforeDeletionEvent<>(this, entity));
+			if (entity.getId() != null && !failedIds.contains(entity.getId())) {
+				writtenEntities.add(entity);
+			}
 		}
-		repository.deleteAll(entities);
-		for (final T entity : entities) {
-			eventPublisher.publishEvent(new AfterDeletionEvent<>(this, entity));
+
+		return writtenEntities;
+	}
+
+	/**
+	 * Publishes the events of a bulk operation. The event for each entity is published in order and references the
+	 * batch, so listeners can skip it if they handle the {@link BatchEvent} which is published afterwards. No events
+	 * are published if there are no entities.
+	 *
+	 * @param entities The entities affected by the bulk operation
+	 * @param eventFactory Creates the event for a single entity
+	 * @param action Called for each entity directly after its event has been published
+	 */
+	protected void publishBatch(final Iterable<T> entities, final Function<T, ? extends CrudEvent<T>> eventFactory,
+			final Consumer<T> action) {
+		final List<CrudEvent<T>> events = new ArrayList<>();
+		entities.forEach(e -> events.add(eventFactory.apply(e)));
+		if (events.isEmpty()) {
+			return;
+		}
+		final BatchEvent<CrudEvent<T>> batchEvent = new BatchEvent<>(this, type, events);
+		for (final CrudEvent<T> event : events) {
+			eventPublisher.publishEvent(event);
+			action.accept(event.getEntity());
 		}
+		eventPublisher.publishEvent(batchEvent);
 	}
 
 	/**
@@ -335,6 +525,10 @@ public class DefaultEntityServiceImpl<T extends Entity> implements EntityService
 		return type.getSimpleName().toLowerCase();
 	}
 
+	private String getCacheKey(final String id) {
+		return getTypeName() + "-" + id;
+	}
+
 	@Override
 	public void setApplicationEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
 		this.eventPublisher = applicationEventPublisher;
@@ -38,12 +38,14 @@ public interface EntityService<T extends Entity> {
 
 	T get(String id, boolean internal);
 
-	@PreFilter(value = "hasPermission(filterObject, #this.this.getTypeName(), 'read')", filterTarget = "ids")
 	Iterable<T> get(Iterable<String> ids);
 
 	@PreAuthorize("hasPermission(#entity, 'create')")
 	T create(T entity);
 
+	@PreFilter(value = "hasPermission(filterObject, 'create')", filterTarget = "entities")
+	Iterable<T> create(Iterable<T> entities);
+
 	T update(T entity);
 
 	@PreAuthorize("hasPermission(#oldEntity, 'update')")
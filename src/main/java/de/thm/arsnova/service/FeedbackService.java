@@ -30,6 +30,14 @@ public interface FeedbackService {
 
 	Feedback getByRoomId(String roomId);
 
+	/**
+	 * Returns a counter which is incremented whenever the feedback of the room changes.
+	 *
+	 * @param roomId The room's ID
+	 * @return The feedback version of the room
+	 */
+	long getVersionByRoomId(String roomId);
+
 	int countFeedbackByRoomId(String roomId);
 
 	double calculateAverageFeedback(String roomId);
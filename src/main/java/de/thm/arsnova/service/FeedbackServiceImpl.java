@@ -122,6 +122,11 @@ public class FeedbackServiceImpl implements FeedbackService, ApplicationEventPub
 		return feedbackStorage.getByRoom(room);
 	}
 
+	@Override
+	public long getVersionByRoomId(final String roomId) {
+		return feedbackStorage.getVersionByRoomId(roomId);
+	}
+
 	@Override
 	public int countFeedbackByRoomId(final String roomId) {
 		final Feedback feedback = this.getByRoomId(roomId);
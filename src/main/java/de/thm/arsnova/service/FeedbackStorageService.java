@@ -27,6 +27,8 @@ import de.thm.arsnova.model.Room;
 public interface FeedbackStorageService {
 	Feedback getByRoom(Room room);
 
+	long getVersionByRoomId(String roomId);
+
 	Integer getByRoomAndUserId(Room room, String userId);
 
 	void save(Room room, int value, String userId);
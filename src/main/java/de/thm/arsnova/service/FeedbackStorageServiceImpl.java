@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,8 @@ public class FeedbackStorageServiceImpl implements FeedbackStorageService {
 	private final Map<Room, Map<String, FeedbackStorageObject>> data =
 			new ConcurrentHashMap<>();
 
+	private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
 	@Override
 	public Feedback getByRoom(final Room room) {
 		int a = 0;
@@ -102,6 +105,17 @@ public class FeedbackStorageServiceImpl implements FeedbackStorageService {
 		return new Feedback(a, b, c, d);
 	}
 
+	@Override
+	public long getVersionByRoomId(final String roomId) {
+		final AtomicLong version = versions.get(roomId);
+
+		return version != null ? version.get() : 0;
+	}
+
+	private void incrementVersion(final Room room) {
+		versions.computeIfAbsent(room.getId(), id -> new AtomicLong()).incrementAndGet();
+	}
+
 	@Override
 	public Integer getByRoomAndUserId(final Room room, final String userId) {
 		if (data.get(room) == null) {
@@ -130,6 +144,7 @@ public class FeedbackStorageServiceImpl implements FeedbackStorageService {
 		}
 		logger.debug("Feedback values for Room {}: {}", room.getId(), roomData.size());
 		roomData.put(userId, new FeedbackStorageObject(value, userId));
+		incrementVersion(room);
 	}
 
 	@Override
@@ -169,6 +184,9 @@ public class FeedbackStorageServiceImpl implements FeedbackStorageService {
 				}
 			}
 		}
+		if (!affectedUsers.isEmpty()) {
+			incrementVersion(room);
+		}
 		return affectedUsers;
 	}
 
@@ -2,7 +2,12 @@ package de.thm.arsnova.service;
 
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.transport.ImportExportContainer;
+import de.thm.arsnova.model.transport.ImportJob;
 
 public interface ImportService {
 	Room importFromV2(ImportExportContainer container);
+
+	ImportJob importFromV2Async(ImportExportContainer container);
+
+	ImportJob getImportJob(String id);
 }
@@ -1,11 +1,21 @@
 package de.thm.arsnova.service;
 
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.stereotype.Service;
 
+import de.thm.arsnova.config.TaskExecutorConfig;
 import de.thm.arsnova.model.Answer;
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.ContentGroup;
@@ -13,15 +23,27 @@ import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.UserProfile;
 import de.thm.arsnova.model.migration.FromV2Migrator;
 import de.thm.arsnova.model.transport.ImportExportContainer;
+import de.thm.arsnova.model.transport.ImportJob;
 import de.thm.arsnova.security.User;
+import de.thm.arsnova.web.exceptions.NotFoundException;
+import de.thm.arsnova.web.exceptions.ServiceUnavailableException;
 
 /**
  * Handles data imports into the system.
+ *
+ * <p>
+ * All entities of an import are built in memory before they are persisted with bulk requests. Each imported answer
+ * gets its own anonymized guest user, and all of these users are created with a single bulk request.
+ * </p>
  */
 @Service
 public class ImportServiceImpl implements ImportService {
 	private static final Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
 
+	private static final int ANSWER_BATCH_SIZE = 1000;
+	private static final long FINISHED_JOB_CLEANUP_INTERVAL_MS = 10 * 60 * 1000L;
+	private static final long FINISHED_JOB_RETENTION_MS = 60 * 60 * 1000L;
+
 	private RoomService roomService;
 
 	private ContentService contentService;
@@ -36,6 +58,10 @@ public class ImportServiceImpl implements ImportService {
 
 	private FromV2Migrator fromV2Migrator;
 
+	private TaskExecutor importExecutor;
+
+	private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
 	private static final String V2_PREPARATION_QUESTION_CONTENT_GROUP_NAME = "preparation";
 	private static final String V2_LECTURE_QUESTION_CONTENT_GROUP_NAME = "lecture";
 
@@ -46,7 +72,8 @@ public class ImportServiceImpl implements ImportService {
 			final AnswerService answerService,
 			final MotdService motdService,
 			final UserService userService,
-			final FromV2Migrator fromV2Migrator
+			final FromV2Migrator fromV2Migrator,
+			@TaskExecutorConfig.ImportExecutor final TaskExecutor importExecutor
 	) {
 		this.roomService = roomService;
 		this.contentService = contentService;
@@ -55,11 +82,70 @@ public class ImportServiceImpl implements ImportService {
 		this.motdService = motdService;
 		this.userService = userService;
 		this.fromV2Migrator = fromV2Migrator;
+		this.importExecutor = importExecutor;
+	}
+
+	@Scheduled(fixedDelay = FINISHED_JOB_CLEANUP_INTERVAL_MS)
+	public void removeFinishedJobs() {
+		final long finishedBefore = System.currentTimeMillis() - FINISHED_JOB_RETENTION_MS;
+		jobs.values().removeIf(job -> job.isFinished() && job.getFinishTimestamp().getTime() < finishedBefore);
 	}
 
 	@Override
 	@Secured({"ROLE_ADMIN", "RUN_AS_SYSTEM"})
 	public Room importFromV2(final ImportExportContainer container) {
+		return importFromV2(container, new ImportJob());
+	}
+
+	@Override
+	@Secured({"ROLE_ADMIN", "RUN_AS_SYSTEM"})
+	public ImportJob importFromV2Async(final ImportExportContainer container) {
+		final ImportJob job = new ImportJob();
+		/* The job is run with the security context of the user who triggered the import. */
+		try {
+			importExecutor.execute(new DelegatingSecurityContextRunnable(() -> {
+				try {
+					importFromV2(container, job);
+				} catch (final RuntimeException e) {
+					logger.error("Import job {} failed.", job.getId(), e);
+				}
+			}));
+		} catch (final TaskRejectedException e) {
+			logger.warn("Import job {} was rejected because the import queue is full.", job.getId());
+			throw new ServiceUnavailableException("Too many pending imports.", e);
+		}
+		/* Jobs are only registered once they have been accepted so rejected jobs cannot be polled. */
+		jobs.put(job.getId(), job);
+
+		return job;
+	}
+
+	@Override
+	@Secured({"ROLE_ADMIN", "RUN_AS_SYSTEM"})
+	public ImportJob getImportJob(final String id) {
+		final ImportJob job = jobs.get(id);
+		if (job == null) {
+			throw new NotFoundException("Import job does not exist.");
+		}
+
+		return job;
+	}
+
+	private Room importFromV2(final ImportExportContainer container, final ImportJob job) {
+		job.setStatus(ImportJob.Status.RUNNING);
+		try {
+			final Room room = doImportFromV2(container, job);
+			job.setStatus(ImportJob.Status.COMPLETED);
+
+			return room;
+		} catch (final RuntimeException e) {
+			job.setErrorMessage(e.getMessage());
+			job.setStatus(ImportJob.Status.FAILED);
+			throw e;
+		}
+	}
+
+	private Room doImportFromV2(final ImportExportContainer container, final ImportJob job) {
 		final User user = userService.getCurrentUser();
 		logger.debug("Starting import for: {}, triggered by: {}", container.getSession().getName(), user);
 		final Room room = new Room();
@@ -73,6 +159,9 @@ public class ImportServiceImpl implements ImportService {
 		final Set<String> lectureContentGroupIds = lectureContentGroup.getContentIds();
 
 		final ImportExportContainer.ImportExportRoom toImport = container.getSession();
+		final List<ImportExportContainer.ImportExportContent> importExportContents = container.getQuestions();
+		job.setTotalContents(importExportContents.size());
+		job.setTotalAnswers(importExportContents.stream().mapToInt(c -> c.getAnswers().size()).sum());
 
 		room.setOwnerId(user.getId());
 		room.setName(toImport.getName());
@@ -81,14 +170,28 @@ public class ImportServiceImpl implements ImportService {
 		logger.trace("Import room: {}", room);
 
 		final Room savedRoom = roomService.create(room);
+		job.setRoomId(savedRoom.getId());
 
-		for (final ImportExportContainer.ImportExportContent importExportContent : container.getQuestions()) {
+		final List<Content> newContents = new ArrayList<>(importExportContents.size());
+		for (final ImportExportContainer.ImportExportContent importExportContent : importExportContents) {
 			final Content newContent = fromV2Migrator.migrate(importExportContent);
 			logger.trace("Import content: {}", newContent);
 			newContent.setRoomId(savedRoom.getId());
 			final Content.State contentStage = newContent.getState();
 			contentStage.setResponsesEnabled(true);
-			final Content savedContent = contentService.create(newContent);
+			newContents.add(newContent);
+		}
+		if (!newContents.isEmpty()) {
+			contentService.create(newContents);
+		}
+		job.setImportedContents(newContents.size());
+
+		logger.debug("Creating {} guest users for import.", job.getTotalAnswers());
+		final List<UserProfile> guestUsers = userService.createAnonymizedGuestUsers(job.getTotalAnswers());
+		final List<Answer> newAnswers = new ArrayList<>(job.getTotalAnswers());
+		for (int i = 0; i < importExportContents.size(); i++) {
+			final ImportExportContainer.ImportExportContent importExportContent = importExportContents.get(i);
+			final Content savedContent = newContents.get(i);
 
 			if (importExportContent.getQuestionVariant().equals("preparation")) {
 				preparationContentGroupIds.add(savedContent.getId());
@@ -98,19 +201,25 @@ public class ImportServiceImpl implements ImportService {
 
 			for (final de.thm.arsnova.model.migration.v2.Answer v2Answer : importExportContent.getAnswers()) {
 				logger.trace("Answer model v2 to import: {}", v2Answer);
-				final UserProfile newAnonUser = userService.createAnonymizedGuestUser();
 				if (v2Answer.getAnswerText() == null || v2Answer.getAnswerText().isEmpty()) {
 					v2Answer.setAbstention(true);
 				}
 				final Answer newAnswer = fromV2Migrator.migrate(v2Answer, savedContent);
 				newAnswer.setRoomId(savedRoom.getId());
 				newAnswer.setContentId(savedContent.getId());
-				newAnswer.setCreatorId(newAnonUser.getId());
+				newAnswer.setCreatorId(guestUsers.get(newAnswers.size()).getId());
 				logger.trace("Answer model v3 to import: {}", newAnswer);
-				answerService.create(newAnswer);
+				newAnswers.add(newAnswer);
 			}
 		}
 
+		int importedAnswers = 0;
+		for (final List<Answer> answerBatch : Lists.partition(newAnswers, ANSWER_BATCH_SIZE)) {
+			answerService.create(answerBatch);
+			importedAnswers += answerBatch.size();
+			job.setImportedAnswers(importedAnswers);
+		}
+
 		if (!preparationContentGroupIds.isEmpty()) {
 			preparationContentGroup.setRoomId(savedRoom.getId());
 			logger.trace("New content group resulting from import: {}", preparationContentGroup);
@@ -18,18 +18,27 @@
 
 package de.thm.arsnova.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Validator;
 
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
 import de.thm.arsnova.model.Motd;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.persistence.MotdRepository;
@@ -40,12 +49,24 @@ import de.thm.arsnova.web.exceptions.BadRequestException;
  */
 @Service
 public class MotdServiceImpl extends DefaultEntityServiceImpl<Motd> implements MotdService {
+	private static final int ROOM_MOTD_EXPIRY_MINUTES = 60;
+
 	private UserService userService;
 
 	private RoomService roomService;
 
 	private MotdRepository motdRepository;
 
+	/* Timelines of global messages by audience. They are built from a single query and dropped on any change. */
+	private volatile Map<String, MotdTimeline> globalTimelines;
+	private int globalTimelinesVersion;
+
+	/* Timelines of room messages. An entry is kept when its timeline is dropped so its version can still be checked by
+	 * a build which is running concurrently. */
+	private final Cache<String, RoomTimeline> roomTimelines = CacheBuilder.newBuilder()
+			.expireAfterAccess(ROOM_MOTD_EXPIRY_MINUTES, TimeUnit.MINUTES)
+			.build();
+
 	public MotdServiceImpl(
 			final MotdRepository repository,
 			final UserService userService,
@@ -72,34 +93,62 @@ public class MotdServiceImpl extends DefaultEntityServiceImpl<Motd> implements M
 	}
 
 	@Override
-	@Cacheable(cacheNames = "motds", key = "'ROOM' + #roomId")
 	public List<Motd> getCurrentRoomMotds(final Date clientdate, final String roomId) {
-		final List<Motd> motds = motdRepository.findByRoomId(roomId);
-		return filterMotdsByDate(motds, clientdate);
+		try {
+			return roomTimelines.get(roomId, RoomTimeline::new)
+					.get(() -> new MotdTimeline(motdRepository.findByRoomId(roomId)))
+					.getActive(clientdate);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
 	}
 
 	@Override
-	@Cacheable(cacheNames = "motds", key = "#audience")
 	public List<Motd> getCurrentMotds(final Date clientdate, final String audience) {
-		final List<Motd> motds;
-		switch (audience) {
-			case "all":
-				motds = motdRepository.findGlobalForAll();
-				break;
-			case "loggedIn":
-				motds = motdRepository.findGlobalForLoggedIn();
-				break;
-			case "students":
-				motds = motdRepository.findForStudents();
-				break;
-			case "tutors":
-				motds = motdRepository.findGlobalForTutors();
-				break;
-			default:
-				throw new IllegalArgumentException("Invalid audience.");
+		final MotdTimeline timeline = getGlobalTimelines().get(audience);
+		if (timeline == null) {
+			throw new IllegalArgumentException("Invalid audience.");
 		}
 
-		return filterMotdsByDate(motds, clientdate);
+		return timeline.getActive(clientdate);
+	}
+
+	private Map<String, MotdTimeline> getGlobalTimelines() {
+		final Map<String, MotdTimeline> timelines = globalTimelines;
+		if (timelines != null) {
+			return timelines;
+		}
+		final int version;
+		synchronized (this) {
+			version = globalTimelinesVersion;
+		}
+		final Map<Motd.Audience, List<Motd>> motdsByAudience = motdRepository.findGlobalForAdmin().stream()
+				.collect(Collectors.groupingBy(Motd::getAudience));
+		final List<Motd> all = motdsByAudience.getOrDefault(Motd.Audience.ALL, new ArrayList<>());
+		final List<Motd> authenticated = motdsByAudience.getOrDefault(Motd.Audience.AUTHENTICATED, new ArrayList<>());
+		final List<Motd> students = new ArrayList<>(authenticated);
+		students.addAll(motdsByAudience.getOrDefault(Motd.Audience.PARTICIPANTS, new ArrayList<>()));
+		final List<Motd> tutors = new ArrayList<>(authenticated);
+		tutors.addAll(motdsByAudience.getOrDefault(Motd.Audience.AUTHORS, new ArrayList<>()));
+
+		final Map<String, MotdTimeline> builtTimelines = new HashMap<>();
+		builtTimelines.put("all", new MotdTimeline(all));
+		builtTimelines.put("loggedIn", new MotdTimeline(authenticated));
+		builtTimelines.put("students", new MotdTimeline(students));
+		builtTimelines.put("tutors", new MotdTimeline(tutors));
+		synchronized (this) {
+			/* Do not store timelines which have been invalidated while they were built. */
+			if (version == globalTimelinesVersion) {
+				globalTimelines = builtTimelines;
+			}
+		}
+
+		return builtTimelines;
+	}
+
+	private synchronized void invalidateGlobalTimelines() {
+		globalTimelinesVersion++;
+		globalTimelines = null;
 	}
 
 	@Override
@@ -145,7 +194,6 @@ public class MotdServiceImpl extends DefaultEntityServiceImpl<Motd> implements M
 		return createOrUpdateMotd(motd);
 	}
 
-	@CacheEvict(cacheNames = "motds", key = "#motd.audience + #motd.roomId")
 	private Motd createOrUpdateMotd(final Motd motd) {
 		if (motd.getId() != null) {
 			final Motd oldMotd = get(motd.getId());
@@ -164,4 +212,60 @@ public class MotdServiceImpl extends DefaultEntityServiceImpl<Motd> implements M
 
 		return super.create(motd);
 	}
+
+	@EventListener
+	public void handleMotdCreation(final AfterCreationEvent<Motd> event) {
+		invalidateTimeline(event.getEntity());
+	}
+
+	@EventListener
+	public void handleMotdUpdate(final AfterUpdateEvent<Motd> event) {
+		invalidateTimeline(event.getEntity());
+	}
+
+	@EventListener
+	public void handleMotdDeletion(final AfterDeletionEvent<Motd> event) {
+		invalidateTimeline(event.getEntity());
+	}
+
+	private void invalidateTimeline(final Motd motd) {
+		if (motd.getAudience() == Motd.Audience.ROOM) {
+			final RoomTimeline roomTimeline = motd.getRoomId() != null
+					? roomTimelines.getIfPresent(motd.getRoomId()) : null;
+			if (roomTimeline != null) {
+				roomTimeline.invalidate();
+			}
+		} else {
+			invalidateGlobalTimelines();
+		}
+	}
+
+	private static class RoomTimeline {
+		private MotdTimeline timeline;
+		private int version;
+
+		private MotdTimeline get(final Supplier<MotdTimeline> builder) {
+			final int expectedVersion;
+			synchronized (this) {
+				if (timeline != null) {
+					return timeline;
+				}
+				expectedVersion = version;
+			}
+			final MotdTimeline builtTimeline = builder.get();
+			synchronized (this) {
+				/* Do not store a timeline which has been invalidated while it was built. */
+				if (version == expectedVersion) {
+					timeline = builtTimeline;
+				}
+			}
+
+			return builtTimeline;
+		}
+
+		private synchronized void invalidate() {
+			version++;
+			timeline = null;
+		}
+	}
 }
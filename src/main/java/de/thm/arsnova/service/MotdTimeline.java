@@ -0,0 +1,129 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import de.thm.arsnova.model.Motd;
+
+/**
+ * Answers which messages of the day are active at a given time. Messages are sorted by start date so the candidates
+ * can be determined by binary search. The result for the most recently requested time is kept until the next start or
+ * end date of any message is reached.
+ */
+class MotdTimeline {
+	private static class Snapshot {
+		private final long validAfter;
+		private final long validBefore;
+		private final List<Motd> motds;
+
+		Snapshot(final long validAfter, final long validBefore, final List<Motd> motds) {
+			this.validAfter = validAfter;
+			this.validBefore = validBefore;
+			this.motds = motds;
+		}
+
+		boolean isValidAt(final long time) {
+			return time > validAfter && time < validBefore;
+		}
+	}
+
+	private final List<Motd> motds;
+	private final long[] startTimes;
+	private final long[] boundaries;
+	private volatile Snapshot snapshot;
+
+	MotdTimeline(final Collection<Motd> motds) {
+		final List<Motd> sorted = new ArrayList<>(motds);
+		sorted.sort(Comparator.comparingLong(MotdTimeline::getStartTime));
+		this.motds = sorted;
+		this.startTimes = sorted.stream().mapToLong(MotdTimeline::getStartTime).toArray();
+		this.boundaries = sorted.stream()
+				.flatMapToLong(m -> LongStream.of(getStartTime(m), getEndTime(m)))
+				.filter(t -> t != Long.MIN_VALUE && t != Long.MAX_VALUE)
+				.sorted()
+				.toArray();
+	}
+
+	/**
+	 * Returns the messages which have started before and end after the given date.
+	 *
+	 * @param date The point in time
+	 * @return An unmodifiable list of the active messages
+	 */
+	List<Motd> getActive(final Date date) {
+		final long time = date.getTime();
+		final Snapshot current = snapshot;
+		if (current != null && current.isValidAt(time)) {
+			return current.motds;
+		}
+
+		final int candidateCount = countLessThan(startTimes, time);
+		final List<Motd> active = new ArrayList<>();
+		for (int i = 0; i < candidateCount; i++) {
+			if (getEndTime(motds.get(i)) > time) {
+				active.add(motds.get(i));
+			}
+		}
+		final List<Motd> result = Collections.unmodifiableList(active);
+
+		/* The set of active messages only changes at start and end dates, so the result can be reused for all times
+		 * between the surrounding boundaries. */
+		final int next = countLessThan(boundaries, time + 1);
+		final long validAfter = next > 0 ? boundaries[next - 1] : Long.MIN_VALUE;
+		final long validBefore = next < boundaries.length ? boundaries[next] : Long.MAX_VALUE;
+		if (validAfter != time) {
+			snapshot = new Snapshot(validAfter, validBefore, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of elements of the sorted array which are less than the given value.
+	 */
+	private static int countLessThan(final long[] sorted, final long value) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (sorted[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	private static long getStartTime(final Motd motd) {
+		return motd.getStartDate() != null ? motd.getStartDate().getTime() : Long.MIN_VALUE;
+	}
+
+	private static long getEndTime(final Motd motd) {
+		return motd.getEndDate() != null ? motd.getEndDate().getTime() : Long.MAX_VALUE;
+	}
+}
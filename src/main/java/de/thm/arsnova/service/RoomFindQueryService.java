@@ -18,44 +18,49 @@
 
 package de.thm.arsnova.service;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
 import de.thm.arsnova.model.FindQuery;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.UserProfile;
+import de.thm.arsnova.persistence.RoomRepository;
+import de.thm.arsnova.security.User;
 
 @Service
-public class RoomFindQueryService implements FindQueryService<Room> {
+public class RoomFindQueryService extends AbstractFindQueryService<Room> {
 	private RoomService roomService;
 	private UserService userService;
 
-	public RoomFindQueryService(final RoomService roomService, final UserService userService) {
+	public RoomFindQueryService(final RoomService roomService, final UserService userService,
+			final RoomRepository roomRepository) {
+		/* Clients expect the rooms of all filters, e.g. owned and moderated rooms, if no operator is specified. */
+		super(Room.class, roomRepository, FindQuery.LogicalOperator.OR);
 		this.roomService = roomService;
 		this.userService = userService;
+		addPropertyFilter("ownerId", Room::getOwnerId, this::selectByOwnerId, roomService::getUserRoomIds);
+		addExternalFilter("inHistoryOfUserId", this::getIdsInHistoryOfUserId);
+		addExternalFilter("moderatedByUserId", roomService::getRoomIdsByModeratorId);
 	}
 
-	@Override
-	public Set<String> resolveQuery(final FindQuery<Room> findQuery) {
-		final List<List<String>> ids = new ArrayList<>();
-		if (findQuery.getExternalFilters().get("inHistoryOfUserId") instanceof String) {
-			final UserProfile inHistoryOfUser = userService.get(
-					(String) findQuery.getExternalFilters().get("inHistoryOfUserId"));
-			ids.add(inHistoryOfUser.getRoomHistory().stream()
-					.map(UserProfile.RoomHistoryEntry::getRoomId).collect(Collectors.toList()));
-		}
-		if (findQuery.getExternalFilters().get("moderatedByUserId") instanceof String) {
-			final List<String> moderatedRoomIds = roomService.getRoomIdsByModeratorId(
-					(String) findQuery.getExternalFilters().get("moderatedByUserId"));
-			ids.add(moderatedRoomIds);
-		}
-		if (findQuery.getProperties().getOwnerId() != null) {
-			ids.add(roomService.getUserRoomIds(findQuery.getProperties().getOwnerId()));
-		}
-
-		return ids.stream().flatMap(list -> list.stream()).collect(Collectors.toSet());
+	/**
+	 * Rooms are only selected directly for the current user. For other users, {@link RoomService#getUserRoomIds} is
+	 * used which checks the permission.
+	 */
+	private Map<String, Object> selectByOwnerId(final String ownerId) {
+		final User user = userService.getCurrentUser();
+
+		return user != null && ownerId.equals(user.getId())
+				? Collections.singletonMap("ownerId", ownerId) : null;
+	}
+
+	private List<String> getIdsInHistoryOfUserId(final String userId) {
+		final UserProfile inHistoryOfUser = userService.get(userId);
+
+		return inHistoryOfUser.getRoomHistory().stream()
+				.map(UserProfile.RoomHistoryEntry::getRoomId).collect(Collectors.toList());
 	}
 }
@@ -25,14 +25,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -56,6 +54,7 @@ import de.thm.arsnova.persistence.CommentRepository;
 import de.thm.arsnova.persistence.ContentRepository;
 import de.thm.arsnova.persistence.LogEntryRepository;
 import de.thm.arsnova.persistence.RoomRepository;
+import de.thm.arsnova.persistence.UserRepository;
 import de.thm.arsnova.security.User;
 import de.thm.arsnova.service.score.ScoreCalculator;
 import de.thm.arsnova.service.score.ScoreCalculatorFactory;
@@ -80,6 +79,8 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 
 	private CommentRepository commentRepository;
 
+	private UserRepository userRepository;
+
 	private UserService userService;
 
 	private FeedbackService feedbackService;
@@ -88,6 +89,10 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 
 	private ConnectorClient connectorClient;
 
+	private RoomShortIdAllocator shortIdAllocator;
+
+	private RoomShortIdIndex shortIdIndex;
+
 	@Value("${system.inactivity-thresholds.delete-inactive-guest-rooms:0}")
 	private int guestRoomInactivityThresholdDays;
 
@@ -101,9 +106,13 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 			final ScoreCalculatorFactory scoreCalculatorFactory,
 			@Qualifier("defaultJsonMessageConverter")
 			final MappingJackson2HttpMessageConverter jackson2HttpMessageConverter,
-			final Validator validator) {
+			final Validator validator,
+			final RoomShortIdAllocator shortIdAllocator,
+			final RoomShortIdIndex shortIdIndex) {
 		super(Room.class, repository, jackson2HttpMessageConverter.getObjectMapper(), validator);
 		this.roomRepository = repository;
+		this.shortIdAllocator = shortIdAllocator;
+		this.shortIdIndex = shortIdIndex;
 		this.dbLogger = dbLogger;
 		this.userService = userService;
 		this.scoreCalculatorFactory = scoreCalculatorFactory;
@@ -114,6 +123,11 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 		this.commentRepository = commentRepository;
 	}
 
+	@Autowired
+	public void setUserRepository(final UserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
 	@Autowired
 	public void setContentRepository(final ContentRepository contentRepository) {
 		this.contentRepository = contentRepository;
@@ -212,17 +226,16 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 	}
 
 	@Override
-	@Cacheable("room.id-by-shortid")
 	public String getIdByShortId(final String shortId) {
 		if (shortId == null) {
 			throw new NullPointerException("shortId cannot be null");
 		}
-		final Room room = roomRepository.findByShortId(shortId);
-		if (room == null) {
+		final String id = shortIdIndex.getId(shortId);
+		if (id == null) {
 			throw new NotFoundException("No Room exists for short ID");
 		}
 
-		return room.getId();
+		return id;
 	}
 
 	@PreAuthorize("hasPermission(#id, 'room', 'owner')")
@@ -294,27 +307,33 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 	@Override
 	@PreAuthorize("isAuthenticated()")
 	public List<Room> getMyRoomHistory(final int offset, final int limit) {
-		/* TODO: implement pagination */
-		return getUserRoomHistory(userService.getCurrentUser().getId());
+		return getRoomHistory(userService.getCurrentUser().getId(), offset, limit);
 	}
 
 	@Override
 	@PreAuthorize("hasPermission(#userId, 'userprofile', 'read')")
 	public List<Room> getUserRoomHistory(final String userId) {
-		final UserProfile profile = userService.get(userId);
-		final List<String> roomIds = profile.getRoomHistory().stream()
-				.map(entry -> entry.getRoomId()).collect(Collectors.toList());
-		final List<Room> rooms = new ArrayList<>();
-		roomRepository.findAllById(roomIds).forEach(rooms::add);
-
-		return rooms;
+		return getRoomHistory(userId, 0, 0);
 	}
 
 	@Override
 	@PreAuthorize("isAuthenticated()")
 	public List<Room> getMyRoomHistoryInfo(final int offset, final int limit) {
-		final List<Room> rooms = getMyRoomHistory(0, 0);
-		roomRepository.getRoomHistoryWithStatsForUser(rooms, userService.getCurrentUser().getId());
+		final List<Room> rooms = getMyRoomHistory(offset, limit);
+		if (!rooms.isEmpty()) {
+			roomRepository.getRoomHistoryWithStatsForUser(rooms, userService.getCurrentUser().getId());
+		}
+
+		return rooms;
+	}
+
+	/**
+	 * Loads the rooms of the user's room history, most recently visited first.
+	 */
+	private List<Room> getRoomHistory(final String userId, final int offset, final int limit) {
+		final List<String> roomIds = userRepository.findRoomIdsFromRoomHistory(userId, offset, limit);
+		final List<Room> rooms = new ArrayList<>();
+		roomRepository.findAllById(roomIds).forEach(rooms::add);
 
 		return rooms;
 	}
@@ -356,15 +375,7 @@ public class RoomServiceImpl extends DefaultEntityServiceImpl<Room> implements R
 
 	@Override
 	public String generateShortId() {
-		final int low = 10000000;
-		final int high = 100000000;
-		final String keyword = String
-				.valueOf((int) (Math.random() * (high - low) + low));
-
-		if (isShortIdAvailable(keyword)) {
-			return keyword;
-		}
-		return generateShortId();
+		return shortIdAllocator.allocate();
 	}
 
 	@Override
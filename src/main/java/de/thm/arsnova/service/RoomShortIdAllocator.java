@@ -0,0 +1,80 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import de.thm.arsnova.persistence.RoomRepository;
+
+/**
+ * Allocates unused short IDs for rooms.
+ *
+ * <p>
+ * Random candidates are checked against the {@link RoomShortIdIndex}, which
+ * holds the short IDs of all rooms, so a free ID is found without querying the
+ * database. A single lookup confirms the ID before it is returned since it
+ * might have been taken by another instance. Returned IDs are reserved until
+ * the room has been created and shows up in the index.
+ * </p>
+ */
+@Component
+public class RoomShortIdAllocator {
+	private static final Logger logger = LoggerFactory.getLogger(RoomShortIdAllocator.class);
+	private static final int LOW = 10000000;
+	private static final int HIGH = 100000000;
+	private static final int MAX_ATTEMPTS = 10;
+	private static final int RESERVATION_TTL_SECONDS = 60;
+
+	private final RoomRepository roomRepository;
+	private final RoomShortIdIndex shortIdIndex;
+	private final Cache<String, Boolean> reservedShortIds = CacheBuilder.newBuilder()
+			.expireAfterWrite(RESERVATION_TTL_SECONDS, TimeUnit.SECONDS)
+			.build();
+
+	public RoomShortIdAllocator(final RoomRepository roomRepository, final RoomShortIdIndex shortIdIndex) {
+		this.roomRepository = roomRepository;
+		this.shortIdIndex = shortIdIndex;
+	}
+
+	/**
+	 * Returns a short ID which is not used by any room. The ID is reserved
+	 * immediately so it is not handed out twice by this instance.
+	 */
+	public String allocate() {
+		for (int i = 0; i < MAX_ATTEMPTS; i++) {
+			final String shortId = String.valueOf(ThreadLocalRandom.current().nextInt(LOW, HIGH));
+			if (shortIdIndex.isTaken(shortId)
+					|| reservedShortIds.asMap().putIfAbsent(shortId, Boolean.TRUE) != null) {
+				continue;
+			}
+			if (roomRepository.findByShortId(shortId) == null) {
+				return shortId;
+			}
+			logger.debug("Short ID {} has been taken by another instance.", shortId);
+		}
+
+		throw new IllegalStateException("Could not allocate a short ID.");
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.ektorp.DbAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.RoomRepository;
+
+/**
+ * Resolves short IDs of rooms to their IDs and vice versa.
+ *
+ * <p>
+ * The mapping of all rooms is loaded from the database at startup and kept up
+ * to date by room creation, update and deletion events, so known short IDs are
+ * resolved without querying the database. Rooms which have been created by
+ * another instance are looked up in the database on first access. Short IDs
+ * which do not belong to any room are remembered for a short time, so repeated
+ * lookups of unknown short IDs, e.g. typos or scans, do not reach the database.
+ * The {@link RoomShortIdAllocator} checks candidates for new short IDs against
+ * the index.
+ * </p>
+ */
+@Component
+public class RoomShortIdIndex {
+	private static final Logger logger = LoggerFactory.getLogger(RoomShortIdIndex.class);
+	private static final int NEGATIVE_LOOKUP_TTL_SECONDS = 30;
+	private static final int NEGATIVE_LOOKUP_MAX_SIZE = 10000;
+
+	private final RoomRepository roomRepository;
+	private final Map<String, String> idsByShortId = new ConcurrentHashMap<>();
+	private final Map<String, String> shortIdsById = new ConcurrentHashMap<>();
+	private final Cache<String, Boolean> unknownShortIds = CacheBuilder.newBuilder()
+			.expireAfterWrite(NEGATIVE_LOOKUP_TTL_SECONDS, TimeUnit.SECONDS)
+			.maximumSize(NEGATIVE_LOOKUP_MAX_SIZE)
+			.build();
+	private volatile boolean loaded = false;
+
+	public RoomShortIdIndex(final RoomRepository roomRepository) {
+		this.roomRepository = roomRepository;
+	}
+
+	@EventListener
+	public void handleContextRefresh(final ContextRefreshedEvent event) {
+		try {
+			load();
+		} catch (final DbAccessException e) {
+			logger.error("Could not load short IDs of rooms. Loading is retried on first lookup.", e);
+		}
+	}
+
+	/**
+	 * Returns the ID of the room with the given short ID.
+	 *
+	 * @param shortId The short ID of the room
+	 * @return The room's ID or <code>null</code> if no room exists for the short ID
+	 */
+	public String getId(final String shortId) {
+		load();
+		final String id = idsByShortId.get(shortId);
+		if (id != null || unknownShortIds.getIfPresent(shortId) != null) {
+			return id;
+		}
+		final Room room = roomRepository.findByShortId(shortId);
+		if (room == null) {
+			unknownShortIds.put(shortId, Boolean.TRUE);
+
+			return null;
+		}
+		put(room);
+
+		return room.getId();
+	}
+
+	/**
+	 * Returns the short ID of the room with the given ID if it is known to the
+	 * index.
+	 *
+	 * @param id The ID of the room
+	 * @return The room's short ID or <code>null</code> if the room is not known
+	 */
+	public String getShortId(final String id) {
+		load();
+
+		return shortIdsById.get(id);
+	}
+
+	/**
+	 * Returns whether the short ID belongs to a room known to the index. Rooms
+	 * which have been created by another instance are not looked up.
+	 *
+	 * @param shortId The short ID
+	 * @return <code>true</code> if a known room uses the short ID
+	 */
+	public boolean isTaken(final String shortId) {
+		load();
+
+		return idsByShortId.containsKey(shortId);
+	}
+
+	@EventListener
+	public void handleRoomCreation(final AfterCreationEvent<Room> event) {
+		put(event.getEntity());
+	}
+
+	@EventListener
+	public void handleRoomUpdate(final AfterUpdateEvent<Room> event) {
+		final Room room = event.getEntity();
+		final Room oldRoom = event.getOldEntity();
+		if (oldRoom != null && room.getShortId() != null
+				&& !Objects.equals(oldRoom.getShortId(), room.getShortId())) {
+			put(room);
+		}
+	}
+
+	@EventListener
+	public void handleRoomDeletion(final AfterDeletionEvent<Room> event) {
+		remove(event.getEntity().getId());
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (loaded) {
+				return;
+			}
+			/* Entries added by events in the meantime are more recent than the loaded ones. */
+			final Map<String, String> ids = roomRepository.findAllIdsByShortId();
+			ids.forEach((shortId, id) -> {
+				idsByShortId.putIfAbsent(shortId, id);
+				shortIdsById.putIfAbsent(id, shortId);
+			});
+			loaded = true;
+			logger.info("Loaded {} short IDs of rooms.", ids.size());
+		}
+	}
+
+	private synchronized void put(final Room room) {
+		if (room.getId() == null || room.getShortId() == null) {
+			return;
+		}
+		final String oldShortId = shortIdsById.put(room.getId(), room.getShortId());
+		if (oldShortId != null && !oldShortId.equals(room.getShortId())) {
+			idsByShortId.remove(oldShortId, room.getId());
+		}
+		idsByShortId.put(room.getShortId(), room.getId());
+		unknownShortIds.invalidate(room.getShortId());
+	}
+
+	private synchronized void remove(final String id) {
+		final String shortId = id != null ? shortIdsById.remove(id) : null;
+		if (shortId != null) {
+			idsByShortId.remove(shortId, id);
+		}
+	}
+}
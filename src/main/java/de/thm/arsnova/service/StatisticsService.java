@@ -25,4 +25,11 @@ import de.thm.arsnova.model.Statistics;
  */
 public interface StatisticsService {
 	Statistics getStatistics();
+
+	/**
+	 * Returns a counter which is incremented whenever the statistics change.
+	 *
+	 * @return The statistics version
+	 */
+	long getVersion();
 }
@@ -18,10 +18,13 @@
 
 package de.thm.arsnova.service;
 
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import de.thm.arsnova.config.TaskExecutorConfig;
 import de.thm.arsnova.model.Statistics;
 import de.thm.arsnova.persistence.StatisticsRepository;
 
@@ -35,18 +38,35 @@ public class StatisticsServiceImpl implements StatisticsService {
 
 	private UserService userService;
 
+	private TaskExecutor statisticsExecutor;
+
 	public StatisticsServiceImpl(
 			final StatisticsRepository repository,
-			final UserService userService) {
+			final UserService userService,
+			@TaskExecutorConfig.StatisticsExecutor final TaskExecutor statisticsExecutor) {
 		this.statisticsRepository = repository;
 		this.userService = userService;
+		this.statisticsExecutor = statisticsExecutor;
 	}
 
-	private Statistics statistics = new Statistics();
+	private volatile Statistics statistics = new Statistics();
+
+	private final AtomicLong version = new AtomicLong();
 
+	/* The views are queried by the statistics executor so slow queries do not delay other scheduled tasks. */
 	@Scheduled(initialDelay = 0, fixedRate = 10000)
+	private void scheduleRefresh() {
+		statisticsExecutor.execute(this::refreshStatistics);
+	}
+
 	private void refreshStatistics() {
-		statistics = loadStatistics();
+		final Statistics loadedStatistics = loadStatistics();
+		loadedStatistics.setActiveUsers(statistics.getActiveUsers());
+		/* The version is only bumped for actual changes so clients polling with ETags are not sent equal data. */
+		if (!loadedStatistics.equals(statistics)) {
+			statistics = loadedStatistics;
+			version.incrementAndGet();
+		}
 	}
 
 	@Cacheable("statistics")
@@ -56,7 +76,22 @@ public class StatisticsServiceImpl implements StatisticsService {
 
 	@Override
 	public Statistics getStatistics() {
-		statistics.setActiveUsers(userService.loggedInUsers());
+		updateActiveUsers();
 		return statistics;
 	}
+
+	@Override
+	public long getVersion() {
+		updateActiveUsers();
+		return version.get();
+	}
+
+	private void updateActiveUsers() {
+		final int activeUsers = userService.loggedInUsers();
+		final Statistics current = statistics;
+		if (current.getActiveUsers() != activeUsers) {
+			current.setActiveUsers(activeUsers);
+			version.incrementAndGet();
+		}
+	}
 }
@@ -18,36 +18,81 @@
 
 package de.thm.arsnova.service;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.ektorp.DbAccessException;
+import org.ektorp.DocumentNotFoundException;
+import org.ektorp.UpdateConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.intercept.RunAsUserToken;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import de.thm.arsnova.config.SecurityConfig;
+import de.thm.arsnova.event.BeforeDeletionEvent;
 import de.thm.arsnova.model.Content;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.persistence.AnswerRepository;
+import de.thm.arsnova.persistence.ContentRepository;
 import de.thm.arsnova.security.User;
 
+/**
+ * Manages delayed round changes of contents.
+ *
+ * <p>
+ * All timers share a single scheduler thread. The end of a round is persisted
+ * as {@link Content.State#getRoundEndTimestamp()}, so pending timers are
+ * restored from the database after a restart and timers scheduled by other
+ * instances are picked up periodically. Every instance schedules every timer,
+ * but the round change itself is a revision-checked update of the content: the
+ * first instance to write it owns the timer while all others fail with a
+ * conflict and skip it.
+ * </p>
+ */
 @Service
 public class TimerServiceImpl implements TimerService {
-	private HashMap<String, Timer> timerList = new HashMap<>();
+	private static final Logger logger = LoggerFactory.getLogger(TimerServiceImpl.class);
+	private static final int TIMER_RECONCILIATION_INITIAL_DELAY_MS = 30 * 1000;
+	private static final int TIMER_RECONCILIATION_INTERVAL_MS = 5 * 60 * 1000;
+	private static final String SYSTEM_AUTHENTICATION_KEY = SecurityConfig.RUN_AS_KEY_PREFIX + "RoundTimer";
+
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final Map<String, RoundTimer> timers = new ConcurrentHashMap<>();
 	private UserService userService;
 	private RoomService roomService;
 	private ContentService contentService;
 	private AnswerService answerService;
 	private AnswerRepository answerRepository;
+	private ContentRepository contentRepository;
 
 	public TimerServiceImpl(final UserService userService, final RoomService roomService,
 			final ContentService contentService, final AnswerService answerService,
-			final AnswerRepository answerRepository) {
+			final AnswerRepository answerRepository, final ContentRepository contentRepository) {
 		this.userService = userService;
 		this.roomService = roomService;
 		this.contentService = contentService;
 		this.answerService = answerService;
 		this.answerRepository = answerRepository;
+		this.contentRepository = contentRepository;
+		this.scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("RoundTimer"));
+		this.scheduler.setRemoveOnCancelPolicy(true);
 	}
 
 	@Override
@@ -72,19 +117,11 @@ public class TimerServiceImpl implements TimerService {
 		final Room room = roomService.get(content.getRoomId());
 
 		final Date date = new Date();
-		final Timer timer = new Timer();
 		final Date endDate = new Date(date.getTime() + (time * 1000));
 		updateRoundStartVariables(content, date, endDate);
 		contentService.update(content);
 
-		timerList.put(contentId, timer);
-
-		timer.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				startNewRound(contentId);
-			}
-		}, endDate);
+		scheduleRoundEnd(contentId, endDate);
 	}
 
 	@Override
@@ -106,12 +143,10 @@ public class TimerServiceImpl implements TimerService {
 
 	@Override
 	public void cancelDelayedRoundChange(final String contentId) {
-		final Timer timer = timerList.get(contentId);
+		final RoundTimer timer = timers.remove(contentId);
 
 		if (null != timer) {
-			timer.cancel();
-			timerList.remove(contentId);
-			timer.purge();
+			timer.future.cancel(false);
 		}
 	}
 
@@ -134,6 +169,94 @@ public class TimerServiceImpl implements TimerService {
 		contentService.update(content);
 	}
 
+	@EventListener
+	public void handleContentDeletion(final BeforeDeletionEvent<Content> event) {
+		cancelDelayedRoundChange(event.getEntity().getId());
+	}
+
+	/**
+	 * Schedules all round changes which are pending according to the database.
+	 * This restores timers after a restart and takes over timers of other
+	 * instances which have been shut down.
+	 */
+	@Scheduled(initialDelay = TIMER_RECONCILIATION_INITIAL_DELAY_MS, fixedDelay = TIMER_RECONCILIATION_INTERVAL_MS)
+	public void reconcileTimers() {
+		final List<Content> contents;
+		try {
+			contents = contentRepository.findWithPendingRoundEnd();
+		} catch (final DbAccessException e) {
+			logger.warn("Could not load pending round changes.", e);
+
+			return;
+		}
+		for (final Content content : contents) {
+			scheduleRoundEnd(content.getId(), content.getState().getRoundEndTimestamp());
+		}
+		logger.debug("{} round changes are pending.", timers.size());
+	}
+
+	@PreDestroy
+	public void shutdownScheduler() {
+		/* Pending round changes are persisted and will be rescheduled on startup. */
+		scheduler.shutdownNow();
+	}
+
+	private void scheduleRoundEnd(final String contentId, final Date endDate) {
+		timers.compute(contentId, (id, timer) -> {
+			if (timer != null) {
+				if (timer.endDate.equals(endDate)) {
+					return timer;
+				}
+				timer.future.cancel(false);
+			}
+			final long delay = Math.max(0, endDate.getTime() - System.currentTimeMillis());
+
+			return new RoundTimer(endDate,
+					scheduler.schedule(() -> endRound(id, endDate), delay, TimeUnit.MILLISECONDS));
+		});
+	}
+
+	private void endRound(final String contentId, final Date endDate) {
+		timers.computeIfPresent(contentId, (id, timer) -> timer.endDate.equals(endDate) ? null : timer);
+		try {
+			/* The content is loaded from the database since the round change might have been modified by
+			 * another instance in the meantime. */
+			final Content content = contentRepository.findOne(contentId);
+			final Date persistedEndDate = content.getState().getRoundEndTimestamp();
+			if (persistedEndDate == null) {
+				return;
+			}
+			if (persistedEndDate.getTime() > System.currentTimeMillis()) {
+				scheduleRoundEnd(contentId, persistedEndDate);
+
+				return;
+			}
+			final Map<String, Object> changes = new HashMap<>();
+			changes.put("roundEndTimestamp", null);
+			changes.put("responsesEnabled", false);
+			runAsSystem(() -> {
+				try {
+					contentService.patch(content, changes, Content::getState);
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		} catch (final DocumentNotFoundException e) {
+			logger.debug("Content {} has been deleted before the end of its round.", contentId);
+		} catch (final UpdateConflictException e) {
+			logger.debug("Round change of content {} has been handled by another instance.", contentId);
+		} catch (final RuntimeException e) {
+			logger.error("Round change of content {} failed.", contentId, e);
+		}
+	}
+
+	private void runAsSystem(final Runnable runnable) {
+		final SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(new RunAsUserToken(SYSTEM_AUTHENTICATION_KEY, "system", null,
+				AuthorityUtils.createAuthorityList("ROLE_RUN_AS_SYSTEM"), null));
+		new DelegatingSecurityContextRunnable(runnable, context).run();
+	}
+
 	private void updateRoundStartVariables(final Content content, final Date start, final Date end) {
 		if (content.getState().getRound() == 1 && content.getState().getRoundEndTimestamp() == null) {
 			content.getState().setRound(2);
@@ -165,4 +288,14 @@ public class TimerServiceImpl implements TimerService {
 		content.getState().setRound(1);
 		content.getState().setRoundEndTimestamp(null);
 	}
+
+	private static class RoundTimer {
+		private final Date endDate;
+		private final ScheduledFuture<?> future;
+
+		RoundTimer(final Date endDate, final ScheduledFuture<?> future) {
+			this.endDate = endDate;
+			this.future = future;
+		}
+	}
 }
@@ -18,32 +18,26 @@
 
 package de.thm.arsnova.service;
 
-import java.util.HashSet;
-import java.util.List;
+import java.util.Collections;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
-import de.thm.arsnova.model.FindQuery;
 import de.thm.arsnova.model.UserProfile;
+import de.thm.arsnova.persistence.UserRepository;
 
 @Service
-public class UserFindQueryService implements FindQueryService<UserProfile> {
+public class UserFindQueryService extends AbstractFindQueryService<UserProfile> {
 	private UserService userService;
 
-	public UserFindQueryService(final UserService userService) {
+	public UserFindQueryService(final UserService userService, final UserRepository userRepository) {
+		super(UserProfile.class, userRepository);
 		this.userService = userService;
+		addPropertyFilter("loginId", UserProfile::getLoginId,
+				loginId -> Collections.singletonMap("loginId", loginId), this::getIdsByLoginId);
 	}
 
-	@Override
-	public Set<String> resolveQuery(final FindQuery<UserProfile> findQuery) {
-		final Set<String> userIds = new HashSet<>();
-		if (findQuery.getProperties().getLoginId() != null) {
-			final List<UserProfile> userList = userService.getByLoginId(findQuery.getProperties().getLoginId());
-			for (final UserProfile user : userList) {
-				userIds.add(user.getId());
-			}
-		}
-
-		return userIds;
+	private Set<String> getIdsByLoginId(final String loginId) {
+		return userService.getByLoginId(loginId).stream().map(UserProfile::getId).collect(Collectors.toSet());
 	}
 }
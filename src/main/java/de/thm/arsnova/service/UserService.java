@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -59,6 +60,16 @@ public interface UserService extends EntityService<UserProfile> {
 
 	Set<Map.Entry<UUID, String>> getSocketIdToUserId();
 
+	/**
+	 * Returns the authentication for the user assigned to the socket. It is created once and reused for subsequent
+	 * calls until the socket is reassigned or disconnected, the user logs out or the user's profile changes.
+	 *
+	 * @param socketId The ID of the socket.io client
+	 * @param grantedAuthorities The authorities used if the authentication has to be created
+	 * @return The authentication or <code>null</code> if no user is assigned to the socket
+	 */
+	Authentication getAuthenticationBySocketId(UUID socketId, Collection<GrantedAuthority> grantedAuthorities);
+
 	boolean isUserInRoom(String userId, String roomId);
 
 	Set<String> getUsersByRoomId(String roomId);
@@ -91,6 +102,8 @@ public interface UserService extends EntityService<UserProfile> {
 
 	UserProfile createAnonymizedGuestUser();
 
+	List<UserProfile> createAnonymizedGuestUsers(int count);
+
 	UserProfile update(UserProfile userProfile);
 
 	UserProfile deleteByUsername(String username);
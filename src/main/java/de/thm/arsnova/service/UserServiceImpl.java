@@ -24,15 +24,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang.CharEncoding;
@@ -44,18 +48,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.intercept.RunAsUserToken;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -70,12 +79,17 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
 
+import de.thm.arsnova.config.SecurityConfig;
+import de.thm.arsnova.config.TaskExecutorConfig;
 import de.thm.arsnova.config.properties.AuthenticationProviderProperties;
 import de.thm.arsnova.config.properties.SecurityProperties;
 import de.thm.arsnova.config.properties.SystemProperties;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
 import de.thm.arsnova.model.ClientAuthentication;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.UserProfile;
+import de.thm.arsnova.model.serialization.View;
 import de.thm.arsnova.persistence.UserRepository;
 import de.thm.arsnova.security.GuestUserDetailsService;
 import de.thm.arsnova.security.User;
@@ -105,19 +119,34 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 	private static final long ACTIVATION_KEY_CHECK_INTERVAL_MS = 30 * 60 * 1000L;
 	private static final long ACTIVATION_KEY_DURABILITY_MS = 6 * 60 * 60 * 1000L;
 
+	private static final int ROOM_HISTORY_FLUSH_INTERVAL_MS = 5000;
+	private static final long ROOM_HISTORY_UPDATE_THRESHOLD_MS = 10 * 60 * 1000L;
+
+	private static final String SYSTEM_AUTHENTICATION_KEY = SecurityConfig.RUN_AS_KEY_PREFIX + "RoomHistory";
+
 	private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
 	private static final ConcurrentHashMap<UUID, String> socketIdToUserId = new ConcurrentHashMap<>();
 
+	/* authentications bound to sockets so they do not have to be recreated for every message */
+	private static final ConcurrentHashMap<UUID, Authentication> socketIdToAuthentication = new ConcurrentHashMap<>();
+
+	/* incremented when authentications are dropped because of profile changes, guarded by socketIdToAuthentication */
+	private static long socketAuthenticationGeneration;
+
 	/* for the new STOMP over ws functionality */
 	private static final ConcurrentHashMap<String, String> wsSessionIdToJwt = new ConcurrentHashMap<>();
 
 	/* used for Socket.IO online check solution (new) */
 	private static final ConcurrentHashMap<String, String> userIdToRoomId = new ConcurrentHashMap<>();
 
+	/* room visits which have not been written to the user profiles yet: userId -> (roomId -> lastVisit) */
+	private final ConcurrentHashMap<String, Map<String, Date>> pendingRoomVisits = new ConcurrentHashMap<>();
+
 	private UserRepository userRepository;
 	private JwtService jwtService;
 	private JavaMailSender mailSender;
+	private TaskExecutor mailExecutor;
 
 	private SystemProperties systemProperties;
 	private SecurityProperties securityProperties;
@@ -299,7 +328,10 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 
 	@Override
 	public void putUserIdToSocketId(final UUID socketId, final String userId) {
-		socketIdToUserId.put(socketId, userId);
+		synchronized (socketIdToAuthentication) {
+			socketIdToUserId.put(socketId, userId);
+			socketIdToAuthentication.remove(socketId);
+		}
 	}
 
 	@Override
@@ -309,7 +341,39 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 
 	@Override
 	public void removeUserToSocketId(final UUID socketId) {
-		socketIdToUserId.remove(socketId);
+		synchronized (socketIdToAuthentication) {
+			socketIdToUserId.remove(socketId);
+			socketIdToAuthentication.remove(socketId);
+		}
+	}
+
+	@Override
+	public Authentication getAuthenticationBySocketId(
+			final UUID socketId, final Collection<GrantedAuthority> grantedAuthorities) {
+		final Authentication authentication = socketIdToAuthentication.get(socketId);
+		if (authentication != null) {
+			return authentication;
+		}
+		final String userId = socketIdToUserId.get(socketId);
+		if (userId == null) {
+			return null;
+		}
+		final long generation;
+		synchronized (socketIdToAuthentication) {
+			generation = socketAuthenticationGeneration;
+		}
+		final User user = loadUser(userId, grantedAuthorities);
+		final Authentication createdAuthentication =
+				new UsernamePasswordAuthenticationToken(user, null, grantedAuthorities);
+		synchronized (socketIdToAuthentication) {
+			/* Do not store an authentication which has been invalidated or whose socket has been rebound or closed
+			 * while it was created. */
+			if (generation == socketAuthenticationGeneration && userId.equals(socketIdToUserId.get(socketId))) {
+				socketIdToAuthentication.put(socketId, createdAuthentication);
+			}
+		}
+
+		return createdAuthentication;
 	}
 
 	@Override
@@ -365,6 +429,45 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 	public void removeUserIdFromMaps(final String userId) {
 		if (userId != null) {
 			userIdToRoomId.remove(userId);
+			removeSocketAuthentications(userId);
+		}
+	}
+
+	@EventListener
+	public void handleUserProfileUpdate(final AfterUpdateEvent<UserProfile> event) {
+		/* Most updates, e.g. of the room history, do not affect the authentication. */
+		if (affectsAuthentication(event.getEntity(), event.getOldEntity())) {
+			removeSocketAuthentications(event.getEntity().getId());
+		}
+	}
+
+	@EventListener
+	public void handleUserProfileDeletion(final AfterDeletionEvent<UserProfile> event) {
+		removeSocketAuthentications(event.getEntity().getId());
+	}
+
+	/**
+	 * Checks if the update of a profile changes a property which is part of a {@link User}.
+	 */
+	private static boolean affectsAuthentication(final UserProfile userProfile, final UserProfile oldUserProfile) {
+		if (oldUserProfile == null) {
+			return true;
+		}
+		final UserProfile.Account account = userProfile.getAccount();
+		final UserProfile.Account oldAccount = oldUserProfile.getAccount();
+
+		return !Objects.equals(userProfile.getLoginId(), oldUserProfile.getLoginId())
+				|| userProfile.getAuthProvider() != oldUserProfile.getAuthProvider()
+				|| !Objects.equals(account != null ? account.getPassword() : null,
+						oldAccount != null ? oldAccount.getPassword() : null)
+				|| !Objects.equals(account != null ? account.getActivationKey() : null,
+						oldAccount != null ? oldAccount.getActivationKey() : null);
+	}
+
+	private void removeSocketAuthentications(final String userId) {
+		synchronized (socketIdToAuthentication) {
+			socketAuthenticationGeneration++;
+			socketIdToAuthentication.values().removeIf(auth -> userId.equals(((User) auth.getPrincipal()).getId()));
 		}
 	}
 
@@ -514,6 +617,19 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 		return userProfile;
 	}
 
+	@Override
+	public List<UserProfile> createAnonymizedGuestUsers(final int count) {
+		final List<UserProfile> userProfiles = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			userProfiles.add(new UserProfile(UserProfile.AuthProvider.ANONYMIZED, generateGuestId()));
+		}
+		if (!userProfiles.isEmpty()) {
+			create(userProfiles);
+		}
+
+		return userProfiles;
+	}
+
 	private String encodePassword(final String password) {
 		if (null == encoder) {
 			encoder = new BCryptPasswordEncoder(12);
@@ -563,29 +679,137 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 		return userProfile;
 	}
 
+	/**
+	 * Records a visit of the room. The visit is buffered and written to the
+	 * user profile by {@link #flushRoomHistory()}. Repeated visits are only
+	 * recorded if the last visit is older than
+	 * {@link #ROOM_HISTORY_UPDATE_THRESHOLD_MS}.
+	 */
 	@Override
 	@PreAuthorize("hasPermission(#userProfile, 'update')")
 	public void addRoomToHistory(final UserProfile userProfile, final Room room) {
 		if (userProfile.getId().equals(room.getOwnerId())) {
 			return;
 		}
-		final Set<UserProfile.RoomHistoryEntry> roomHistory = userProfile.getRoomHistory();
-		final UserProfile.RoomHistoryEntry entry = new UserProfile.RoomHistoryEntry(room.getId(), new Date());
-		/* TODO: lastVisit in roomHistory is currently not updated by subsequent method invocations */
-		if (!roomHistory.contains(entry)) {
-			roomHistory.add(entry);
-			final Map<String, Object> changes = Collections.singletonMap("roomHistory", roomHistory);
-			try {
-				super.patch(userProfile, changes);
-			} catch (final IOException e) {
-				logger.error("Could not patch RoomHistory");
+		final Date now = new Date();
+		final boolean recentlyVisited = userProfile.getRoomHistory().stream().anyMatch(e ->
+				e.getRoomId().equals(room.getId()) && e.getLastVisit() != null
+				&& now.getTime() - e.getLastVisit().getTime() < ROOM_HISTORY_UPDATE_THRESHOLD_MS);
+		if (recentlyVisited) {
+			return;
+		}
+		pendingRoomVisits.compute(userProfile.getId(), (id, visits) -> {
+			final Map<String, Date> roomVisits = visits != null ? visits : new HashMap<>();
+			roomVisits.put(room.getId(), now);
+
+			return roomVisits;
+		});
+	}
+
+	/**
+	 * Writes buffered room visits to the user profiles. The profiles are
+	 * patched with a single bulk request on behalf of the system since there
+	 * is no user authentication available for scheduled tasks.
+	 */
+	@Scheduled(fixedDelay = ROOM_HISTORY_FLUSH_INTERVAL_MS)
+	@PreDestroy
+	public void flushRoomHistory() {
+		if (pendingRoomVisits.isEmpty()) {
+			return;
+		}
+
+		final Map<String, Map<String, Date>> visitsByUserId = new HashMap<>();
+		for (final String userId : pendingRoomVisits.keySet()) {
+			final Map<String, Date> visits = pendingRoomVisits.remove(userId);
+			if (visits != null) {
+				visitsByUserId.put(userId, visits);
 			}
 		}
+		final SecurityContext previousContext = SecurityContextHolder.getContext();
+		try {
+			final List<UserProfile> userProfiles = new ArrayList<>();
+			final Map<String, Map<String, Object>> changesByUserId = new HashMap<>();
+			for (final UserProfile userProfile : userRepository.findAllById(visitsByUserId.keySet())) {
+				final Set<UserProfile.RoomHistoryEntry> roomHistory = userProfile.getRoomHistory().stream()
+						.map(e -> new UserProfile.RoomHistoryEntry(e.getRoomId(), e.getLastVisit()))
+						.collect(Collectors.toCollection(HashSet::new));
+				if (!mergeRoomVisits(roomHistory, visitsByUserId.get(userProfile.getId()))) {
+					continue;
+				}
+				userProfiles.add(userProfile);
+				changesByUserId.put(userProfile.getId(), Collections.singletonMap("roomHistory", roomHistory));
+			}
+			if (userProfiles.isEmpty()) {
+				return;
+			}
+			SecurityContextHolder.setContext(createSystemSecurityContext());
+			final Set<String> patchedUserIds = new HashSet<>();
+			patchEach(userProfiles, u -> changesByUserId.get(u.getId()), Function.identity(), View.Persistence.class)
+					.forEach(u -> patchedUserIds.add(u.getId()));
+			changesByUserId.keySet().stream()
+					.filter(userId -> !patchedUserIds.contains(userId))
+					.forEach(userId -> requeueRoomVisits(userId, visitsByUserId.get(userId)));
+			logger.debug("Updated room history of {} users, {} failed.",
+					patchedUserIds.size(), changesByUserId.size() - patchedUserIds.size());
+		} catch (final IOException | DbAccessException e) {
+			logger.error("Could not update room history.", e);
+			visitsByUserId.forEach(this::requeueRoomVisits);
+		} finally {
+			SecurityContextHolder.setContext(previousContext);
+		}
+	}
+
+	private SecurityContext createSystemSecurityContext() {
+		final SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(new RunAsUserToken(SYSTEM_AUTHENTICATION_KEY, "system", null,
+				AuthorityUtils.createAuthorityList("ROLE_RUN_AS_SYSTEM"), null));
+
+		return context;
+	}
+
+	/**
+	 * Puts room visits which could not be written back into the buffer so they
+	 * are retried with the next flush. Visits which have been buffered in the
+	 * meantime take precedence if they are more recent.
+	 */
+	private void requeueRoomVisits(final String userId, final Map<String, Date> visits) {
+		pendingRoomVisits.compute(userId, (id, pendingVisits) -> {
+			if (pendingVisits == null) {
+				return visits;
+			}
+			visits.forEach((roomId, lastVisit) -> pendingVisits.merge(roomId, lastVisit,
+					(pendingVisit, failedVisit) -> pendingVisit.before(failedVisit) ? failedVisit : pendingVisit));
+
+			return pendingVisits;
+		});
+	}
+
+	private boolean mergeRoomVisits(final Set<UserProfile.RoomHistoryEntry> roomHistory,
+			final Map<String, Date> visits) {
+		boolean modified = false;
+		for (final Entry<String, Date> visit : visits.entrySet()) {
+			final UserProfile.RoomHistoryEntry entry = roomHistory.stream()
+					.filter(e -> e.getRoomId().equals(visit.getKey())).findAny().orElse(null);
+			if (entry == null) {
+				roomHistory.add(new UserProfile.RoomHistoryEntry(visit.getKey(), visit.getValue()));
+				modified = true;
+			} else if (entry.getLastVisit() == null || entry.getLastVisit().before(visit.getValue())) {
+				entry.setLastVisit(visit.getValue());
+				modified = true;
+			}
+		}
+
+		return modified;
 	}
 
 	@Override
 	@PreAuthorize("hasPermission(#userProfile, 'update')")
 	public void deleteRoomFromHistory(final UserProfile userProfile, final Room room) {
+		pendingRoomVisits.computeIfPresent(userProfile.getId(), (id, visits) -> {
+			visits.remove(room.getId());
+
+			return visits.isEmpty() ? null : visits;
+		});
 		final Set<UserProfile.RoomHistoryEntry> roomHistory = userProfile.getRoomHistory();
 
 		final Set<UserProfile.RoomHistoryEntry> filteredRoomHistory = roomHistory.stream()
@@ -712,9 +936,27 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 			helper.setText(body);
 
 			logger.info("Sending mail \"{}\" from \"{}\" to \"{}\"", subject, msg.getFrom(), userProfile.getLoginId());
-			mailSender.send(msg);
-		} catch (final MailException | MessagingException e) {
+		} catch (final MessagingException e) {
 			logger.warn("Mail \"{}\" could not be sent.", subject, e);
+
+			return;
+		}
+		final Runnable sendTask = () -> {
+			try {
+				mailSender.send(msg);
+			} catch (final MailException e) {
+				logger.warn("Mail \"{}\" could not be sent.", subject, e);
+			}
+		};
+		if (mailExecutor == null) {
+			sendTask.run();
+
+			return;
+		}
+		try {
+			mailExecutor.execute(sendTask);
+		} catch (final TaskRejectedException e) {
+			logger.warn("Mail \"{}\" could not be sent because the mail queue is full.", subject);
 		}
 	}
 
@@ -731,6 +973,11 @@ public class UserServiceImpl extends DefaultEntityServiceImpl<UserProfile> imple
 		this.jwtService = jwtService;
 	}
 
+	@Autowired(required = false)
+	public void setMailExecutor(@TaskExecutorConfig.MailExecutor final TaskExecutor mailExecutor) {
+		this.mailExecutor = mailExecutor;
+	}
+
 	public void addWsSessionToJwtMapping(final String wsSessionId, final String jwt) {
 		wsSessionIdToJwt.put(wsSessionId, jwt);
 	}
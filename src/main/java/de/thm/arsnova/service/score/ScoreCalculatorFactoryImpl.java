@@ -18,7 +18,11 @@
 
 package de.thm.arsnova.service.score;
 
+import java.util.List;
+import java.util.Objects;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
@@ -27,6 +31,7 @@ import org.springframework.stereotype.Component;
 
 import de.thm.arsnova.event.AfterCreationEvent;
 import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.BatchEvent;
 import de.thm.arsnova.event.ChangeScoreEvent;
 import de.thm.arsnova.event.StateChangeEvent;
 import de.thm.arsnova.model.Answer;
@@ -46,6 +51,9 @@ public class ScoreCalculatorFactoryImpl implements ScoreCalculatorFactory, Appli
 	@Autowired
 	private SessionStatisticsRepository sessionStatisticsRepository;
 
+	@Autowired
+	private CacheManager cacheManager;
+
 	private ApplicationEventPublisher publisher;
 
 	@Override
@@ -72,24 +80,50 @@ public class ScoreCalculatorFactoryImpl implements ScoreCalculatorFactory, Appli
 		this.publisher.publishEvent(new ChangeScoreEvent(this, event.getEntity().getRoomId()));
 	}
 
-	@CacheEvict(value = "score", key = "#event.entity.roomId", condition = "#event.entity.roomId != null")
-	@EventListener
+	@CacheEvict(value = "score", key = "#event.entity.roomId",
+			condition = "#event.batch == null && #event.entity.roomId != null")
+	@EventListener(condition = "#event.batch == null")
 	public void handleNewAnswer(final AfterCreationEvent<Answer> event) {
 		this.publisher.publishEvent(new ChangeScoreEvent(this, event.getEntity().getRoomId()));
 	}
 
-	@CacheEvict(value = "score", key = "#event.entity.roomId", condition = "#event.entity.roomId != null")
 	@EventListener
+	public void handleNewAnswers(final BatchEvent<AfterCreationEvent<Answer>> event) {
+		changeScoreForRooms(event.getEntities());
+	}
+
+	@CacheEvict(value = "score", key = "#event.entity.roomId",
+			condition = "#event.batch == null && #event.entity.roomId != null")
+	@EventListener(condition = "#event.batch == null")
 	public void handleDeleteAnswer(final AfterDeletionEvent<Answer> event) {
 		this.publisher.publishEvent(new ChangeScoreEvent(this, event.getEntity().getRoomId()));
 	}
 
+	@EventListener
+	public void handleDeleteAnswers(final BatchEvent<AfterDeletionEvent<Answer>> event) {
+		changeScoreForRooms(event.getEntities());
+	}
+
 	@CacheEvict(value = "score", key = "#event.entity.roomId", condition = "#event.entity.roomId != null")
 	@EventListener
 	public void handleDeleteQuestion(final AfterDeletionEvent<Content> event) {
 		this.publisher.publishEvent(new ChangeScoreEvent(this, event.getEntity().getRoomId()));
 	}
 
+	/**
+	 * Evicts the cached scores and publishes a single {@link ChangeScoreEvent} for each room affected by a batch of
+	 * answers.
+	 */
+	private void changeScoreForRooms(final List<Answer> answers) {
+		final Cache cache = cacheManager.getCache("score");
+		answers.stream().map(Answer::getRoomId).filter(Objects::nonNull).distinct().forEach(roomId -> {
+			if (cache != null) {
+				cache.evict(roomId);
+			}
+			this.publisher.publishEvent(new ChangeScoreEvent(this, roomId));
+		});
+	}
+
 	@Override
 	public void setApplicationEventPublisher(final ApplicationEventPublisher publisher) {
 		this.publisher = publisher;
@@ -0,0 +1,99 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.web;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+
+import de.thm.arsnova.model.Entity;
+
+/**
+ * Creates entity tags for conditional requests. Tags of persisted entities are derived from their revisions. Tags of
+ * computed data are derived from version counters which are only valid for the lifetime of the application instance,
+ * so an instance token is included.
+ *
+ * <p>
+ * The tags are meant to be passed to
+ * {@link org.springframework.web.context.request.WebRequest#checkNotModified(String)} before the response body is
+ * created.
+ * </p>
+ */
+public final class ETagHelper {
+	private static final String INSTANCE_TOKEN = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+	private ETagHelper() {
+	}
+
+	/**
+	 * Creates a tag for a single entity.
+	 *
+	 * @param entity The entity
+	 * @param qualifiers Additional data which affects the representation
+	 * @return The tag
+	 */
+	public static String forEntity(final Entity entity, final Object... qualifiers) {
+		final Hasher hasher = Hashing.murmur3_128().newHasher();
+		putEntity(hasher, entity);
+		putQualifiers(hasher, qualifiers);
+
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Creates a tag for a list of entities. The order of the entities is relevant.
+	 *
+	 * @param entities The entities
+	 * @param qualifiers Additional data which affects the representation, e.g. pagination parameters
+	 * @return The tag
+	 */
+	public static String forEntities(final Iterable<? extends Entity> entities, final Object... qualifiers) {
+		final Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (final Entity entity : entities) {
+			putEntity(hasher, entity);
+		}
+		putQualifiers(hasher, qualifiers);
+
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Creates a tag for computed data based on a version counter.
+	 *
+	 * @param key Identifies the data, e.g. a room ID
+	 * @param version The version of the data
+	 * @return The tag
+	 */
+	public static String forVersion(final String key, final long version) {
+		return key + "-" + INSTANCE_TOKEN + "-" + version;
+	}
+
+	private static void putEntity(final Hasher hasher, final Entity entity) {
+		hasher.putString(String.valueOf(entity.getId()), StandardCharsets.UTF_8)
+				.putChar('\0')
+				.putString(String.valueOf(entity.getRevision()), StandardCharsets.UTF_8)
+				.putChar('\0');
+	}
+
+	private static void putQualifiers(final Hasher hasher, final Object... qualifiers) {
+		for (final Object qualifier : qualifiers) {
+			hasher.putChar('\1').putString(String.valueOf(qualifier), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package de.thm.arsnova.web.exceptions;
+
+/**
+ * Service Unavailable means status code 503.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ServiceUnavailableException() {
+		super();
+	}
+
+	public ServiceUnavailableException(final String message) {
+		super(message);
+	}
+
+	public ServiceUnavailableException(final Throwable e) {
+		super(e);
+	}
+
+	public ServiceUnavailableException(final String message, final Throwable e) {
+		super(message, e);
+	}
+}
@@ -35,12 +35,15 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 import javax.annotation.PreDestroy;
+import org.ektorp.DocumentNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,9 +52,12 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import de.thm.arsnova.config.TaskExecutorConfig;
 import de.thm.arsnova.event.AfterCreationEvent;
 import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.BatchEvent;
 import de.thm.arsnova.event.ChangeScoreEvent;
+import de.thm.arsnova.event.DeferredEventListener;
 import de.thm.arsnova.event.DeleteFeedbackForRoomsEvent;
 import de.thm.arsnova.event.FlipFlashcardsEvent;
 import de.thm.arsnova.event.NewFeedbackEvent;
@@ -126,6 +132,9 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 	@Autowired
 	private ToV2Migrator toV2Migrator;
 
+	@Autowired
+	private RoomJoinSnapshotCache roomJoinSnapshotCache;
+
 	private static final Logger logger = LoggerFactory.getLogger(ArsnovaSocketioServerImpl.class);
 
 	private int portNumber;
@@ -394,28 +403,27 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 	}
 
 	/**
-	 * Currently only sends the feedback data to the client. Should be used for all
-	 * relevant Socket.IO data, the client needs to know after joining a session.
+	 * Sends the relevant Socket.IO data the client needs to know after joining a room. Data which does not depend on
+	 * the user is taken from the {@link RoomJoinSnapshotCache}.
 	 */
 	public void reportRoomDataToClient(final String roomId, final String userId, final SocketIOClient client) {
-		final de.thm.arsnova.model.Room room = roomService.get(roomId);
-		final de.thm.arsnova.model.Room.Settings settings = room.getSettings();
+		final RoomJoinSnapshotCache.Snapshot snapshot = roomJoinSnapshotCache.get(roomId);
 
 		client.sendEvent(UNANSWERED_LECTURE_CONTENTS_EVENTNAME,
 				contentService.getUnAnsweredLectureContentIds(roomId, userId));
 		client.sendEvent(UNANSWERED_PREPARATION_CONTENTS_EVENTNAME,
 				contentService.getUnAnsweredPreparationContentIds(roomId, userId));
 		/* FIXME: Content variant is ignored for now */
-		client.sendEvent(COUNT_LECTURE_CONTENT_ANSWERS_EVENTNAME, answerService.countTotalAnswersByRoomId(roomId));
-		client.sendEvent(COUNT_PREPARATION_CONTENT_ANSWERS_EVENTNAME, answerService.countTotalAnswersByRoomId(roomId));
+		client.sendEvent(COUNT_LECTURE_CONTENT_ANSWERS_EVENTNAME, snapshot.getAnswerCount());
+		client.sendEvent(COUNT_PREPARATION_CONTENT_ANSWERS_EVENTNAME, snapshot.getAnswerCount());
 		client.sendEvent(ACTIVE_USER_COUNT_DATA_EVENTNAME, roomService.activeUsers(roomId));
 		/* FIXME: missing implementation */
 		//client.sendEvent("learningProgressOptions", room.getLearningProgressOptions());
 		final de.thm.arsnova.model.Feedback fb = feedbackService.getByRoomId(roomId);
 		client.sendEvent(FEEDBACK_DATA_EVENTNAME, fb.getValues());
 
-		if (settings.isFlashcardsEnabled()) {
-			client.sendEvent(COUNT_FLASHCARDS_EVENTNAME, contentService.countFlashcardsForUserInternal(roomId));
+		if (snapshot.isFlashcardsEnabled()) {
+			client.sendEvent(COUNT_FLASHCARDS_EVENTNAME, snapshot.getFlashcardCount());
 			/* FIXME: missing implementation */
 			//client.sendEvent("flipFlashcards", room.getFlipFlashcards());
 		}
@@ -516,12 +524,12 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		}
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void handleAfterContentCreation(final AfterCreationEvent<de.thm.arsnova.model.Content> event) {
 		this.reportContentAvailable(event.getEntity().getId(), Collections.singletonList(event.getEntity()));
 	}
 
-	@EventListener(condition = "#event.stateName == 'state'")
+	@DeferredEventListener(condition = "#event.stateName == 'state'")
 	public void handleContentIsVisibleStateChange(
 			final StateChangeEvent<de.thm.arsnova.model.Content, de.thm.arsnova.model.Content.State> event) {
 		if (event.getEntity().getState().isVisible()) {
@@ -531,24 +539,69 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		}
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void handleAfterCommentCreation(final AfterCreationEvent<Comment> event) {
 		this.reportCommentAvailable(event.getEntity().getId(), event.getEntity().getId());
 	}
 
-	@Async
-	@EventListener
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
+	@EventListener(condition = "#event.batch == null")
 	@Timed
 	public void handleNewAnswer(final AfterCreationEvent<Answer> event) {
-		final String roomId = event.getEntity().getRoomId();
-		this.reportAnswersToContentAvailable(event.getEntity().getRoomId(), event.getEntity().getContentId());
-		broadcastInRoom(roomId, COUNT_CONTENT_ANSWERS_BY_CONTENT_ID_EVENTNAME,
-				answerService.countAnswersAndAbstentionsInternal(event.getEntity().getContentId()));
-		/* FIXME: Content variant is ignored for now */
-		broadcastInRoom(roomId, COUNT_LECTURE_CONTENT_ANSWERS_EVENTNAME,
-				answerService.countTotalAnswersByRoomId(roomId));
-		broadcastInRoom(roomId, COUNT_PREPARATION_CONTENT_ANSWERS_EVENTNAME,
-				answerService.countTotalAnswersByRoomId(roomId));
+		reportAnswerChanges(Collections.singletonList(event.getEntity()), true);
+	}
+
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
+	@EventListener
+	@Timed
+	public void handleNewAnswers(final BatchEvent<AfterCreationEvent<Answer>> event) {
+		reportAnswerChanges(event.getEntities(), true);
+	}
+
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
+	@EventListener(condition = "#event.batch == null")
+	@Timed
+	public void handleAfterAnswerDeletion(final AfterDeletionEvent<Answer> event) {
+		reportAnswerChanges(Collections.singletonList(event.getEntity()), false);
+	}
+
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
+	@EventListener
+	@Timed
+	public void handleAfterAnswerDeletions(final BatchEvent<AfterDeletionEvent<Answer>> event) {
+		reportAnswerChanges(event.getEntities(), false);
+	}
+
+	/**
+	 * Broadcasts the changed answer counts. Each affected content and room is only reported once, regardless of the
+	 * number of answers. Deleted answers might be stubs without a room ID, so their room is looked up once per content.
+	 */
+	private void reportAnswerChanges(final List<Answer> answers, final boolean reportContentCounts) {
+		final Map<String, String> roomIdsByContentId = new HashMap<>();
+		final Map<String, Set<String>> contentIdsByRoomId = new LinkedHashMap<>();
+		for (final Answer answer : answers) {
+			final String roomId = answer.getRoomId() != null
+					? answer.getRoomId()
+					: roomIdsByContentId.computeIfAbsent(answer.getContentId(), this::findRoomIdByContentId);
+			if (roomId != null) {
+				contentIdsByRoomId.computeIfAbsent(roomId, id -> new HashSet<>()).add(answer.getContentId());
+			}
+		}
+		for (final Entry<String, Set<String>> entry : contentIdsByRoomId.entrySet()) {
+			final String roomId = entry.getKey();
+			for (final String contentId : entry.getValue()) {
+				this.reportAnswersToContentAvailable(roomId, contentId);
+				if (reportContentCounts) {
+					broadcastInRoom(roomId, COUNT_CONTENT_ANSWERS_BY_CONTENT_ID_EVENTNAME,
+							answerService.countAnswersAndAbstentionsInternal(contentId));
+				}
+			}
+			// We do not know which user's answer was deleted, so we can't update his 'unanswered' list of questions...
+			/* FIXME: Content variant is ignored for now */
+			final int answerCount = answerService.countTotalAnswersByRoomId(roomId);
+			broadcastInRoom(roomId, COUNT_LECTURE_CONTENT_ANSWERS_EVENTNAME, answerCount);
+			broadcastInRoom(roomId, COUNT_PREPARATION_CONTENT_ANSWERS_EVENTNAME, answerCount);
+		}
 
 		// Update the unanswered count for the content variant that was answered.
 		/* Is this still relevant?
@@ -556,21 +609,22 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		 **/
 	}
 
-	@Async
-	@EventListener
-	@Timed
-	public void handleAfterAnswerDeletion(final AfterDeletionEvent<Answer> event) {
-		final String roomId = event.getEntity().getRoomId();
-		this.reportAnswersToContentAvailable(event.getEntity().getRoomId(), event.getEntity().getContentId());
-		// We do not know which user's answer was deleted, so we can't update his 'unanswered' list of questions...
-		/* FIXME: Content variant is ignored for now */
-		broadcastInRoom(roomId, COUNT_LECTURE_CONTENT_ANSWERS_EVENTNAME,
-				answerService.countTotalAnswersByRoomId(roomId));
-		broadcastInRoom(roomId, COUNT_PREPARATION_CONTENT_ANSWERS_EVENTNAME,
-				answerService.countTotalAnswersByRoomId(roomId));
+	/**
+	 * Looks up the room of a content. Contents which have already been deleted are skipped since there are no counts
+	 * left to report for them.
+	 */
+	private String findRoomIdByContentId(final String contentId) {
+		if (contentId == null) {
+			return null;
+		}
+		try {
+			return contentService.get(contentId, true).getRoomId();
+		} catch (final DocumentNotFoundException e) {
+			return null;
+		}
 	}
 
-	@Async
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
 	@EventListener(condition = "#event.stateName == 'state'")
 	@Timed
 	public void handlePiRoundDelayedStart(
@@ -579,7 +633,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 				generateRoundInfo(event.getEntity()));
 	}
 
-	@Async
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
 	@EventListener(condition = "#event.stateName == 'state'")
 	@Timed
 	public void handlePiRoundEnd(
@@ -587,7 +641,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		broadcastInRoom(event.getEntity().getRoomId(), END_ROUND_EVENTNAME, generateRoundInfo(event.getEntity()));
 	}
 
-	@Async
+	@Async(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
 	@EventListener(condition = "#event.stateName == 'state'")
 	@Timed
 	public void handlePiRoundCancel(
@@ -595,7 +649,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		broadcastInRoom(event.getEntity().getRoomId(), CANCEL_ROUND_EVENTNAME, event.getEntity().getId());
 	}
 
-	@EventListener(condition = "#event.stateName == 'state'")
+	@DeferredEventListener(condition = "#event.stateName == 'state'")
 	public void handlePiRoundReset(
 			final StateChangeEvent<de.thm.arsnova.model.Content, de.thm.arsnova.model.Content.State> event) {
 		broadcastInRoom(event.getEntity().getRoomId(), RESET_ROUND_EVENTNAME, generateRoundInfo(event.getEntity()));
@@ -619,7 +673,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		return map;
 	}
 
-	@EventListener(condition = "#event.stateName == 'state'")
+	@DeferredEventListener(condition = "#event.stateName == 'state'")
 	public void handleContentResponsesEnabledStateChange(
 			final StateChangeEvent<de.thm.arsnova.model.Content, de.thm.arsnova.model.Content.State> event) {
 		/* Multiple groups for a single Content are not handled. */
@@ -636,7 +690,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		}
 	}
 
-	@EventListener(condition = "#event.stateName == 'settings'")
+	@DeferredEventListener(condition = "#event.stateName == 'settings'")
 	public void handleFeatureChange(
 			final StateChangeEvent<de.thm.arsnova.model.Room, de.thm.arsnova.model.Room.Settings> event) {
 		final String roomId = event.getEntity().getId();
@@ -651,7 +705,7 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 		}
 	}
 
-	@EventListener(condition = "#event.stateName == 'settings'")
+	@DeferredEventListener(condition = "#event.stateName == 'settings'")
 	public void handleLockFeedback(
 			final StateChangeEvent<de.thm.arsnova.model.Room, de.thm.arsnova.model.Room.Settings> event) {
 		broadcastInRoom(event.getEntity().getId(), LOCK_FEEDBACK_EVENTNAME,
@@ -675,12 +729,12 @@ public class ArsnovaSocketioServerImpl implements ArsnovaSocketioServer {
 
 	}
 
-	@EventListener(condition = "#event.stateName == 'closed'")
+	@DeferredEventListener(condition = "#event.stateName == 'closed'")
 	public void handleRoomClosedStateChange(final StateChangeEvent<de.thm.arsnova.model.Room, Boolean> event) {
 		this.reportRoomStatus(event.getEntity().getId(), !event.getNewValue());
 	}
 
-	@EventListener
+	@DeferredEventListener
 	public void handleChangeScore(final ChangeScoreEvent event) {
 		broadcastInRoom(event.getRoomId(), SCORE_CHANGE_EVENTNAME, null);
 	}
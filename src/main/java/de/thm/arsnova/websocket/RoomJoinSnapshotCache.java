@@ -0,0 +1,262 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.websocket;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.ektorp.DocumentNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterUpdateEvent;
+import de.thm.arsnova.event.BatchEvent;
+import de.thm.arsnova.model.Answer;
+import de.thm.arsnova.model.Content;
+import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.service.AnswerService;
+import de.thm.arsnova.service.ContentService;
+import de.thm.arsnova.service.RoomService;
+
+/**
+ * Keeps the room data which is sent to every client joining a room and does not depend on the user. A snapshot is
+ * loaded on the first join and then shared by subsequent joins until an event changes the data it is based on. The
+ * answer count is updated incrementally since answers are created at a high rate while clients join.
+ */
+public class RoomJoinSnapshotCache {
+	private static final String METRIC_NAME = "arsnova.websocket.join.snapshot";
+	private static final int EXPIRY_MINUTES = 60;
+
+	private final RoomService roomService;
+	private final AnswerService answerService;
+	private final ContentService contentService;
+	private final Cache<String, Entry> rooms = CacheBuilder.newBuilder()
+			.expireAfterAccess(EXPIRY_MINUTES, TimeUnit.MINUTES)
+			.build();
+	private Counter hitCounter;
+	private Counter missCounter;
+
+	public RoomJoinSnapshotCache(
+			final RoomService roomService,
+			final AnswerService answerService,
+			final ContentService contentService) {
+		this.roomService = roomService;
+		this.answerService = answerService;
+		this.contentService = contentService;
+	}
+
+	@Autowired(required = false)
+	public void setMeterRegistry(final MeterRegistry meterRegistry) {
+		hitCounter = Counter.builder(METRIC_NAME)
+				.description("Lookups of room data for joining clients")
+				.tag("result", "hit")
+				.register(meterRegistry);
+		missCounter = Counter.builder(METRIC_NAME)
+				.description("Lookups of room data for joining clients")
+				.tag("result", "miss")
+				.register(meterRegistry);
+	}
+
+	public Snapshot get(final String roomId) {
+		try {
+			return rooms.get(roomId, Entry::new).get(roomId);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@EventListener
+	public void handleAnswerCreation(final AfterCreationEvent<Answer> event) {
+		final String roomId = event.getEntity().getRoomId();
+		final Entry entry = roomId != null ? rooms.getIfPresent(roomId) : null;
+		if (entry != null) {
+			entry.incrementAnswerCount();
+		}
+	}
+
+	@EventListener(condition = "#event.batch == null")
+	public void handleAnswerDeletion(final AfterDeletionEvent<Answer> event) {
+		final Answer answer = event.getEntity();
+		invalidate(answer.getRoomId() != null ? answer.getRoomId() : findRoomIdByContentId(answer.getContentId()));
+	}
+
+	/**
+	 * Invalidates the snapshot of each room affected by a bulk deletion once. Deleted answers might be stubs which
+	 * only reference their content, so the room is looked up once per content.
+	 */
+	@EventListener
+	public void handleAnswerDeletions(final BatchEvent<AfterDeletionEvent<Answer>> event) {
+		final Set<String> roomIds = new HashSet<>();
+		final Set<String> contentIds = new HashSet<>();
+		for (final Answer answer : event.<Answer>getEntities()) {
+			if (answer.getRoomId() != null) {
+				roomIds.add(answer.getRoomId());
+			} else {
+				contentIds.add(answer.getContentId());
+			}
+		}
+		contentIds.stream().map(this::findRoomIdByContentId).forEach(roomIds::add);
+		roomIds.forEach(this::invalidate);
+	}
+
+	@EventListener
+	public void handleContentUpdate(final AfterUpdateEvent<Content> event) {
+		/* The flashcard count depends on the visibility of contents. */
+		invalidate(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleContentDeletion(final AfterDeletionEvent<Content> event) {
+		invalidate(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleRoomUpdate(final AfterUpdateEvent<Room> event) {
+		invalidate(event.getEntity().getId());
+	}
+
+	@EventListener
+	public void handleRoomDeletion(final AfterDeletionEvent<Room> event) {
+		invalidate(event.getEntity().getId());
+	}
+
+	@EventListener
+	public void handleContentGroupCreation(final AfterCreationEvent<ContentGroup> event) {
+		invalidate(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleContentGroupUpdate(final AfterUpdateEvent<ContentGroup> event) {
+		invalidate(event.getEntity().getRoomId());
+	}
+
+	@EventListener
+	public void handleContentGroupDeletion(final AfterDeletionEvent<ContentGroup> event) {
+		invalidate(event.getEntity().getRoomId());
+	}
+
+	private void invalidate(final String roomId) {
+		if (roomId != null) {
+			rooms.invalidate(roomId);
+		}
+	}
+
+	/**
+	 * Looks up the room of a content. If the content has already been deleted, the snapshot has been invalidated by
+	 * the content's deletion event.
+	 */
+	private String findRoomIdByContentId(final String contentId) {
+		if (contentId == null) {
+			return null;
+		}
+		try {
+			return contentService.get(contentId, true).getRoomId();
+		} catch (final DocumentNotFoundException e) {
+			return null;
+		}
+	}
+
+	private Snapshot load(final String roomId) {
+		final Room room = roomService.get(roomId);
+		final boolean flashcardsEnabled = room.getSettings().isFlashcardsEnabled();
+		/* FIXME: Content variant is ignored for now */
+		final int answerCount = answerService.countTotalAnswersByRoomId(roomId);
+		final int flashcardCount = flashcardsEnabled ? contentService.countFlashcardsForUserInternal(roomId) : 0;
+
+		return new Snapshot(answerCount, flashcardsEnabled, flashcardCount);
+	}
+
+	private static void increment(final Counter counter) {
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+	/**
+	 * The room data which is the same for all joining clients.
+	 */
+	public static class Snapshot {
+		private final int answerCount;
+		private final boolean flashcardsEnabled;
+		private final int flashcardCount;
+
+		Snapshot(final int answerCount, final boolean flashcardsEnabled, final int flashcardCount) {
+			this.answerCount = answerCount;
+			this.flashcardsEnabled = flashcardsEnabled;
+			this.flashcardCount = flashcardCount;
+		}
+
+		public int getAnswerCount() {
+			return answerCount;
+		}
+
+		public boolean isFlashcardsEnabled() {
+			return flashcardsEnabled;
+		}
+
+		public int getFlashcardCount() {
+			return flashcardCount;
+		}
+	}
+
+	/**
+	 * Holds the snapshot of a single room. An answer created while the snapshot is loaded bumps the modification
+	 * count, so that snapshot is handed to the joining client but not kept for the next one.
+	 */
+	private class Entry {
+		private Snapshot snapshot;
+		private long modificationCount;
+
+		private Snapshot get(final String roomId) {
+			final long expectedModificationCount;
+			synchronized (this) {
+				if (snapshot != null) {
+					increment(hitCounter);
+
+					return snapshot;
+				}
+				expectedModificationCount = modificationCount;
+			}
+			increment(missCounter);
+			final Snapshot loadedSnapshot = load(roomId);
+			synchronized (this) {
+				if (modificationCount == expectedModificationCount) {
+					snapshot = loadedSnapshot;
+				}
+			}
+
+			return loadedSnapshot;
+		}
+
+		private synchronized void incrementAnswerCount() {
+			modificationCount++;
+			if (snapshot != null) {
+				snapshot = new Snapshot(snapshot.answerCount + 1, snapshot.flashcardsEnabled, snapshot.flashcardCount);
+			}
+		}
+	}
+}
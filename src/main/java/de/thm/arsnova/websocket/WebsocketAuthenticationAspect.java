@@ -19,8 +19,8 @@
 package de.thm.arsnova.websocket;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -30,19 +30,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-import de.thm.arsnova.security.User;
 import de.thm.arsnova.service.UserService;
 
 /**
  * This aspect populates the SecurityContextHolder of Spring Security when data are received via WebSockets.
  * It allows WebSocket listeners to access service methods which are secured by Spring Security annotations.
+ * The authentication is bound to the socket by the {@link UserService} and only created for the first message.
  *
  * @author Daniel Gerhardt
  */
@@ -50,7 +48,8 @@ import de.thm.arsnova.service.UserService;
 @Configurable
 public class WebsocketAuthenticationAspect {
 	private static final Logger logger = LoggerFactory.getLogger(WebsocketAuthenticationAspect.class);
-	private static final GrantedAuthority WEBSOCKET_AUTHORITY = new SimpleGrantedAuthority("ROLE_WEBSOCKET_ACCESS");
+	private static final Collection<GrantedAuthority> WEBSOCKET_AUTHORITIES =
+			Collections.singleton(new SimpleGrantedAuthority("ROLE_WEBSOCKET_ACCESS"));
 
 	private UserService userService;
 
@@ -68,17 +67,11 @@ public class WebsocketAuthenticationAspect {
 	}
 
 	private void populateSecurityContext(final UUID socketId) {
-		final String userId = userService.getUserIdToSocketId(socketId);
-		if (userId == null) {
+		final Authentication auth = userService.getAuthenticationBySocketId(socketId, WEBSOCKET_AUTHORITIES);
+		if (auth == null) {
 			throw new AccessDeniedException("No user authenticated for WebSocket connection");
 		}
-		final SecurityContext context = SecurityContextHolder.getContext();
-		final Set<GrantedAuthority> authorities = new HashSet<>();
-		authorities.add(WEBSOCKET_AUTHORITY);
-		final User user = userService.loadUser(userId, authorities);
-		final Authentication auth = new UsernamePasswordAuthenticationToken(user, null, authorities);
-		context.setAuthentication(auth);
-		SecurityContextHolder.setContext(context);
+		SecurityContextHolder.getContext().setAuthentication(auth);
 	}
 
 	private void clearSecurityContext() {
@@ -62,6 +62,13 @@ var designDoc = {
 					emit([doc.creatorId, doc.roomId], {_rev: doc._rev});
 				}
 			}
+		},
+		"contentid_by_creatorid_roomid": {
+			"map": function (doc) {
+				if (doc.type === "Answer") {
+					emit([doc.creatorId, doc.roomId], doc.contentId);
+				}
+			}
 		}
 	}
 };
@@ -25,6 +25,22 @@ var designDoc = {
 				}
 			},
 			"reduce": "_count"
+		},
+		"by_roomid_visible": {
+			"map": function (doc) {
+				if (doc.type === "Content") {
+					emit([doc.roomId, !!(doc.state && doc.state.visible)], {_rev: doc._rev});
+				}
+			},
+			"reduce": "_count"
+		},
+		"by_roundendtimestamp": {
+			"map": function (doc) {
+				if (doc.type === "Content" && doc.state && doc.state.roundEndTimestamp) {
+					emit(doc.state.roundEndTimestamp, {_rev: doc._rev});
+				}
+			},
+			"reduce": "_count"
 		}
 	}
 };
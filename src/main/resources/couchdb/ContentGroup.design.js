@@ -17,6 +17,16 @@ var designDoc = {
 				}
 			},
 			"reduce": "_count"
+		},
+		"name_by_roomid_contentid": {
+			"map": function (doc) {
+				if (doc.type === "ContentGroup" && doc.contentIds) {
+					doc.contentIds.forEach(function (contentId) {
+						emit([doc.roomId, contentId], doc.name);
+					});
+				}
+			},
+			"reduce": "_count"
 		}
 	}
 };
@@ -30,6 +30,15 @@ var designDoc = {
 					emit(doc.loginId, {_rev: doc._rev});
 				}
 			}
+		},
+		"roomid_by_id_lastvisit": {
+			"map": function (doc) {
+				if (doc.type === "UserProfile" && doc.roomHistory) {
+					doc.roomHistory.forEach(function (entry) {
+						emit([doc._id, entry.lastVisit], entry.roomId);
+					});
+				}
+			}
 		}
 	}
 };
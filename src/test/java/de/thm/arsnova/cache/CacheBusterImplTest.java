@@ -0,0 +1,116 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterFullUpdateEvent;
+import de.thm.arsnova.event.BatchEvent;
+import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.Content;
+
+public class CacheBusterImplTest {
+	private SimpleMeterRegistry meterRegistry;
+	private Cache contentListCache;
+	private Cache statisticsCache;
+	private CacheBusterImpl cacheBuster;
+
+	private static Content createContent(final String roomId) {
+		final Content content = new Content();
+		content.setRoomId(roomId);
+
+		return content;
+	}
+
+	private double countEvictions(final String cacheName, final String reason) {
+		return meterRegistry.get("arsnova.cache.evictions")
+				.tag("cache", cacheName).tag("reason", reason).counter().count();
+	}
+
+	@Before
+	public void setUp() {
+		final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+		contentListCache = cacheManager.getCache("contentlists");
+		statisticsCache = cacheManager.getCache("statistics");
+		contentListCache.put("room1", "list1");
+		contentListCache.put("room2", "list2");
+		contentListCache.put("room3", "list3");
+		statisticsCache.put(SimpleKey.EMPTY, "statistics");
+		meterRegistry = new SimpleMeterRegistry();
+		cacheBuster = new CacheBusterImpl(cacheManager);
+		cacheBuster.setMeterRegistry(meterRegistry);
+	}
+
+	@Test
+	public void shouldOnlyEvictKeysOfAffectedRoom() {
+		cacheBuster.handleAfterCreation(new AfterCreationEvent<>(this, createContent("room1")));
+
+		assertNull(contentListCache.get("room1"));
+		assertNotNull(contentListCache.get("room2"));
+		assertNotNull(statisticsCache.get(SimpleKey.EMPTY));
+		assertEquals(1, countEvictions("contentlists", "AfterCreation"), 0);
+	}
+
+	@Test
+	public void shouldEvictKeysOfOldAndNewStateOnUpdate() {
+		cacheBuster.handleAfterUpdate(
+				new AfterFullUpdateEvent<>(this, createContent("room2"), createContent("room1")));
+
+		assertNull(contentListCache.get("room1"));
+		assertNull(contentListCache.get("room2"));
+		assertNotNull(contentListCache.get("room3"));
+		assertEquals(2, countEvictions("contentlists", "AfterFullUpdate"), 0);
+	}
+
+	@Test
+	public void shouldEvictEachKeyOnlyOnceForBatch() {
+		cacheBuster.handleBatch(new BatchEvent<>(this, Content.class, Arrays.asList(
+				new AfterDeletionEvent<>(this, createContent("room1")),
+				new AfterDeletionEvent<>(this, createContent("room1")),
+				new AfterDeletionEvent<>(this, createContent("room2")))));
+
+		assertNull(contentListCache.get("room1"));
+		assertNull(contentListCache.get("room2"));
+		assertNotNull(contentListCache.get("room3"));
+		assertEquals(2, countEvictions("contentlists", "AfterDeletion"), 0);
+	}
+
+	@Test
+	public void shouldEvictStatisticsOnCommentCreation() {
+		final Comment comment = new Comment();
+		comment.setRoomId("room1");
+		cacheBuster.handleAfterCreation(new AfterCreationEvent<>(this, comment));
+
+		assertNull(statisticsCache.get(SimpleKey.EMPTY));
+		assertNotNull(contentListCache.get("room1"));
+		assertEquals(1, countEvictions("statistics", "AfterCreation"), 0);
+	}
+}
@@ -55,9 +55,13 @@ import org.springframework.validation.Validator;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import de.thm.arsnova.persistence.UserRepository;
+import de.thm.arsnova.service.AnswerService;
+import de.thm.arsnova.service.ContentService;
+import de.thm.arsnova.service.RoomService;
 import de.thm.arsnova.service.StubUserService;
 import de.thm.arsnova.websocket.ArsnovaSocketioServer;
 import de.thm.arsnova.websocket.ArsnovaSocketioServerImpl;
+import de.thm.arsnova.websocket.RoomJoinSnapshotCache;
 
 @ComponentScan({
 		"de.thm.arsnova.aop",
@@ -110,6 +114,14 @@ public class TestAppConfig {
 		return socketServer;
 	}
 
+	@Bean
+	public RoomJoinSnapshotCache roomJoinSnapshotCache(
+			final RoomService roomService,
+			final AnswerService answerService,
+			final ContentService contentService) {
+		return new RoomJoinSnapshotCache(roomService, answerService, contentService);
+	}
+
 	@Bean
 	@Primary
 	public StubUserService stubUserService(
@@ -140,6 +152,32 @@ public class TestAppConfig {
 		return executor;
 	}
 
+	@Bean
+	@TaskExecutorConfig.ImportExecutor
+	public TaskExecutor importExecutor() {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("Import");
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+	@Bean(TaskExecutorConfig.WEBSOCKET_EXECUTOR)
+	public TaskExecutor websocketExecutor() {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("Websocket");
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+	@Bean
+	@TaskExecutorConfig.StatisticsExecutor
+	public TaskExecutor statisticsExecutor() {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("Statistics");
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
 	@Bean
 	@Autowired
 	public ConnectionFactory connectionFactory(
@@ -32,6 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,6 +54,7 @@ import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
@@ -77,6 +79,7 @@ import de.thm.arsnova.security.User;
 import de.thm.arsnova.service.ContentGroupService;
 import de.thm.arsnova.service.StubUserService;
 import de.thm.arsnova.test.context.support.WithMockUser;
+import de.thm.arsnova.web.ETagHelper;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @WebAppConfiguration
@@ -153,6 +156,34 @@ public class RoomControllerTest {
 		verify(roomRepository).delete(argThat(r -> r.getId().equals(room.getId())));
 	}
 
+	@Test
+	@WithMockUser(value = "TestUser", userId = "1234")
+	public void shouldReturnETagForRoom() throws Exception {
+		final Room room = getRoomForUserWithDatabaseDetails(user);
+
+		when(roomRepository.findOne(room.getId())).thenReturn(room);
+
+		mockMvc.perform(get("/room/" + room.getId())
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + ETagHelper.forEntity(room) + "\""))
+				.andExpect(content().string(containsString(room.getName())));
+	}
+
+	@Test
+	@WithMockUser(value = "TestUser", userId = "1234")
+	public void shouldReturnNotModifiedForMatchingETag() throws Exception {
+		final Room room = getRoomForUserWithDatabaseDetails(user);
+
+		when(roomRepository.findOne(room.getId())).thenReturn(room);
+
+		mockMvc.perform(get("/room/" + room.getId())
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + ETagHelper.forEntity(room) + "\"")
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(emptyString()));
+	}
+
 	@Test
 	public void shouldReturnEmptyModeratorList() throws Exception {
 		final Room room = getRoomForUserWithDatabaseDetails(user);
@@ -0,0 +1,132 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.thm.arsnova.model.Room;
+
+public class OrderedTaskExecutorTest {
+	private final Queue<Runnable> submittedTasks = new ArrayDeque<>();
+	private final List<String> executedTasks = new ArrayList<>();
+	private boolean rejecting;
+	private OrderedTaskExecutor orderedTaskExecutor;
+
+	@Before
+	public void setUp() {
+		orderedTaskExecutor = createOrderedTaskExecutor(2, false);
+	}
+
+	private OrderedTaskExecutor createOrderedTaskExecutor(final int maxPendingTasksPerKey, final boolean callerRuns) {
+		return new OrderedTaskExecutor(task -> {
+			if (rejecting) {
+				throw new RejectedExecutionException();
+			}
+			submittedTasks.add(task);
+		}, maxPendingTasksPerKey, callerRuns);
+	}
+
+	private Runnable createTask(final String name) {
+		return () -> executedTasks.add(name);
+	}
+
+	private void runSubmittedTasks() {
+		while (!submittedTasks.isEmpty()) {
+			submittedTasks.poll().run();
+		}
+	}
+
+	@Test
+	public void shouldRunTasksWithSameKeyOneAfterAnother() {
+		orderedTaskExecutor.execute("a", createTask("a1"));
+		orderedTaskExecutor.execute("a", createTask("a2"));
+		assertEquals(1, submittedTasks.size());
+
+		runSubmittedTasks();
+		assertEquals(Arrays.asList("a1", "a2"), executedTasks);
+		assertEquals(0, orderedTaskExecutor.countPendingKeys());
+	}
+
+	@Test
+	public void shouldRunTasksWithDifferentKeysConcurrently() {
+		orderedTaskExecutor.execute("a", createTask("a1"));
+		orderedTaskExecutor.execute("b", createTask("b1"));
+		orderedTaskExecutor.execute(null, createTask("c1"));
+		assertEquals(3, submittedTasks.size());
+
+		runSubmittedTasks();
+		assertEquals(Arrays.asList("a1", "b1", "c1"), executedTasks);
+	}
+
+	@Test
+	public void shouldReleaseKeyAfterRejection() {
+		rejecting = true;
+		orderedTaskExecutor.execute("a", createTask("a1"));
+		assertEquals(0, orderedTaskExecutor.countPendingKeys());
+
+		rejecting = false;
+		orderedTaskExecutor.execute("a", createTask("a2"));
+		runSubmittedTasks();
+		assertEquals(Arrays.asList("a2"), executedTasks);
+	}
+
+	@Test
+	public void shouldRejectTasksBeyondPendingLimitOfKey() {
+		orderedTaskExecutor.execute("a", createTask("a1"));
+		orderedTaskExecutor.execute("a", createTask("a2"));
+		orderedTaskExecutor.execute("a", createTask("a3"));
+		orderedTaskExecutor.execute("a", createTask("a4"));
+
+		runSubmittedTasks();
+		assertEquals(Arrays.asList("a1", "a2", "a3"), executedTasks);
+	}
+
+	@Test
+	public void shouldRunTasksBeyondPendingLimitOfKeyOnCaller() {
+		orderedTaskExecutor = createOrderedTaskExecutor(1, true);
+		orderedTaskExecutor.execute("a", createTask("a1"));
+		orderedTaskExecutor.execute("a", createTask("a2"));
+		orderedTaskExecutor.execute("a", createTask("a3"));
+		assertEquals(Arrays.asList("a3"), executedTasks);
+
+		runSubmittedTasks();
+		assertEquals(Arrays.asList("a3", "a1", "a2"), executedTasks);
+	}
+
+	@Test
+	public void shouldUseEntityAsOrderingKey() {
+		final Room room = new Room();
+		room.setId("room1");
+		assertEquals("Room-room1",
+				DeferredEventListenerFactory.getOrderingKey(new AfterCreationEvent<>(this, room)));
+		assertEquals("Room-room1",
+				DeferredEventListenerFactory.getOrderingKey(new ChangeScoreEvent(this, "room1")));
+		assertNull(DeferredEventListenerFactory.getOrderingKey(new AfterCreationEvent<>(this, new Room())));
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Generates load against a running backend by simulating a lecture: A lecturer creates rooms with contents,
+ * participants join the rooms via REST and Socket.IO, vote on the feedback and answer the contents in bursts. Latency
+ * percentiles and throughput are reported per operation when the simulation has finished.
+ *
+ * <p>
+ * The simulation is configured via system properties prefixed with <code>loadtest.</code>, see
+ * <code>src/site/markdown/development.md</code>. To measure the backend without a database, start it with the
+ * <code>memory</code> profile.
+ * </p>
+ */
+public class LoadGenerator {
+	private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+	private static final List<String> OPTIONS = Arrays.asList("A", "B", "C", "D");
+	private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+	private final String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+	private final String socketUrl = System.getProperty("loadtest.socketUrl", "ws://localhost:8090");
+	private final int roomCount = Integer.getInteger("loadtest.rooms", 1);
+	private final int participantCount = Integer.getInteger("loadtest.participants", 100);
+	private final int feedbackRounds = Integer.getInteger("loadtest.feedbackRounds", 3);
+	private final int answerBursts = Integer.getInteger("loadtest.answerBursts", 3);
+	private final Duration timeout = Duration.ofSeconds(Integer.getInteger("loadtest.timeoutSeconds", 30));
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final Map<String, Timer> timers = new LinkedHashMap<>();
+	private final Map<String, Duration> phaseDurations = new LinkedHashMap<>();
+	private final Map<String, String> operationPhases = new LinkedHashMap<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(participantCount);
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		final Thread thread = new Thread(r, "SocketIoHeartbeat");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final HttpClient httpClient = HttpClient.create().baseUrl(baseUrl);
+
+	private final List<String> roomShortIds = new ArrayList<>();
+	private final List<List<String>> contentIds = new ArrayList<>();
+	private final List<SimulatedUser> participants = new ArrayList<>();
+	private volatile String currentPhase;
+
+	public static void main(final String[] args) throws InterruptedException {
+		final LoadGenerator generator = new LoadGenerator();
+		try {
+			generator.run();
+		} finally {
+			generator.shutdown();
+		}
+		generator.printReport(System.out);
+	}
+
+	public void run() throws InterruptedException {
+		logger.info("Simulating {} participant(s) in {} room(s) against {}.", participantCount, roomCount, baseUrl);
+		setUpRooms();
+
+		final List<Callable<Void>> joins = new ArrayList<>();
+		for (int i = 0; i < participantCount; i++) {
+			final SimulatedUser participant = new SimulatedUser(httpClient, timeout);
+			final String roomShortId = roomShortIds.get(i % roomCount);
+			participants.add(participant);
+			joins.add(() -> {
+				measure("participant.login", participant::loginAsGuest);
+				measure("room.join", () -> participant.joinRoom(roomShortId));
+				measure("socket.join", () -> participant.connectSocket(socketUrl, roomShortId, scheduler));
+				return null;
+			});
+		}
+		runPhase("join", joins);
+
+		for (int round = 0; round < feedbackRounds; round++) {
+			final List<Callable<Void>> votes = new ArrayList<>();
+			for (final SimulatedUser participant : participants) {
+				votes.add(() -> {
+					measure("feedback.vote", () -> participant.sendFeedback(ThreadLocalRandom.current().nextInt(4)));
+					return null;
+				});
+			}
+			runPhase("feedback", votes);
+		}
+
+		for (int burst = 0; burst < answerBursts; burst++) {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Callable<Void>> answers = new ArrayList<>();
+			for (int i = 0; i < participantCount; i++) {
+				final SimulatedUser participant = participants.get(i);
+				final String contentId = contentIds.get(i % roomCount).get(burst);
+				answers.add(() -> {
+					start.await();
+					measure("answer.submit", () -> participant.answer(
+							contentId, OPTIONS.get(ThreadLocalRandom.current().nextInt(OPTIONS.size()))));
+					return null;
+				});
+			}
+			start.countDown();
+			runPhase("answers", answers);
+		}
+	}
+
+	public void printReport(final PrintStream out) {
+		out.printf("%-20s %8s %8s %10s %9s %9s %9s %9s%n",
+				"operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+		for (final Map.Entry<String, Timer> entry : timers.entrySet()) {
+			final String operation = entry.getKey();
+			final HistogramSnapshot snapshot = entry.getValue().takeSnapshot();
+			final Duration phaseDuration = phaseDurations.get(operationPhases.get(operation));
+			final double throughput = phaseDuration != null && !phaseDuration.isZero()
+					? snapshot.count() * 1000.0 / phaseDuration.toMillis() : 0;
+			final ValueAtPercentile[] percentiles = snapshot.percentileValues();
+			out.printf("%-20s %8d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+					operation,
+					snapshot.count(),
+					(long) errorCounter(operation).count(),
+					throughput,
+					percentiles[0].value(TimeUnit.MILLISECONDS),
+					percentiles[1].value(TimeUnit.MILLISECONDS),
+					percentiles[2].value(TimeUnit.MILLISECONDS),
+					snapshot.max(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private void setUpRooms() throws InterruptedException {
+		final SimulatedUser lecturer = new SimulatedUser(httpClient, timeout);
+		final List<Callable<Void>> setUp = new ArrayList<>();
+		setUp.add(() -> {
+			measure("lecturer.login", lecturer::loginAsGuest);
+			for (int i = 0; i < roomCount; i++) {
+				final String name = "Load test " + i;
+				final String abbreviation = "LT" + i;
+				final String shortId = time("room.create", () -> lecturer.createRoom(name, abbreviation));
+				final List<String> roomContentIds = new ArrayList<>();
+				for (int burst = 0; burst < answerBursts; burst++) {
+					final String subject = "Question " + burst;
+					roomContentIds.add(time("content.create",
+							() -> lecturer.createChoiceContent(shortId, subject, OPTIONS)));
+				}
+				roomShortIds.add(shortId);
+				contentIds.add(roomContentIds);
+			}
+			return null;
+		});
+		runPhase("setup", setUp);
+		if (roomShortIds.size() < roomCount) {
+			throw new IllegalStateException("Rooms could not be set up.");
+		}
+	}
+
+	private void runPhase(final String phase, final List<Callable<Void>> tasks) throws InterruptedException {
+		currentPhase = phase;
+		final long start = System.nanoTime();
+		executor.invokeAll(tasks);
+		phaseDurations.merge(phase, Duration.ofNanos(System.nanoTime() - start), Duration::plus);
+	}
+
+	private <T> T time(final String operation, final Callable<T> call) throws Exception {
+		final Timer timer;
+		synchronized (timers) {
+			timer = timers.computeIfAbsent(operation, name -> Timer.builder(name)
+					.publishPercentiles(PERCENTILES)
+					.register(registry));
+			operationPhases.putIfAbsent(operation, currentPhase);
+		}
+		final long start = System.nanoTime();
+		try {
+			final T result = call.call();
+			timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+			return result;
+		} catch (final Exception e) {
+			errorCounter(operation).increment();
+			logger.warn("Operation {} failed: {}", operation, e.getMessage());
+			throw e;
+		}
+	}
+
+	private void measure(final String operation, final ThrowingRunnable runnable) throws Exception {
+		time(operation, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+
+	private Counter errorCounter(final String operation) {
+		return registry.counter(operation + ".errors");
+	}
+
+	private void shutdown() {
+		participants.forEach(SimulatedUser::close);
+		executor.shutdownNow();
+		scheduler.shutdownNow();
+	}
+
+	@FunctionalInterface
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * A simulated user of the legacy (v2) API. Authentication is based on a session cookie which is shared by the REST
+ * requests and the assignment of the Socket.IO connection.
+ */
+class SimulatedUser {
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final HttpClient httpClient;
+	private final Duration timeout;
+	private String cookie = "";
+	private SocketIoClient socket;
+
+	SimulatedUser(final HttpClient httpClient, final Duration timeout) {
+		this.httpClient = httpClient;
+		this.timeout = timeout;
+	}
+
+	void loginAsGuest() {
+		request(HttpMethod.POST, "/v2/auth/login?type=guest", null);
+	}
+
+	/**
+	 * Creates a room.
+	 *
+	 * @return The room's short ID
+	 */
+	String createRoom(final String name, final String abbreviation) {
+		final ObjectNode room = objectMapper.createObjectNode();
+		room.put("name", name);
+		room.put("shortName", abbreviation);
+
+		return request(HttpMethod.POST, "/v2/session/", room).get("keyword").asText();
+	}
+
+	/**
+	 * Creates a published single choice content.
+	 *
+	 * @return The content's ID
+	 */
+	String createChoiceContent(final String roomShortId, final String subject, final List<String> options) {
+		final ObjectNode content = objectMapper.createObjectNode();
+		content.put("sessionKeyword", roomShortId);
+		content.put("questionType", "abcd");
+		content.put("questionVariant", "lecture");
+		content.put("subject", subject);
+		content.put("text", subject);
+		content.put("active", true);
+		content.put("piRound", 1);
+		final ArrayNode possibleAnswers = content.putArray("possibleAnswers");
+		options.forEach(option -> possibleAnswers.addObject().put("text", option).put("correct", false));
+		final JsonNode created = request(HttpMethod.POST, "/v2/lecturerquestion/", content);
+
+		return created.has("_id") ? created.get("_id").asText() : created.get("id").asText();
+	}
+
+	void joinRoom(final String roomShortId) {
+		request(HttpMethod.GET, "/v2/session/" + roomShortId, null);
+	}
+
+	/**
+	 * Opens a Socket.IO connection, assigns it to the authenticated user and enters the room.
+	 */
+	void connectSocket(final String socketUrl, final String roomShortId, final ScheduledExecutorService scheduler)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		socket = new SocketIoClient(scheduler);
+		final String sessionId = socket.connect(socketUrl, timeout);
+		final ObjectNode assignment = objectMapper.createObjectNode();
+		assignment.put("session", sessionId);
+		request(HttpMethod.POST, "/v2/socket/assign", assignment);
+		final ObjectNode room = objectMapper.createObjectNode();
+		room.put("keyword", roomShortId);
+		final CompletableFuture<JsonNode> joined = socket.expectEvent("activeUserCountData");
+		socket.emit("setSession", room);
+		joined.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sends a feedback vote and waits for the updated feedback which is broadcasted to the room.
+	 */
+	void sendFeedback(final int value) throws InterruptedException, ExecutionException, TimeoutException {
+		final ObjectNode feedback = objectMapper.createObjectNode();
+		feedback.put("value", value);
+		final CompletableFuture<JsonNode> update = socket.expectEvent("feedbackData");
+		socket.emit("setFeedback", feedback);
+		update.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	void answer(final String contentId, final String option) {
+		final ObjectNode answer = objectMapper.createObjectNode();
+		answer.put("questionId", contentId);
+		answer.put("answerText", option);
+		answer.put("piRound", 1);
+		answer.put("abstention", false);
+		request(HttpMethod.POST, "/v2/lecturerquestion/" + contentId + "/answer/", answer);
+	}
+
+	void close() {
+		if (socket != null) {
+			socket.close();
+		}
+	}
+
+	private JsonNode request(final HttpMethod method, final String uri, final JsonNode body) {
+		final HttpClient.RequestSender sender = httpClient
+				.headers(headers -> headers
+						.set(HttpHeaderNames.COOKIE, cookie)
+						.set(HttpHeaderNames.ACCEPT, "application/json")
+						.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+				.request(method)
+				.uri(uri);
+		final HttpClient.ResponseReceiver<?> receiver = body != null
+				? sender.send(ByteBufFlux.fromString(Mono.just(body.toString())))
+				: sender;
+		final String responseBody = receiver
+				.responseSingle((response, content) -> {
+					if (response.status().code() >= 400) {
+						return Mono.error(new IllegalStateException(String.format(
+								"%s %s failed with status %d.", method, uri, response.status().code())));
+					}
+					final List<String> cookies = response.responseHeaders().getAll(HttpHeaderNames.SET_COOKIE);
+					if (!cookies.isEmpty()) {
+						cookie = cookies.stream()
+								.map(c -> c.split(";", 2)[0])
+								.collect(Collectors.joining("; "));
+					}
+
+					return content.asString().defaultIfEmpty("");
+				})
+				.block(timeout);
+		try {
+			return responseBody == null || responseBody.isEmpty()
+					? MissingNode.getInstance() : objectMapper.readTree(responseBody);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
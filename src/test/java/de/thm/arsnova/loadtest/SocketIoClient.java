@@ -0,0 +1,148 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import reactor.core.Disposable;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * A minimal Socket.IO client (Engine.IO protocol version 3 over WebSocket transport) which supports the subset of the
+ * protocol needed to simulate clients of the legacy real-time API.
+ */
+class SocketIoClient {
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ScheduledExecutorService scheduler;
+	private final UnicastProcessor<String> outgoing = UnicastProcessor.create();
+	private final FluxSink<String> sink = outgoing.sink();
+	private final CompletableFuture<String> sessionId = new CompletableFuture<>();
+	private final Map<String, Queue<CompletableFuture<JsonNode>>> pendingEvents = new ConcurrentHashMap<>();
+	private Disposable connection;
+	private ScheduledFuture<?> heartbeat;
+
+	SocketIoClient(final ScheduledExecutorService scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Opens the connection and waits for the handshake.
+	 *
+	 * @return The session ID assigned by the server
+	 */
+	String connect(final String url, final Duration timeout)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		connection = HttpClient.create()
+				.websocket()
+				.uri(url + "/socket.io/?EIO=3&transport=websocket")
+				.handle((inbound, outbound) -> Mono.when(
+						outbound.sendString(outgoing).then(),
+						inbound.receive().asString().doOnNext(this::onPacket).then()))
+				.subscribe(null, sessionId::completeExceptionally);
+
+		return sessionId.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Registers interest in the next event with the given name. Call this before emitting the event which triggers
+	 * the expected response to avoid missing it.
+	 */
+	CompletableFuture<JsonNode> expectEvent(final String name) {
+		final CompletableFuture<JsonNode> future = new CompletableFuture<>();
+		pendingEvents.computeIfAbsent(name, n -> new ConcurrentLinkedQueue<>()).add(future);
+
+		return future;
+	}
+
+	void emit(final String name, final Object data) {
+		try {
+			sink.next("42" + objectMapper.writeValueAsString(Arrays.asList(name, data)));
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void close() {
+		if (heartbeat != null) {
+			heartbeat.cancel(false);
+		}
+		sink.complete();
+		if (connection != null) {
+			connection.dispose();
+		}
+	}
+
+	private void onPacket(final String packet) {
+		if (packet.isEmpty()) {
+			return;
+		}
+		try {
+			switch (packet.charAt(0)) {
+				case '0':
+					final JsonNode handshake = objectMapper.readTree(packet.substring(1));
+					final long pingInterval = handshake.path("pingInterval").asLong(25000);
+					heartbeat = scheduler.scheduleAtFixedRate(
+							() -> sink.next("2"), pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+					sessionId.complete(handshake.get("sid").asText());
+					break;
+				case '4':
+					if (packet.startsWith("42")) {
+						onEvent(objectMapper.readTree(packet.substring(2)));
+					}
+					break;
+				default:
+					/* Pongs and other packet types are not relevant for the simulation. */
+					break;
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void onEvent(final JsonNode event) {
+		final Queue<CompletableFuture<JsonNode>> futures = pendingEvents.get(event.get(0).asText());
+		if (futures == null) {
+			return;
+		}
+		final JsonNode data = event.size() > 1 ? event.get(1) : NullNode.getInstance();
+		CompletableFuture<JsonNode> future;
+		while ((future = futures.poll()) != null) {
+			future.complete(data);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.couchdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.ektorp.CouchDbConnector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.thm.arsnova.config.properties.CouchDbProperties.LogWriter.OverflowPolicy;
+import de.thm.arsnova.model.migration.v2.LogEntry;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class CouchDbLogEntryRepositoryTest {
+	private static final long TIMEOUT_S = 5;
+
+	@Mock
+	private CouchDbConnector db;
+
+	private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicBoolean blockFirstWrite = new AtomicBoolean();
+	private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+	private final CountDownLatch firstWriteReleased = new CountDownLatch(1);
+	private CouchDbLogEntryRepository repository;
+
+	@Before
+	public void setUp() {
+		doAnswer(invocation -> {
+			batches.add(invocation.<Collection<LogEntry>>getArgument(0).stream()
+					.map(LogEntry::getEvent).collect(Collectors.toList()));
+			if (blockFirstWrite.compareAndSet(true, false)) {
+				firstWriteStarted.countDown();
+				firstWriteReleased.await(TIMEOUT_S, TimeUnit.SECONDS);
+			}
+
+			return Collections.emptyList();
+		}).when(db).executeBulk(anyCollection());
+	}
+
+	@After
+	public void tearDown() {
+		firstWriteReleased.countDown();
+		if (repository != null) {
+			repository.stop();
+		}
+	}
+
+	@Test
+	public void testEntriesAreWrittenInBatches() throws InterruptedException {
+		startWithBlockedWriter(10, 2, OverflowPolicy.DISCARD_NEW);
+		create("e2", "e3", "e4", "e5", "e6");
+		firstWriteReleased.countDown();
+		repository.stop();
+
+		assertEquals(Arrays.asList(
+				Collections.singletonList("e1"),
+				Arrays.asList("e2", "e3"),
+				Arrays.asList("e4", "e5"),
+				Collections.singletonList("e6")), batches);
+	}
+
+	@Test
+	public void testNewEntriesAreDiscardedIfQueueIsFull() throws InterruptedException {
+		startWithBlockedWriter(2, 10, OverflowPolicy.DISCARD_NEW);
+		create("e2", "e3", "e4");
+		firstWriteReleased.countDown();
+		repository.stop();
+
+		assertEquals(Arrays.asList("e1", "e2", "e3"), writtenEvents());
+	}
+
+	@Test
+	public void testOldestEntriesAreDiscardedIfQueueIsFull() throws InterruptedException {
+		startWithBlockedWriter(2, 10, OverflowPolicy.DISCARD_OLDEST);
+		create("e2", "e3", "e4");
+		firstWriteReleased.countDown();
+		repository.stop();
+
+		assertEquals(Arrays.asList("e1", "e3", "e4"), writtenEvents());
+	}
+
+	@Test
+	public void testCallerWritesEntriesIfQueueIsFull() throws InterruptedException {
+		startWithBlockedWriter(2, 10, OverflowPolicy.CALLER_WRITES);
+		create("e2", "e3", "e4");
+
+		assertEquals(Arrays.asList(Collections.singletonList("e1"), Collections.singletonList("e4")), batches);
+		firstWriteReleased.countDown();
+		repository.stop();
+
+		assertEquals(Arrays.asList("e1", "e4", "e2", "e3"), writtenEvents());
+	}
+
+	@Test
+	public void testPendingEntriesAreWrittenOnStop() throws InterruptedException {
+		startWithBlockedWriter(10, 2, OverflowPolicy.DISCARD_NEW);
+		create("e2", "e3", "e4");
+		final Thread releaser = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			firstWriteReleased.countDown();
+		});
+		releaser.start();
+		repository.stop();
+
+		assertEquals(Arrays.asList("e1", "e2", "e3", "e4"), writtenEvents());
+		assertFalse(repository.isRunning());
+	}
+
+	@Test
+	public void testEntriesAreWrittenSynchronouslyIfNotRunning() {
+		repository = new CouchDbLogEntryRepository(db, false, 10, 2, OverflowPolicy.DISCARD_NEW);
+		create("e1");
+		repository.start();
+		repository.stop();
+		create("e2");
+
+		assertEquals(Arrays.asList(Collections.singletonList("e1"), Collections.singletonList("e2")), batches);
+	}
+
+	/**
+	 * Starts the repository and creates the entry <code>e1</code> which is taken by the writer. The writer is blocked
+	 * while writing it, so subsequently created entries stay in the queue.
+	 */
+	private void startWithBlockedWriter(final int queueCapacity, final int batchSize,
+			final OverflowPolicy overflowPolicy) throws InterruptedException {
+		repository = new CouchDbLogEntryRepository(db, false, queueCapacity, batchSize, overflowPolicy);
+		blockFirstWrite.set(true);
+		repository.start();
+		create("e1");
+		assertTrue(firstWriteStarted.await(TIMEOUT_S, TimeUnit.SECONDS));
+	}
+
+	private void create(final String... events) {
+		for (final String event : events) {
+			repository.create(event, LogEntry.LogLevel.INFO, Collections.emptyMap());
+		}
+	}
+
+	private List<String> writtenEvents() {
+		return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+}
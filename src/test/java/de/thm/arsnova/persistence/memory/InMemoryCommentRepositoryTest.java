@@ -0,0 +1,121 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.persistence.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.ektorp.DocumentNotFoundException;
+import org.ektorp.UpdateConflictException;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.serialization.CouchDbObjectMapperFactory;
+
+public class InMemoryCommentRepositoryTest {
+	private InMemoryCommentRepository repository;
+
+	@Before
+	public void setUp() {
+		repository = new InMemoryCommentRepository(new CouchDbObjectMapperFactory().createDetachedObjectMapper());
+	}
+
+	private static Comment createComment(final String roomId, final String creatorId) {
+		final Comment comment = new Comment();
+		comment.setRoomId(roomId);
+		comment.setCreatorId(creatorId);
+		comment.setSubject("Subject");
+		comment.setBody("Body");
+
+		return comment;
+	}
+
+	@Test
+	public void shouldAssignIdAndRevisionOnCreation() {
+		final Comment comment = repository.save(createComment("room", "user"));
+
+		assertNotNull(comment.getId());
+		assertTrue(comment.getRevision().startsWith("1-"));
+		assertEquals(comment.getRevision(), repository.findOne(comment.getId()).getRevision());
+	}
+
+	@Test
+	public void shouldIncrementRevisionOnUpdate() {
+		final Comment comment = repository.save(createComment("room", "user"));
+		comment.setBody("Updated");
+		repository.save(comment);
+
+		assertTrue(comment.getRevision().startsWith("2-"));
+		assertEquals("Updated", repository.findOne(comment.getId()).getBody());
+	}
+
+	@Test(expected = UpdateConflictException.class)
+	public void shouldRejectUpdateWithStaleRevision() {
+		final Comment comment = repository.save(createComment("room", "user"));
+		final Comment stale = repository.findOne(comment.getId());
+		repository.save(comment);
+		repository.save(stale);
+	}
+
+	@Test
+	public void shouldNotExposeStoredEntities() {
+		final Comment comment = repository.save(createComment("room", "user"));
+		comment.setBody("Unsaved");
+		repository.findOne(comment.getId()).setBody("Unsaved");
+
+		assertEquals("Body", repository.findOne(comment.getId()).getBody());
+	}
+
+	@Test
+	public void shouldKeepIndexesInSync() {
+		final Comment comment = repository.save(createComment("room1", "user"));
+		repository.save(createComment("room1", "user"));
+		comment.setRoomId("room2");
+		repository.save(comment);
+
+		assertEquals(1, repository.countByRoomId("room1"));
+		assertEquals(1, repository.countByRoomId("room2"));
+		assertEquals(1, repository.findByRoomIdAndUserId("room2", "user", 0, 0).size());
+	}
+
+	@Test
+	public void shouldSkipConflictingDocumentsInBulkOperations() {
+		final Comment comment1 = repository.save(createComment("room", "user"));
+		final Comment comment2 = repository.save(createComment("room", "user"));
+		final Comment stale = repository.findOne(comment2.getId());
+		repository.save(comment2);
+		repository.deleteAll(Arrays.asList(comment1, stale));
+
+		assertFalse(repository.existsById(comment1.getId()));
+		assertTrue(repository.existsById(comment2.getId()));
+		assertEquals(1, repository.countByRoomId("room"));
+	}
+
+	@Test(expected = DocumentNotFoundException.class)
+	public void shouldThrowForDeletedDocuments() {
+		final Comment comment = repository.save(createComment("room", "user"));
+		repository.deleteAll(Collections.singletonList(comment));
+		repository.findOne(comment.getId());
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.thm.arsnova.model.FindQuery;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.PropertyQueryRepository;
+import de.thm.arsnova.persistence.RoomRepository;
+
+public class AbstractFindQueryServiceTest {
+	private RoomRepository roomRepository;
+	private SimpleMeterRegistry meterRegistry;
+
+	@Before
+	public void setUp() {
+		roomRepository = mock(RoomRepository.class, withSettings().extraInterfaces(PropertyQueryRepository.class));
+		when(((PropertyQueryRepository) roomRepository).getIndexedProperties())
+				.thenReturn(Collections.singleton("ownerId"));
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	public void shouldPushDownIndexedPropertiesAndIntersectFilters() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("ownerId", "owner");
+		properties.put("closed", false);
+		when(((PropertyQueryRepository) roomRepository).findIdsByProperties(properties))
+				.thenReturn(new HashSet<>(Arrays.asList("room1", "room2")));
+		final TestFindQueryService service = new TestFindQueryService(roomRepository);
+
+		final FindQuery<Room> findQuery = createFindQuery("owner", "moderator");
+
+		assertEquals(Collections.singleton("room2"), service.resolveQuery(findQuery));
+		assertNotNull(meterRegistry.find("arsnova.find.query")
+				.tags("entity", "room", "filter", "ownerId", "strategy", "database").timer());
+		assertNotNull(meterRegistry.find("arsnova.find.query")
+				.tags("entity", "room", "filter", "moderatedByUserId", "strategy", "service").timer());
+	}
+
+	@Test
+	public void shouldMergeFiltersForOrOperator() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("ownerId", "owner");
+		properties.put("closed", false);
+		when(((PropertyQueryRepository) roomRepository).findIdsByProperties(properties))
+				.thenReturn(Collections.singleton("room1"));
+		final TestFindQueryService service = new TestFindQueryService(roomRepository);
+
+		final FindQuery<Room> findQuery = createFindQuery("owner", "moderator");
+		findQuery.setOperator(FindQuery.LogicalOperator.OR);
+
+		assertEquals(new HashSet<>(Arrays.asList("room1", "room2", "room3")), service.resolveQuery(findQuery));
+	}
+
+	@Test
+	public void shouldUseDefaultOperatorOfServiceIfQueryHasNone() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("ownerId", "owner");
+		properties.put("closed", false);
+		when(((PropertyQueryRepository) roomRepository).findIdsByProperties(properties))
+				.thenReturn(new HashSet<>(Arrays.asList("room1", "room2")));
+		final TestFindQueryService service = new TestFindQueryService(roomRepository, FindQuery.LogicalOperator.OR);
+
+		final FindQuery<Room> findQuery = createFindQuery("owner", "moderator");
+		assertEquals(new HashSet<>(Arrays.asList("room1", "room2", "room3")), service.resolveQuery(findQuery));
+
+		findQuery.setOperator(FindQuery.LogicalOperator.AND);
+		assertEquals(Collections.singleton("room2"), service.resolveQuery(findQuery));
+	}
+
+	@Test
+	public void shouldResolveSinglePropertyFilterLikeQueries() {
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("ownerId", "owner");
+		properties.put("closed", false);
+		when(((PropertyQueryRepository) roomRepository).findIdsByProperties(properties))
+				.thenReturn(Collections.singleton("room1"));
+
+		assertEquals(Collections.singleton("room1"),
+				new TestFindQueryService(roomRepository).resolvePropertyFilter("ownerId", "owner"));
+		assertEquals(Collections.singleton("resolved-owner"),
+				new TestFindQueryService(mock(RoomRepository.class)).resolvePropertyFilter("ownerId", "owner"));
+	}
+
+	@Test
+	public void shouldUseResolverIfPropertyIsNotIndexed() {
+		final RoomRepository unindexedRepository = mock(RoomRepository.class);
+		final TestFindQueryService service = new TestFindQueryService(unindexedRepository);
+
+		final FindQuery<Room> findQuery = createFindQuery("owner", null);
+
+		assertEquals(Collections.singleton("resolved-owner"), service.resolveQuery(findQuery));
+		assertNotNull(meterRegistry.find("arsnova.find.query")
+				.tags("filter", "ownerId", "strategy", "service").timer());
+	}
+
+	private static FindQuery<Room> createFindQuery(final String ownerId, final String moderatorId) {
+		final Room room = new Room();
+		room.setOwnerId(ownerId);
+		final FindQuery<Room> findQuery = new FindQuery<>();
+		findQuery.setProperties(room);
+		final Map<String, Object> externalFilters = new HashMap<>();
+		if (moderatorId != null) {
+			externalFilters.put("moderatedByUserId", moderatorId);
+		}
+		findQuery.setExternalFilters(externalFilters);
+
+		return findQuery;
+	}
+
+	private class TestFindQueryService extends AbstractFindQueryService<Room> {
+		private TestFindQueryService(final RoomRepository repository) {
+			this(repository, FindQuery.LogicalOperator.AND);
+		}
+
+		private TestFindQueryService(final RoomRepository repository, final FindQuery.LogicalOperator defaultOperator) {
+			super(Room.class, repository, defaultOperator);
+			setMeterRegistry(meterRegistry);
+			addPropertyFilter("ownerId", Room::getOwnerId, ownerId -> {
+				final Map<String, Object> properties = new HashMap<>();
+				properties.put("ownerId", ownerId);
+				properties.put("closed", false);
+				return properties;
+			}, ownerId -> Collections.singleton("resolved-" + ownerId));
+			addExternalFilter("moderatedByUserId", moderatorId -> Arrays.asList("room2", "room3"));
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.thm.arsnova.model.Comment;
+import de.thm.arsnova.model.migration.v2.CommentReadingCount;
+import de.thm.arsnova.persistence.CommentRepository;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class CommentCountersTest {
+	@Mock
+	private CommentRepository commentRepository;
+
+	private CommentCounters commentCounters;
+
+	private Comment comment;
+
+	@Before
+	public void setUp() {
+		commentCounters = new CommentCounters(commentRepository);
+		comment = new Comment();
+		comment.setRoomId("room");
+		comment.setCreatorId("creator");
+	}
+
+	@Test
+	public void testCountsFollowCommentChanges() {
+		when(commentRepository.countReadingByRoomId("room")).thenReturn(new CommentReadingCount(2, 3));
+		when(commentRepository.countReadingByRoomIdAndUserId("room", "creator"))
+				.thenReturn(new CommentReadingCount(1, 1));
+		commentCounters.countByRoomId("room");
+		commentCounters.countByRoomIdAndCreatorId("room", "creator");
+
+		commentCounters.handleCreation(comment);
+		comment.setRead(true);
+		commentCounters.handleReadStateChange(comment);
+		final Comment otherComment = new Comment();
+		otherComment.setRoomId("room");
+		otherComment.setCreatorId("other");
+		commentCounters.handleCreation(otherComment);
+
+		final CommentReadingCount roomCount = commentCounters.countByRoomId("room");
+		assertEquals(3, roomCount.getRead());
+		assertEquals(4, roomCount.getUnread());
+		final CommentReadingCount creatorCount = commentCounters.countByRoomIdAndCreatorId("room", "creator");
+		assertEquals(2, creatorCount.getRead());
+		assertEquals(1, creatorCount.getUnread());
+		verify(commentRepository, times(1)).countReadingByRoomId("room");
+		verify(commentRepository, times(1)).countReadingByRoomIdAndUserId("room", "creator");
+	}
+
+	@Test
+	public void testCountLoadedDuringCreationIsNotStored() {
+		/* The comment is created after the view has been queried, so the loaded count does not include it. */
+		when(commentRepository.countReadingByRoomId("room")).thenAnswer(invocation -> {
+			commentCounters.handleCreation(comment);
+			return new CommentReadingCount(0, 1);
+		}).thenReturn(new CommentReadingCount(0, 2));
+
+		assertEquals(1, commentCounters.countByRoomId("room").getUnread());
+		assertEquals(2, commentCounters.countByRoomId("room").getUnread());
+		assertEquals(2, commentCounters.countByRoomId("room").getUnread());
+		verify(commentRepository, times(2)).countReadingByRoomId("room");
+	}
+
+	@Test
+	public void testInconsistentCountIsReloaded() {
+		when(commentRepository.countReadingByRoomId("room")).thenReturn(new CommentReadingCount(0, 0));
+		commentCounters.countByRoomId("room");
+
+		/* A read state change of a comment which was not part of the loaded count */
+		comment.setRead(true);
+		commentCounters.handleReadStateChange(comment);
+		commentCounters.countByRoomId("room");
+
+		verify(commentRepository, times(2)).countReadingByRoomId("room");
+	}
+
+	@Test
+	public void testInvalidationDropsCountsOfRoom() {
+		when(commentRepository.countReadingByRoomId("room")).thenReturn(new CommentReadingCount(2, 3));
+		commentCounters.countByRoomId("room");
+
+		commentCounters.invalidate("room");
+		commentCounters.handleCreation(comment);
+		commentCounters.countByRoomId("room");
+
+		verify(commentRepository, times(2)).countReadingByRoomId("room");
+	}
+}
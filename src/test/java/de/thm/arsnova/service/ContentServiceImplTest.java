@@ -0,0 +1,254 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Matchers.anyIterableOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import de.thm.arsnova.config.AppConfig;
+import de.thm.arsnova.config.TestAppConfig;
+import de.thm.arsnova.config.TestPersistanceConfig;
+import de.thm.arsnova.config.TestSecurityConfig;
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterFullUpdateEvent;
+import de.thm.arsnova.model.Content;
+import de.thm.arsnova.model.ContentGroup;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.ContentRepository;
+import de.thm.arsnova.persistence.RoomRepository;
+import de.thm.arsnova.test.context.support.WithMockUser;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {
+		AppConfig.class,
+		TestAppConfig.class,
+		TestPersistanceConfig.class,
+		TestSecurityConfig.class})
+@ActiveProfiles("test")
+public class ContentServiceImplTest {
+	private static final String ROOM_ID = "8e1f3ed2e3a4493c9d9dbc4f0b6d6b5f";
+	private static final String OWNER_ID = "TestOwner";
+	private static final String PARTICIPANT_ID = "TestParticipant";
+	private static final String VISIBLE_CONTENT_ID = "a6d2c6d4e8b34e5a9b1bc5f1e7a3d2c1";
+	private static final String LOCKED_CONTENT_ID = "b7e3d7e5f9c45f6b0c2cd6a2f8b4e3d2";
+	private static final String SOME_TEXT = "SomeText";
+
+	@Autowired
+	private ContentService contentService;
+
+	@Autowired
+	private StubUserService userService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private ContentRepository contentRepository;
+
+	private Content visibleContent;
+	private Content lockedContent;
+
+	@Before
+	public void prepare() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		reset(roomRepository, contentRepository);
+
+		final Room room = new Room();
+		room.setId(ROOM_ID);
+		room.setOwnerId(OWNER_ID);
+		room.setName(SOME_TEXT);
+		room.setAbbreviation(SOME_TEXT);
+		room.setShortId("12345678");
+		visibleContent = createContent(VISIBLE_CONTENT_ID, true);
+		lockedContent = createContent(LOCKED_CONTENT_ID, false);
+
+		when(roomRepository.findOne(ROOM_ID)).thenReturn(room);
+		when(contentRepository.findIdsByRoomId(ROOM_ID))
+				.thenReturn(Arrays.asList(VISIBLE_CONTENT_ID, LOCKED_CONTENT_ID));
+		when(contentRepository.findOne(VISIBLE_CONTENT_ID)).thenReturn(visibleContent);
+		when(contentRepository.findOne(LOCKED_CONTENT_ID)).thenReturn(lockedContent);
+		when(contentRepository.findAllById(anyIterableOf(String.class))).then(invocation -> {
+			final List<Content> contents = new ArrayList<>();
+			for (final String id : invocation.<Iterable<String>>getArgument(0)) {
+				contents.add(VISIBLE_CONTENT_ID.equals(id) ? visibleContent : lockedContent);
+			}
+			return contents;
+		});
+		when(contentRepository.saveAll(anyListOf(Content.class))).then(returnsFirstArg());
+	}
+
+	@After
+	public void cleanup() {
+		userService.setUserAuthenticated(false);
+	}
+
+	@Test
+	@WithMockUser(OWNER_ID)
+	public void testGetByRoomIdReturnsAllContentsForOwner() {
+		userService.setUserAuthenticated(true, OWNER_ID, OWNER_ID);
+
+		final List<Content> contents = contentService.getByRoomId(ROOM_ID);
+
+		assertEquals(Arrays.asList(visibleContent, lockedContent), contents);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testGetByRoomIdReturnsOnlyVisibleContentsForParticipants() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+
+		final List<Content> contents = contentService.getByRoomId(ROOM_ID);
+
+		assertEquals(Arrays.asList(visibleContent), contents);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testGetByRoomIdUsesCaches() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+
+		contentService.getByRoomId(ROOM_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(1)).findIdsByRoomId(ROOM_ID);
+		verify(contentRepository, times(1)).findAllById(Arrays.asList(VISIBLE_CONTENT_ID, LOCKED_CONTENT_ID));
+		verify(contentRepository, never()).findOne(VISIBLE_CONTENT_ID);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testContentCreationEvictsContentList() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		eventPublisher.publishEvent(new AfterCreationEvent<>(this, createContent("c3", true)));
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(2)).findIdsByRoomId(ROOM_ID);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testContentUpdateEvictsContentList() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		eventPublisher.publishEvent(new AfterFullUpdateEvent<>(this, visibleContent, visibleContent));
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(2)).findIdsByRoomId(ROOM_ID);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testContentDeletionEvictsContentList() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		eventPublisher.publishEvent(new AfterDeletionEvent<>(this, lockedContent));
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(2)).findIdsByRoomId(ROOM_ID);
+	}
+
+	@Test
+	@WithMockUser(OWNER_ID)
+	public void testPublishContentsEvictsContentList() throws IOException {
+		userService.setUserAuthenticated(true, OWNER_ID, OWNER_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		contentService.publishContents(ROOM_ID, true, new ArrayList<>(Arrays.asList(lockedContent)));
+		final List<Content> contents = contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(2)).findIdsByRoomId(ROOM_ID);
+		assertEquals(true, contents.get(1).getState().isVisible());
+	}
+
+	@Test
+	@WithMockUser(OWNER_ID)
+	public void testSetVotingAdmissionsEvictsContentList() {
+		userService.setUserAuthenticated(true, OWNER_ID, OWNER_ID);
+		contentService.getByRoomId(ROOM_ID);
+
+		contentService.setVotingAdmissions(ROOM_ID, true, new ArrayList<>(Arrays.asList(visibleContent)));
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(2)).findIdsByRoomId(ROOM_ID);
+	}
+
+	@Test
+	@WithMockUser(PARTICIPANT_ID)
+	public void testContentGroupChangesEvictContentList() {
+		userService.setUserAuthenticated(true, PARTICIPANT_ID, PARTICIPANT_ID);
+		final ContentGroup contentGroup = new ContentGroup(ROOM_ID, "lecture");
+		contentService.getByRoomId(ROOM_ID);
+
+		eventPublisher.publishEvent(new AfterCreationEvent<>(this, contentGroup));
+		contentService.getByRoomId(ROOM_ID);
+		eventPublisher.publishEvent(new AfterFullUpdateEvent<>(this, contentGroup, contentGroup));
+		contentService.getByRoomId(ROOM_ID);
+		eventPublisher.publishEvent(new AfterDeletionEvent<>(this, contentGroup));
+		contentService.getByRoomId(ROOM_ID);
+
+		verify(contentRepository, times(4)).findIdsByRoomId(ROOM_ID);
+	}
+
+	private Content createContent(final String id, final boolean visible) {
+		final Content content = new Content();
+		content.setId(id);
+		content.setRoomId(ROOM_ID);
+		content.setSubject(SOME_TEXT);
+		content.setBody(SOME_TEXT);
+		content.setFormat(Content.Format.CHOICE);
+		content.getState().setVisible(visible);
+
+		return content;
+	}
+}
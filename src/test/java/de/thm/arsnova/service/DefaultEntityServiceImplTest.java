@@ -19,15 +19,21 @@
 package de.thm.arsnova.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,10 +60,13 @@ import de.thm.arsnova.config.TestAppConfig;
 import de.thm.arsnova.config.TestPersistanceConfig;
 import de.thm.arsnova.config.TestSecurityConfig;
 import de.thm.arsnova.event.AfterUpdateEvent;
+import de.thm.arsnova.event.BatchEvent;
 import de.thm.arsnova.event.BeforeUpdateEvent;
 import de.thm.arsnova.model.Room;
 import de.thm.arsnova.model.serialization.View;
+import de.thm.arsnova.persistence.BulkOperationFailure;
 import de.thm.arsnova.persistence.RoomRepository;
+import de.thm.arsnova.security.ApplicationPermissionEvaluator;
 import de.thm.arsnova.test.context.support.WithMockUser;
 
 
@@ -88,6 +97,9 @@ public class DefaultEntityServiceImplTest {
 	@Autowired
 	private RoomRepository roomRepository;
 
+	@Autowired
+	private ApplicationPermissionEvaluator permissionEvaluator;
+
 	@Autowired
 	private EventListenerConfig eventListenerConfig;
 
@@ -135,6 +147,8 @@ public class DefaultEntityServiceImplTest {
 		assertEquals(originalName, eventListenerConfig.getRoomAfterUpdateEvents().get(0).getOldEntity().getName());
 		assertEquals(room.getName(), eventListenerConfig.getRoomBeforeUpdateEvents().get(0).getEntity().getName());
 		assertEquals(room.getName(), eventListenerConfig.getRoomAfterUpdateEvents().get(0).getEntity().getName());
+		assertNull(eventListenerConfig.getRoomAfterUpdateEvents().get(0).getBatch());
+		assertEquals(0, eventListenerConfig.getRoomAfterUpdateBatchEvents().size());
 	}
 
 	@Test
@@ -145,7 +159,7 @@ public class DefaultEntityServiceImplTest {
 				new DefaultEntityServiceImpl<>(Room.class, roomRepository, objectMapper, validator);
 		entityService.setApplicationEventPublisher(eventPublisher);
 
-		when(roomRepository.saveAll(anyListOf(Room.class))).then(returnsFirstArg());
+		when(roomRepository.bulkSave(anyListOf(Room.class))).thenReturn(Collections.emptyList());
 
 		final List<Room> sessions = new ArrayList<>();
 		final String originalId1 = "d8833f0d78964a9487ded02ba2dfbbad";
@@ -197,6 +211,44 @@ public class DefaultEntityServiceImplTest {
 		assertEquals(originalName2, eventListenerConfig.getRoomAfterUpdateEvents().get(1).getOldEntity().getName());
 		assertEquals(room2.getName(), eventListenerConfig.getRoomBeforeUpdateEvents().get(1).getEntity().getName());
 		assertEquals(room2.getName(), eventListenerConfig.getRoomAfterUpdateEvents().get(1).getEntity().getName());
+
+		assertEquals(1, eventListenerConfig.getRoomAfterUpdateBatchEvents().size());
+		final BatchEvent<? extends AfterUpdateEvent<Room>> batchEvent =
+				eventListenerConfig.getRoomAfterUpdateBatchEvents().get(0);
+		assertEquals(Arrays.asList(room1, room2), batchEvent.getEntities());
+		assertSame(batchEvent, eventListenerConfig.getRoomAfterUpdateEvents().get(0).getBatch());
+		assertSame(batchEvent, eventListenerConfig.getRoomAfterUpdateEvents().get(1).getBatch());
+		assertNotNull(eventListenerConfig.getRoomBeforeUpdateEvents().get(0).getBatch());
+	}
+
+	@Test
+	@WithMockUser("TestUser")
+	public void testPatchWithListSkipsFailedDocuments() throws IOException {
+		final ObjectMapper objectMapper = jackson2HttpMessageConverter.getObjectMapper();
+		final DefaultEntityServiceImpl<Room> entityService =
+				new DefaultEntityServiceImpl<>(Room.class, roomRepository, objectMapper, validator);
+		entityService.setApplicationEventPublisher(eventPublisher);
+
+		final Room room1 = new Room();
+		prefillRoomFields(room1);
+		room1.setId("7d1e0f5c3b2a4e8d9c6b5a4f3e2d1c0b");
+		room1.setOwnerId("TestUser");
+		final Room room2 = new Room();
+		prefillRoomFields(room2);
+		room2.setId("1a2b3c4d5e6f4a7b8c9d0e1f2a3b4c5d");
+		room2.setOwnerId("TestUser");
+		when(roomRepository.bulkSave(anyListOf(Room.class))).thenReturn(Collections.singletonList(
+				new BulkOperationFailure(room2.getId(), "conflict")));
+
+		final Iterable<Room> patchedRooms = entityService.patch(
+				Arrays.asList(room1, room2), Collections.singletonMap("name", "Patched Room"), View.Public.class);
+
+		assertEquals(Collections.singletonList(room1), patchedRooms);
+		assertEquals(2, eventListenerConfig.getRoomBeforeUpdateEvents().size());
+		assertEquals(1, eventListenerConfig.getRoomAfterUpdateEvents().size());
+		assertSame(room1, eventListenerConfig.getRoomAfterUpdateEvents().get(0).getEntity());
+		assertEquals(Collections.singletonList(room1),
+				eventListenerConfig.getRoomAfterUpdateBatchEvents().get(0).getEntities());
 	}
 
 	@Test
@@ -240,6 +292,43 @@ public class DefaultEntityServiceImplTest {
 		assertSame(room2, entityService.get(room1.getId()));
 	}
 
+	@Test
+	@WithMockUser("TestUser")
+	public void testGetMultiple() {
+		final ObjectMapper objectMapper = jackson2HttpMessageConverter.getObjectMapper();
+		final DefaultEntityServiceImpl<Room> entityService =
+				new DefaultEntityServiceImpl<>(Room.class, roomRepository, objectMapper, validator);
+		entityService.setApplicationEventPublisher(eventPublisher);
+		entityService.setPermissionEvaluator(permissionEvaluator);
+		entityService.setCacheManager(cacheManager);
+
+		final Room room1 = new Room();
+		prefillRoomFields(room1);
+		room1.setId("0f3a2c5e1b7d4e6f8a9b0c1d2e3f4a5b");
+		room1.setOwnerId("TestUser");
+		final Room room2 = new Room();
+		prefillRoomFields(room2);
+		room2.setId("9e8d7c6b5a4f4e3d2c1b0a9f8e7d6c5b");
+		room2.setOwnerId("OtherUser");
+		final Room room3 = new Room();
+		prefillRoomFields(room3);
+		room3.setId("5b4a3f2e1d0c4b9a8f7e6d5c4b3a2f1e");
+		room3.setOwnerId("OtherUser");
+		room3.setClosed(true);
+
+		cacheManager.getCache("entity").put("room-" + room1.getId(), room1);
+		when(roomRepository.findAllById(eq(Arrays.asList(room2.getId(), room3.getId()))))
+				.thenReturn(Arrays.asList(room2, room3));
+
+		final Iterable<Room> rooms = entityService.get(Arrays.asList(room1.getId(), room2.getId(), room3.getId()));
+
+		/* room1 is served from the cache and room3 is not readable since it is closed. */
+		assertEquals(Arrays.asList(room1, room2), rooms);
+		verify(roomRepository).findAllById(eq(Arrays.asList(room2.getId(), room3.getId())));
+		assertSame(room2, cacheManager.getCache("entity").get("room-" + room2.getId()).get());
+		assertEquals(Collections.singletonList(room2), entityService.get(Collections.singletonList(room2.getId())));
+	}
+
 	@Test(expected = ValidationException.class)
 	@WithMockUser("TestUser")
 	public void testValidation() {
@@ -267,6 +356,8 @@ public class DefaultEntityServiceImplTest {
 	public static class EventListenerConfig {
 		private final List<BeforeUpdateEvent<Room>> roomBeforeUpdateEvents = new ArrayList<>();
 		private final List<AfterUpdateEvent<Room>> roomAfterUpdateEvents = new ArrayList<>();
+		private final List<BatchEvent<? extends AfterUpdateEvent<Room>>> roomAfterUpdateBatchEvents =
+				new ArrayList<>();
 
 		@EventListener
 		public void handleContentStateChangeEvent(final BeforeUpdateEvent<Room> event) {
@@ -278,6 +369,11 @@ public class DefaultEntityServiceImplTest {
 			roomAfterUpdateEvents.add(event);
 		}
 
+		@EventListener
+		public void handleRoomUpdateBatchEvent(final BatchEvent<? extends AfterUpdateEvent<Room>> event) {
+			roomAfterUpdateBatchEvents.add(event);
+		}
+
 		public List<BeforeUpdateEvent<Room>> getRoomBeforeUpdateEvents() {
 			return roomBeforeUpdateEvents;
 		}
@@ -286,9 +382,14 @@ public class DefaultEntityServiceImplTest {
 			return roomAfterUpdateEvents;
 		}
 
+		public List<BatchEvent<? extends AfterUpdateEvent<Room>>> getRoomAfterUpdateBatchEvents() {
+			return roomAfterUpdateBatchEvents;
+		}
+
 		public void resetEvents() {
 			roomBeforeUpdateEvents.clear();
 			roomAfterUpdateEvents.clear();
+			roomAfterUpdateBatchEvents.clear();
 		}
 	}
 }
@@ -0,0 +1,75 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+
+import de.thm.arsnova.model.Motd;
+
+public class MotdTimelineTest {
+	private static Motd createMotd(final String id, final Long start, final Long end) {
+		final Motd motd = new Motd();
+		motd.setId(id);
+		motd.setStartDate(start != null ? new Date(start) : null);
+		motd.setEndDate(end != null ? new Date(end) : null);
+
+		return motd;
+	}
+
+	@Test
+	public void shouldReturnMotdsActiveAtDate() {
+		final Motd early = createMotd("early", 100L, 300L);
+		final Motd late = createMotd("late", 200L, 400L);
+		final Motd open = createMotd("open", null, null);
+		final MotdTimeline timeline = new MotdTimeline(Arrays.asList(late, open, early));
+
+		assertEquals(Arrays.asList(open), timeline.getActive(new Date(50)));
+		assertEquals(Arrays.asList(open, early), timeline.getActive(new Date(150)));
+		assertEquals(Arrays.asList(open, early, late), timeline.getActive(new Date(250)));
+		assertEquals(Arrays.asList(open, late), timeline.getActive(new Date(350)));
+		assertEquals(Arrays.asList(open), timeline.getActive(new Date(450)));
+	}
+
+	@Test
+	public void shouldExcludeMotdsAtBoundaries() {
+		final Motd motd = createMotd("motd", 100L, 200L);
+		final MotdTimeline timeline = new MotdTimeline(Arrays.asList(motd));
+
+		assertTrue(timeline.getActive(new Date(100)).isEmpty());
+		assertEquals(Arrays.asList(motd), timeline.getActive(new Date(150)));
+		assertTrue(timeline.getActive(new Date(200)).isEmpty());
+	}
+
+	@Test
+	public void shouldReuseResultUntilNextBoundary() {
+		final MotdTimeline timeline = new MotdTimeline(Arrays.asList(
+				createMotd("first", 100L, 300L), createMotd("second", 200L, 400L)));
+
+		final List<Motd> result = timeline.getActive(new Date(120));
+		assertSame(result, timeline.getActive(new Date(199)));
+		assertEquals(2, timeline.getActive(new Date(201)).size());
+	}
+}
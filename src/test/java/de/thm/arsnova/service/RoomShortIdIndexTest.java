@@ -0,0 +1,106 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.AfterFullUpdateEvent;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.persistence.RoomRepository;
+
+public class RoomShortIdIndexTest {
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final RoomShortIdIndex shortIdIndex = new RoomShortIdIndex(roomRepository);
+	private final Room room = new Room();
+
+	@Before
+	public void setUp() {
+		room.setId("room1");
+		room.setShortId("12345678");
+		when(roomRepository.findAllIdsByShortId()).thenReturn(Collections.singletonMap("12345678", "room1"));
+	}
+
+	@Test
+	public void testLoadedShortIdsAreResolvedInBothDirections() {
+		shortIdIndex.handleContextRefresh(null);
+
+		assertEquals("room1", shortIdIndex.getId("12345678"));
+		assertEquals("12345678", shortIdIndex.getShortId("room1"));
+		assertTrue(shortIdIndex.isTaken("12345678"));
+		verify(roomRepository, never()).findByShortId("12345678");
+	}
+
+	@Test
+	public void testUnknownShortIdIsLookedUpOnce() {
+		assertNull(shortIdIndex.getId("87654321"));
+		assertNull(shortIdIndex.getId("87654321"));
+
+		verify(roomRepository, times(1)).findByShortId("87654321");
+	}
+
+	@Test
+	public void testCreatedRoomReplacesRememberedUnknownShortId() {
+		assertNull(shortIdIndex.getId("87654321"));
+		final Room createdRoom = new Room();
+		createdRoom.setId("room2");
+		createdRoom.setShortId("87654321");
+		shortIdIndex.handleRoomCreation(new AfterCreationEvent<>(this, createdRoom));
+
+		assertEquals("room2", shortIdIndex.getId("87654321"));
+		shortIdIndex.handleRoomDeletion(new AfterDeletionEvent<>(this, createdRoom));
+		assertNull(shortIdIndex.getShortId("room2"));
+	}
+
+	@Test
+	public void testShortIdChangeDuringLoadIsApplied() throws InterruptedException {
+		final Room changedRoom = new Room();
+		changedRoom.setId("room1");
+		changedRoom.setShortId("87654321");
+		final Thread eventThread = new Thread(() ->
+				shortIdIndex.handleRoomUpdate(new AfterFullUpdateEvent<>(this, changedRoom, room)));
+		/* The update event arrives while the mapping is loaded. It has to wait for the load so the loaded mapping
+		 * does not override it. */
+		when(roomRepository.findAllIdsByShortId()).thenAnswer(invocation -> {
+			eventThread.start();
+			eventThread.join(100);
+			assertTrue(eventThread.isAlive());
+			return Collections.singletonMap("12345678", "room1");
+		});
+
+		shortIdIndex.handleContextRefresh(null);
+		eventThread.join();
+
+		assertEquals("87654321", shortIdIndex.getShortId("room1"));
+		assertEquals("room1", shortIdIndex.getId("87654321"));
+		assertNull(shortIdIndex.getId("12345678"));
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.thm.arsnova.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.CommonAnnotationBeanPostProcessor;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.validation.Validator;
+
+import de.thm.arsnova.config.AppConfig;
+import de.thm.arsnova.config.TestAppConfig;
+import de.thm.arsnova.config.TestPersistanceConfig;
+import de.thm.arsnova.config.TestSecurityConfig;
+import de.thm.arsnova.config.properties.AuthenticationProviderProperties;
+import de.thm.arsnova.config.properties.SecurityProperties;
+import de.thm.arsnova.config.properties.SystemProperties;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.model.UserProfile;
+import de.thm.arsnova.persistence.BulkOperationFailure;
+import de.thm.arsnova.persistence.UserRepository;
+import de.thm.arsnova.test.context.support.WithMockUser;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {
+		AppConfig.class,
+		TestAppConfig.class,
+		TestPersistanceConfig.class,
+		TestSecurityConfig.class})
+@ActiveProfiles("test")
+public class UserServiceImplTest {
+	private static final String USER_ID = "TestUser";
+	private static final String OWNER_ID = "TestOwner";
+
+	@Autowired
+	private SystemProperties systemProperties;
+
+	@Autowired
+	private SecurityProperties securityProperties;
+
+	@Autowired
+	private AuthenticationProviderProperties authenticationProviderProperties;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@Autowired
+	@Qualifier("defaultJsonMessageConverter")
+	private MappingJackson2HttpMessageConverter jackson2HttpMessageConverter;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private UserServiceImpl userService;
+
+	@Before
+	public void prepare() {
+		reset(userRepository);
+		userService = new UserServiceImpl(userRepository, systemProperties, securityProperties,
+				authenticationProviderProperties, mailSender, jackson2HttpMessageConverter, validator);
+		userService.setApplicationEventPublisher(eventPublisher);
+	}
+
+	@Test
+	@WithMockUser(USER_ID)
+	public void testRoomVisitsAreCoalesced() {
+		final UserProfile userProfile = createUserProfile();
+		final Room room1 = createRoom("room1");
+		final Room room2 = createRoom("room2");
+		when(userRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(createUserProfile()));
+		when(userRepository.bulkSave(anyListOf(UserProfile.class))).thenReturn(Collections.emptyList());
+
+		userService.addRoomToHistory(userProfile, room1);
+		userService.addRoomToHistory(userProfile, room2);
+		userService.addRoomToHistory(userProfile, room1);
+		userService.flushRoomHistory();
+		userService.flushRoomHistory();
+
+		final List<UserProfile> savedUserProfiles = captureBulkSave(1).get(0);
+		assertEquals(1, savedUserProfiles.size());
+		assertEquals(USER_ID, savedUserProfiles.get(0).getId());
+		assertEquals(2, savedUserProfiles.get(0).getRoomHistory().size());
+	}
+
+	@Test
+	@WithMockUser(USER_ID)
+	public void testRecentRoomVisitIsSkipped() {
+		final Room room = createRoom("room1");
+		final UserProfile userProfile = createUserProfile();
+		userProfile.getRoomHistory().add(new UserProfile.RoomHistoryEntry(room.getId(),
+				new Date(System.currentTimeMillis() - 60 * 1000)));
+
+		userService.addRoomToHistory(userProfile, room);
+		userService.flushRoomHistory();
+
+		verify(userRepository, never()).findAllById(anyIterable());
+		verify(userRepository, never()).bulkSave(anyListOf(UserProfile.class));
+	}
+
+	@Test
+	@WithMockUser(USER_ID)
+	public void testFailedRoomVisitsAreRequeued() {
+		final UserProfile userProfile = createUserProfile();
+		final Room room = createRoom("room1");
+		when(userRepository.findAllById(anyIterable())).then(invocation ->
+				Collections.singletonList(createUserProfile()));
+		when(userRepository.bulkSave(anyListOf(UserProfile.class)))
+				.thenReturn(Collections.singletonList(new BulkOperationFailure(USER_ID, "conflict")))
+				.thenReturn(Collections.emptyList());
+
+		userService.addRoomToHistory(userProfile, room);
+		userService.flushRoomHistory();
+		userService.flushRoomHistory();
+		userService.flushRoomHistory();
+
+		final List<List<UserProfile>> savedUserProfiles = captureBulkSave(2);
+		assertEquals(1, savedUserProfiles.get(1).size());
+		assertEquals(room.getId(), savedUserProfiles.get(1).get(0).getRoomHistory().iterator().next().getRoomId());
+	}
+
+	@Test
+	@WithMockUser(USER_ID)
+	public void testRoomVisitsAreFlushedOnDestruction() {
+		final UserProfile userProfile = createUserProfile();
+		when(userRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(createUserProfile()));
+		when(userRepository.bulkSave(anyListOf(UserProfile.class))).thenReturn(Collections.emptyList());
+
+		userService.addRoomToHistory(userProfile, createRoom("room1"));
+		new CommonAnnotationBeanPostProcessor().postProcessBeforeDestruction(userService, "userService");
+
+		assertEquals(1, captureBulkSave(1).get(0).size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<UserProfile>> captureBulkSave(final int times) {
+		final ArgumentCaptor<List<UserProfile>> captor = ArgumentCaptor.forClass(List.class);
+		verify(userRepository, times(times)).bulkSave(captor.capture());
+
+		return captor.getAllValues();
+	}
+
+	private UserProfile createUserProfile() {
+		final UserProfile userProfile = new UserProfile(UserProfile.AuthProvider.ARSNOVA, USER_ID);
+		userProfile.setId(USER_ID);
+
+		return userProfile;
+	}
+
+	private Room createRoom(final String id) {
+		final Room room = new Room();
+		room.setId(id);
+		room.setOwnerId(OWNER_ID);
+
+		return room;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of ARSnova Backend.
+ * Copyright (C) 2012-2019 The ARSnova Team and Contributors
+ *
+ * ARSnova Backend is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ARSnova Backend is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.thm.arsnova.websocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.thm.arsnova.event.AfterCreationEvent;
+import de.thm.arsnova.event.AfterDeletionEvent;
+import de.thm.arsnova.event.BatchEvent;
+import de.thm.arsnova.model.Answer;
+import de.thm.arsnova.model.Content;
+import de.thm.arsnova.model.Room;
+import de.thm.arsnova.service.AnswerService;
+import de.thm.arsnova.service.ContentService;
+import de.thm.arsnova.service.RoomService;
+
+public class RoomJoinSnapshotCacheTest {
+	private final RoomService roomService = mock(RoomService.class);
+	private final AnswerService answerService = mock(AnswerService.class);
+	private final ContentService contentService = mock(ContentService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RoomJoinSnapshotCache snapshotCache =
+			new RoomJoinSnapshotCache(roomService, answerService, contentService);
+	private final Answer answerStub = new Answer();
+
+	@Before
+	public void setUp() {
+		for (final String roomId : Arrays.asList("room1", "room2")) {
+			final Room room = new Room();
+			room.setId(roomId);
+			when(roomService.get(roomId)).thenReturn(room);
+			when(answerService.countTotalAnswersByRoomId(roomId)).thenReturn(5);
+		}
+		final Content content = new Content();
+		content.setRoomId("room1");
+		when(contentService.get("content1", true)).thenReturn(content);
+		answerStub.setContentId("content1");
+		snapshotCache.setMeterRegistry(meterRegistry);
+	}
+
+	@Test
+	public void testSnapshotIsSharedBetweenJoins() {
+		assertEquals(5, snapshotCache.get("room1").getAnswerCount());
+		assertEquals(5, snapshotCache.get("room1").getAnswerCount());
+
+		verify(answerService, times(1)).countTotalAnswersByRoomId("room1");
+		assertEquals(1, meterRegistry.get("arsnova.websocket.join.snapshot").tag("result", "hit").counter().count(), 0);
+	}
+
+	@Test
+	public void testAnswerCreatedDuringLoadIsNotLost() {
+		/* The answer is created after the count has been queried but before the snapshot is stored. */
+		when(answerService.countTotalAnswersByRoomId("room1")).thenAnswer(invocation -> {
+			final Answer answer = new Answer();
+			answer.setRoomId("room1");
+			snapshotCache.handleAnswerCreation(new AfterCreationEvent<>(this, answer));
+			return 5;
+		}).thenReturn(6);
+
+		assertEquals(5, snapshotCache.get("room1").getAnswerCount());
+		assertEquals(6, snapshotCache.get("room1").getAnswerCount());
+		assertEquals(6, snapshotCache.get("room1").getAnswerCount());
+		verify(answerService, times(2)).countTotalAnswersByRoomId("room1");
+	}
+
+	@Test
+	public void testAnswerStubDeletionOnlyInvalidatesRoomOfContent() {
+		snapshotCache.get("room1");
+		snapshotCache.get("room2");
+		snapshotCache.handleAnswerDeletion(new AfterDeletionEvent<>(this, answerStub));
+		snapshotCache.get("room1");
+		snapshotCache.get("room2");
+
+		verify(answerService, times(2)).countTotalAnswersByRoomId("room1");
+		verify(answerService, times(1)).countTotalAnswersByRoomId("room2");
+	}
+
+	@Test
+	public void testBatchDeletionResolvesContentOnce() {
+		snapshotCache.get("room1");
+		snapshotCache.handleAnswerDeletions(new BatchEvent<>(this, Answer.class, Arrays.asList(
+				new AfterDeletionEvent<>(this, answerStub), new AfterDeletionEvent<>(this, answerStub))));
+		snapshotCache.get("room1");
+
+		verify(contentService, times(1)).get("content1", true);
+		verify(answerService, times(2)).countTotalAnswersByRoomId("room1");
+	}
+}